@@ -39,6 +39,7 @@ public class LocalizationStrings {
      public static String GAME_OVER = "GameOver";
      public static String GAME_OVER_HEADER = "GameOverHeader";
      public static String GAME_WON_STATUS_BAR = "GameWonStatusBar";
+     public static String NO_MOVES_STATUS_BAR = "NoMovesStatusBar";
      public static String GITHUB = "GitHub";
      public static String HELP = "Help";
      public static String DEAL = "Deal";
@@ -47,4 +48,15 @@ public class LocalizationStrings {
      public static String OPTIONS = "Options";
      public static String EXIT = "Exit";
      public static String SCORE_TITLE = "ScoreTitle";
+     public static String STATISTICS = "Statistics";
+     public static String STATISTICS_HEADER = "StatisticsHeader";
+     public static String STATISTICS_PLAYED = "StatisticsPlayed";
+     public static String STATISTICS_WON = "StatisticsWon";
+     public static String STATISTICS_WIN_RATE = "StatisticsWinRate";
+     public static String STATISTICS_CURRENT_STREAK = "StatisticsCurrentStreak";
+     public static String STATISTICS_LONGEST_WIN_STREAK = "StatisticsLongestWinStreak";
+     public static String STATISTICS_LONGEST_LOSS_STREAK = "StatisticsLongestLossStreak";
+     public static String STATISTICS_VEGAS_CUMULATIVE = "StatisticsVegasCumulative";
+     public static String STATISTICS_MEDIAN_TIME = "StatisticsMedianTime";
+     public static String STATISTICS_FASTEST_TIME = "StatisticsFastestTime";
 }
\ No newline at end of file
@@ -2,24 +2,40 @@ package game.application;
 
 import java.awt.Dimension;
 import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.logging.Level;
 
 import javax.swing.AbstractButton;
 import javax.swing.UIManager;
 
+import framework.communication.internal.signal.arguments.EventArgs;
 import framework.core.factories.AbstractFactory;
+import framework.core.factories.ControllerFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.navigation.MenuBuilder;
 import framework.core.system.Application;
 import framework.core.system.EngineProperties;
 import framework.core.system.EngineProperties.Property;
 import framework.utils.globalisation.Localization;
+import framework.utils.logging.Tracelog;
 
+import game.config.GameJournal;
+import game.config.IOptionsListener;
 import game.config.OptionsPreferences;
+import game.config.OptionsSnapshot;
+import game.config.PreferencesStore;
+import game.config.StatisticsLedger;
+import game.controllers.MovementRecorderController;
+import game.events.GameEventBus;
 import game.menu.AboutMenuItem;
 import game.menu.DeckMenuItem;
 import game.menu.ExitMenuItem;
@@ -27,12 +43,26 @@ import game.menu.GitHubMenuItem;
 import game.menu.NewGameMenuItem;
 import game.menu.OnTopMenuItem;
 import game.menu.OptionsMenuItem;
+import game.menu.StatisticsMenuItem;
 import game.menu.UndoMenuItem;
+import game.models.BoardPosition;
+import game.views.BoardCanvasView;
+import game.views.CardView;
 import game.views.FoundationPileView;
+import game.views.GameContext;
 import game.views.GameView;
+import game.views.StatusBarView;
+import game.views.StockView;
 import game.views.TableauPileView;
 import game.views.TalonPileView;
+import game.views.helpers.AnimationScheduler;
+import game.views.helpers.CardDragHelper;
+import game.views.helpers.CardFlightHelper;
 import game.views.helpers.DeckAnimationHelper;
+import game.views.helpers.DragEventCoalescer;
+import game.views.helpers.ReplayExporter;
+import game.views.helpers.ReplayExporter.Format;
+import game.views.helpers.ViewHelper;
 import game.views.helpers.WinAnimationHelper;
 
 import resources.LocalizationStrings;
@@ -42,20 +72,53 @@ import resources.LocalizationStrings;
  */
 public final class Game extends Application {
 
+    /**
+     * The position that the next game should be restored to, if any
+     */
+    private BoardPosition _pendingPosition;
+    
+    /**
+     * This flag indicates if the board is painted by a single canvas, see {@link BoardCanvasView}
+     */
+    private final boolean _isCanvasMode;
+
     /**
      * Constructs a new instance of this class type
      * 
      * @param isDebug The debug mode flag
+     * @param isCanvasMode TRUE if the board is painted by a single canvas, FALSE otherwise
      */
-    private Game(boolean isDebug) {
+    private Game(boolean isDebug, boolean isCanvasMode) {
         super(isDebug);
+        _isCanvasMode = isCanvasMode;
         setMinimumSize(new Dimension(620, 436));
         
-        OptionsPreferences options = new OptionsPreferences();
-        options.load();
+        OptionsSnapshot options = OptionsSnapshot.current();
         setLocationRelativeTo(null);
         setAlwaysOnTop(options.alwaysOnTop);
         setIconImage(Localization.instance().getLocalizedData(LocalizationStrings.GAME_ICON));
+        
+        // Options that do not require a new game take effect as soon as they are saved
+        OptionsSnapshot.addListener(new IOptionsListener() {
+            @Override public void onOptionsChanged(OptionsSnapshot previous, OptionsSnapshot current) {
+                if(previous.alwaysOnTop != current.alwaysOnTop) {
+                    setAlwaysOnTop(current.alwaysOnTop);
+                }
+                
+                ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+                if(previous.statusBar != current.statusBar && viewFactory.exists(StatusBarView.class)) {
+                    viewFactory.get(StatusBarView.class).synchronizeWithOptions();
+                }
+                if(previous.deck != current.deck) {
+                    ViewHelper.changeDeckBackside(current.deck);
+                }
+                if(previous.outlineDragging != current.outlineDragging) {
+                    EventArgs args = new EventArgs(this, CardView.EVENT_OUTLINE_SYNCHRONIZE);
+                    args.setSuppressUpdate(true);
+                    viewFactory.multicastSignalListeners(CardView.class, args);
+                }
+            }
+        });
         if(isDebug) {
             addKeyListener(new KeyAdapter() {
                 @Override public void keyPressed(KeyEvent event) {
@@ -65,7 +128,16 @@ public final class Game extends Application {
                         OptionsPreferences options = new OptionsPreferences();
                         options.load();
                         System.out.println(options);
+                        System.out.println(DragEventCoalescer.getInstance());
+                        
+                        if(viewFactory.exists(BoardCanvasView.class)) {
+                            BoardCanvasView canvasView = viewFactory.get(BoardCanvasView.class);
+                            System.out.println(canvasView.getPosition());
+                            System.out.println(canvasView.getPileImages());
+                            return;
+                        }
                         
+                        System.out.println(viewFactory.get(StockView.class).getImageCache());
                         System.out.println(viewFactory.get(TalonPileView.class).toString());
                         
                         List<TableauPileView> pileViews =  viewFactory.getAll(TableauPileView.class);
@@ -81,6 +153,22 @@ public final class Game extends Application {
                         event.consume();
                         System.out.println(viewFactory.get(TalonPileView.class).toString());
                     }
+                    else if(event.getKeyCode() == KeyEvent.VK_F5) {
+                        event.consume();
+                        exportPosition();
+                    }
+                    else if(event.getKeyCode() == KeyEvent.VK_F6) {
+                        event.consume();
+                        importPosition();
+                    }
+                    else if(event.getKeyCode() == KeyEvent.VK_F7) {
+                        event.consume();
+                        exportReplay(Format.GIF);
+                    }
+                    else if(event.getKeyCode() == KeyEvent.VK_F8) {
+                        event.consume();
+                        exportReplay(Format.PNG);
+                    }
                 }
             });
         }
@@ -101,6 +189,54 @@ public final class Game extends Application {
         });
     }
     
+    /**
+     * Exports the position of the board, printing it and placing it on the system clipboard
+     */
+    private void exportPosition() {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        String notation = (_isCanvasMode ? viewFactory.get(BoardCanvasView.class).getPosition() : viewFactory.get(GameView.class).capturePosition()).format();
+        System.out.println(notation);
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(notation), null);
+    }
+    
+    /**
+     * Imports the position held on the system clipboard, restarting the game at that position
+     */
+    private void importPosition() {
+        BoardPosition position;
+        try {
+            position = BoardPosition.parse((String)Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor));
+        }
+        catch(UnsupportedFlavorException | IOException | IllegalArgumentException exception) {
+            Tracelog.log(Level.WARNING, true, exception);
+            return;
+        }
+        
+        // The draw option of the position is taken by the talon of the restored game, the stored options are untouched
+        _pendingPosition = position;
+        onRestart();
+    }
+    
+    /**
+     * Exports the replay of the current game in the background, leaving the game window untouched
+     * 
+     * @param format The export format
+     */
+    private void exportReplay(Format format) {
+        // Deliver the pending game events so that the journal holds the latest movements
+        GameEventBus.getInstance().flush();
+        
+        GameJournal journal = AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).getJournal();
+        if(journal == null) {
+            Tracelog.log(Level.WARNING, true, "The current game has no journal to export, restored positions are not journaled");
+            return;
+        }
+        
+        String name = String.format("%016x", journal.getSeed());
+        File directory = new File(GameJournal.DIRECTORY.getParentFile(), "exports");
+        new ReplayExporter(journal).export(format == Format.GIF ? new File(directory, name + ".gif") : new File(directory, name), format);
+    }
+    
     /**
      * Main entry-point method
      * 
@@ -110,12 +246,17 @@ public final class Game extends Application {
         EventQueue.invokeLater(new Runnable() {
             @Override public void run() {
                 boolean debugMode = false;
+                boolean canvasMode = false;
                 for(String arg : args) {
                     switch(arg.trim()) {
                     case "debug": {
                         debugMode = true;
                         break;
                     }
+                    case "canvas": {
+                        canvasMode = true;
+                        break;
+                    }
                     }
                 }
                 
@@ -131,7 +272,7 @@ public final class Game extends Application {
                 EngineProperties.instance().setProperty(Property.SUPPRESS_SIGNAL_REGISTRATION_OUTPUT, Boolean.toString(false));
                 EngineProperties.instance().setProperty(Property.DISABLE_TRANSLATIONS_PLACEHOLDER, Boolean.toString(!debugMode));
                 
-                Game game = new Game(debugMode);
+                Game game = new Game(debugMode, canvasMode);
                 game.setVisible(true);   
             }
         });
@@ -142,6 +283,9 @@ public final class Game extends Application {
         
         if(AbstractFactory.isRunning()) {
             
+            // Record the game being abandoned before its state is discarded
+            recordGameResult();
+            
             // Clear the factory of it's contents
             AbstractFactory.clearFactories();
             
@@ -153,15 +297,53 @@ public final class Game extends Application {
         }
 
         WinAnimationHelper.clear();
+        WinAnimationHelper.clearTrail();
+        CardDragHelper.getInstance().clear();
+        CardFlightHelper.getInstance().clear();
+        AnimationScheduler.getInstance().clear();
         DeckAnimationHelper.getInstance().clear();
+        GameEventBus.getInstance().clear();
+        GameContext.clear();
+        
+        // Spawn a new board canvas, restoring a position is not supported by the canvas
+        if(_isCanvasMode) {
+            _pendingPosition = null;
+            instance.setContentPane(AbstractFactory.getFactory(ViewFactory.class).add(new BoardCanvasView(), true));
+            instance.revalidate();
+            return;
+        }
         
         // Spawn a new game view and render its contents
-        GameView gameView = AbstractFactory.getFactory(ViewFactory.class).add(new GameView(), true);
+        GameView gameView = AbstractFactory.getFactory(ViewFactory.class).add(new GameView(_pendingPosition), true);
+        _pendingPosition = null;
         instance.setContentPane(gameView);
         gameView.render();
     }
 
-
+    
+    /**
+     * Records the game in progress as abandoned, see {@link GameView#recordGameResult(boolean)}
+     */
+    private static void recordGameResult() {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        if(viewFactory.exists(GameView.class)) {
+            viewFactory.get(GameView.class).recordGameResult(false);
+        }
+        else if(viewFactory.exists(BoardCanvasView.class)) {
+            viewFactory.get(BoardCanvasView.class).recordGameResult(false);
+        }
+    }
+    
+    @Override public void windowClosing(WindowEvent windowEvent) {
+        // Record the game in progress and persist the statistics and preferences before the application exits
+        if(AbstractFactory.isRunning()) {
+            recordGameResult();
+        }
+        StatisticsLedger.getInstance().flush();
+        PreferencesStore.getInstance().flush();
+        
+        super.windowClosing(windowEvent);
+    }
     
     @Override public void windowOpened(WindowEvent windowEvent) {
     	System.out.println("Window Opened");    	
@@ -181,6 +363,7 @@ public final class Game extends Application {
         .addMenuItem(UndoMenuItem.class)
         .addMenuItem(DeckMenuItem.class)
         .addMenuItem(OptionsMenuItem.class)
+        .addMenuItem(StatisticsMenuItem.class)
         .addSeparator()
         .addMenuItem(ExitMenuItem.class);
                 
@@ -0,0 +1,258 @@
+package game.application;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import game.config.GameJournal;
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+import game.models.GameEngine;
+
+/**
+ * Replays every game journal of a directory against the rules engine and verifies that each recorded result is
+ * reproduced. Journals are streamed from the directory and verified in parallel, so that archives holding millions of
+ * games never need to be listed or loaded in memory at once.
+ *
+ * Usage: ReplayVerifier [directory] [threads]
+ */
+public final class ReplayVerifier {
+
+    /**
+     * The maximum number of offending journals that are listed
+     */
+    private static final int MAX_REPORTED = 20;
+
+    /**
+     * The outcome of verifying a single journal
+     */
+    private enum Outcome { VALID, RULE_VIOLATION, SCORE_MISMATCH, RESULT_MISMATCH, MOVES_MISMATCH, CORRUPT };
+
+    /**
+     * The engine used by each worker thread. The engine is dealt again for every journal, so it is never allocated more than once per thread
+     */
+    private final ThreadLocal<GameEngine[]> _engines = ThreadLocal.withInitial(() -> new GameEngine[DrawOption.values().length * ScoringOption.values().length]);
+
+    /**
+     * The number of occurrences of each outcome
+     */
+    private final LongAdder[] _outcomes = new LongAdder[Outcome.values().length];
+
+    /**
+     * The number of games that were won
+     */
+    private final LongAdder _wins = new LongAdder();
+
+    /**
+     * The number of entries that were replayed
+     */
+    private final LongAdder _entries = new LongAdder();
+
+    /**
+     * The offending journals, up to {@link #MAX_REPORTED}
+     */
+    private final Queue<String> _reported = new ConcurrentLinkedQueue<String>();
+
+    /**
+     * The number of offending journals that were reported
+     */
+    private final AtomicInteger _reportedCount = new AtomicInteger();
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private ReplayVerifier() {
+        for(int i = 0; i < _outcomes.length; ++i) {
+            _outcomes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Verifies every journal within the specified directory
+     *
+     * @param directory The directory holding the journals
+     * @param threads The number of worker threads
+     *
+     * @throws IOException If the directory could not be read
+     * @throws InterruptedException If the verification was interrupted
+     */
+    private void run(Path directory, int threads) throws IOException, InterruptedException {
+        // The queue is bounded so that the directory is only read as fast as the journals are verified. When the
+        // queue is full the reading thread verifies the journal itself
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(threads * 64),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + GameJournal.EXTENSION)) {
+            for(Path path : stream) {
+                executor.execute(() -> verify(path));
+            }
+        }
+        finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+    }
+
+    /**
+     * Verifies the specified journal and records its outcome
+     *
+     * @param path The path of the journal
+     */
+    private void verify(Path path) {
+        Outcome outcome;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size < GameJournal.HEADER_SIZE || (size - GameJournal.HEADER_SIZE) % GameJournal.ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                outcome = Outcome.CORRUPT;
+            }
+            else {
+                outcome = verify(channel.map(MapMode.READ_ONLY, 0, size));
+            }
+        }
+        catch(IOException exception) {
+            outcome = Outcome.CORRUPT;
+        }
+
+        _outcomes[outcome.ordinal()].increment();
+        if(outcome != Outcome.VALID) {
+            // The journal is kept only if it takes one of the reported slots, which holds under concurrent workers
+            if(_reportedCount.incrementAndGet() <= MAX_REPORTED) {
+                _reported.add(String.format("%s: %s", outcome, path.getFileName()));
+            }
+        }
+    }
+
+    /**
+     * Replays the specified journal
+     *
+     * @param buffer The contents of the journal
+     *
+     * @return The outcome of the replay
+     */
+    private Outcome verify(MappedByteBuffer buffer) {
+        if(buffer.getInt() != GameJournal.MAGIC || buffer.getShort() != GameJournal.VERSION) {
+            return Outcome.CORRUPT;
+        }
+
+        int options = buffer.getShort();
+        long seed = buffer.getLong();
+        int score = buffer.getInt();
+        int time = buffer.getInt();
+        int moves = buffer.getInt();
+        boolean isWon = buffer.get() != 0;
+        buffer.position(GameJournal.HEADER_SIZE);
+
+        int draw = options & 0x3;
+        int scoring = (options >> 2) & 0x3;
+        if(draw >= DrawOption.values().length || scoring >= ScoringOption.values().length) {
+            return Outcome.CORRUPT;
+        }
+
+        GameEngine[] engines = _engines.get();
+        int index = draw * ScoringOption.values().length + scoring;
+        if(engines[index] == null) {
+            engines[index] = new GameEngine(DrawOption.values()[draw], ScoringOption.values()[scoring]);
+        }
+        GameEngine engine = engines[index];
+        engine.deal(seed);
+
+        int replayedMoves = 0;
+        int entries = buffer.remaining() / GameJournal.ENTRY_SIZE;
+        _entries.add(entries);
+        for(int i = 0; i < entries; ++i) {
+            int type = buffer.get() & 0xFF;
+            int from = buffer.get() & 0xFF;
+            int to = buffer.get() & 0xFF;
+            int card = buffer.get() & 0xFF;
+
+            if(type > GameJournal.ENTRY_TICK) {
+                return Outcome.CORRUPT;
+            }
+            if(type == GameJournal.ENTRY_DRAW || type == GameJournal.ENTRY_MOVE || type == GameJournal.ENTRY_FLIP) {
+                ++replayedMoves;
+            }
+
+            boolean isValid = GameJournal.apply(engine, type, from, to, card);
+            if(!isValid) {
+                return Outcome.RULE_VIOLATION;
+            }
+        }
+
+        if(engine.isWon()) {
+            engine.applyBonus(time);
+            _wins.increment();
+        }
+
+        if(engine.isWon() != isWon) {
+            return Outcome.RESULT_MISMATCH;
+        }
+        if(engine.getScore() != score) {
+            return Outcome.SCORE_MISMATCH;
+        }
+        if(replayedMoves != moves) {
+            return Outcome.MOVES_MISMATCH;
+        }
+
+        return Outcome.VALID;
+    }
+
+    /**
+     * Prints the summary of the verification
+     *
+     * @param elapsed The number of nanoseconds that the verification took
+     * @param threads The number of worker threads
+     */
+    private void printSummary(long elapsed, int threads) {
+        long games = 0;
+        for(LongAdder outcome : _outcomes) {
+            games += outcome.sum();
+        }
+
+        double seconds = Math.max(elapsed, 1) / 1e9;
+        System.out.println(String.format("Games: %d, Wins: %d, Entries: %d", games, _wins.sum(), _entries.sum()));
+        for(Outcome outcome : Outcome.values()) {
+            System.out.println(String.format("  %s: %d", outcome, _outcomes[outcome.ordinal()].sum()));
+        }
+        System.out.println(String.format("Elapsed: %.3fs, %.0f games/s, %.0f games/s/thread", seconds, games / seconds, games / seconds / threads));
+
+        if(!_reported.isEmpty()) {
+            System.out.println(String.format("First %d offending journals:", _reported.size()));
+            _reported.forEach(z -> System.out.println("  " + z));
+        }
+    }
+
+    /**
+     * The main entry point
+     *
+     * @param args The directory holding the journals, followed by the number of worker threads
+     *
+     * @throws Exception If the verification could not be performed
+     */
+    public static void main(String[] args) throws Exception {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : GameJournal.DIRECTORY.toPath();
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ReplayVerifier verifier = new ReplayVerifier();
+        long start = System.nanoTime();
+        verifier.run(directory, threads);
+        verifier.printSummary(System.nanoTime() - start, threads);
+    }
+}
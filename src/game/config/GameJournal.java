@@ -0,0 +1,221 @@
+package game.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import framework.utils.logging.Tracelog;
+
+import game.models.GameEngine;
+
+/**
+ * The journal of a single game, recording every action taken so that the game can be replayed and verified later on.
+ *
+ * A journal file starts with a fixed-width header followed by one fixed-width entry per action
+ *
+ *   Header: magic (int), version (short), options (short), seed (long), score (int), time (int), moves (int), won (byte), reserved (3 bytes)
+ *   Entry:  type (byte), from pile (byte), to pile (byte), card (byte)
+ *
+ * Piles are identified the same way as within {@link game.models.GameEngine}
+ */
+public final class GameJournal {
+
+    /**
+     * The magic number that starts every journal file
+     */
+    public static final int MAGIC = 0x534F4C4A;
+
+    /**
+     * The version of the journal layout
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * The size in bytes of the header of a journal file
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * The size in bytes of a single entry
+     */
+    public static final int ENTRY_SIZE = 4;
+
+    /**
+     * The file extension of journal files
+     */
+    public static final String EXTENSION = ".journal";
+
+    /**
+     * The directory that holds the journal files
+     */
+    public static final File DIRECTORY = new File(StatisticsLedger.DIRECTORY, "journals");
+
+    /**
+     * The entry type of cards being drawn from the stock
+     */
+    public static final int ENTRY_DRAW = 0;
+
+    /**
+     * The entry type of cards being moved from one pile to another
+     */
+    public static final int ENTRY_MOVE = 1;
+
+    /**
+     * The entry type of a card having its backside uncovered
+     */
+    public static final int ENTRY_FLIP = 2;
+
+    /**
+     * The entry type of the last action being undone
+     */
+    public static final int ENTRY_UNDO = 3;
+
+    /**
+     * The entry type of the game timer penalty
+     */
+    public static final int ENTRY_TICK = 4;
+
+    /**
+     * The value used when an entry does not refer to a pile or a card
+     */
+    public static final int NONE = 0xFF;
+
+    /**
+     * The seed used to deal the game
+     */
+    private final long _seed;
+
+    /**
+     * The options that the game is played with, see {@link StatisticsLedger#packOptions(OptionsSnapshot)}
+     */
+    private final int _options;
+
+    /**
+     * The recorded entries
+     */
+    private byte[] _entries = new byte[ENTRY_SIZE * 256];
+
+    /**
+     * The number of bytes used within the entries
+     */
+    private int _size;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param seed The seed used to deal the game
+     * @param options The packed options that the game is played with
+     */
+    public GameJournal(long seed, int options) {
+        _seed = seed;
+        _options = options;
+    }
+
+    /**
+     * @return The seed used to deal the game
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    /**
+     * @return The packed options that the game is played with
+     */
+    public int getOptions() {
+        return _options;
+    }
+
+    /**
+     * @return A copy of the entries recorded so far, {@link #ENTRY_SIZE} bytes per entry
+     */
+    public synchronized byte[] getEntries() {
+        return Arrays.copyOf(_entries, _size);
+    }
+
+    /**
+     * Applies a single entry to the specified engine
+     *
+     * @param engine The engine
+     * @param type The entry type
+     * @param from The pile that the action started from
+     * @param to The pile that the action ended at
+     * @param card The code of the card involved
+     *
+     * @return TRUE if the entry is allowed by the rules, FALSE otherwise
+     */
+    public static boolean apply(GameEngine engine, int type, int from, int to, int card) {
+        switch(type) {
+        case ENTRY_DRAW:
+            return engine.draw();
+        case ENTRY_MOVE:
+            return engine.move(from, to, card);
+        case ENTRY_FLIP:
+            return engine.flip(from, card);
+        case ENTRY_UNDO:
+            return engine.undo();
+        case ENTRY_TICK:
+            engine.tick();
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Appends an entry to this journal
+     *
+     * @param type The entry type
+     * @param from The pile that the action started from, or {@link #NONE}
+     * @param to The pile that the action ended at, or {@link #NONE}
+     * @param card The code of the card involved, or {@link #NONE}
+     */
+    public synchronized void append(int type, int from, int to, int card) {
+        if(_size + ENTRY_SIZE > _entries.length) {
+            _entries = Arrays.copyOf(_entries, _entries.length * 2);
+        }
+
+        _entries[_size++] = (byte)type;
+        _entries[_size++] = (byte)from;
+        _entries[_size++] = (byte)to;
+        _entries[_size++] = (byte)card;
+    }
+
+    /**
+     * Writes this journal to its own file within the journal directory
+     *
+     * @param score The final score of the game
+     * @param time The number of seconds that the game lasted
+     * @param moves The number of moves that were made
+     * @param isWon TRUE if the game was won, FALSE otherwise
+     */
+    public synchronized void write(int score, int time, int moves, boolean isWon) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short)_options);
+        header.putLong(_seed);
+        header.putInt(score);
+        header.putInt(time);
+        header.putInt(moves);
+        header.put((byte)(isWon ? 1 : 0));
+        header.position(HEADER_SIZE);
+        header.flip();
+
+        DIRECTORY.mkdirs();
+        File file = new File(DIRECTORY, String.format("%d-%016x%s", System.currentTimeMillis(), _seed, EXTENSION));
+        try(FileOutputStream stream = new FileOutputStream(file)) {
+            FileChannel channel = stream.getChannel();
+            ByteBuffer entries = ByteBuffer.wrap(_entries, 0, _size);
+            while(header.hasRemaining() || entries.hasRemaining()) {
+                channel.write(new ByteBuffer[] { header, entries });
+            }
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package game.config;
+
+/**
+ * A listener that is notified whenever the options of the game are changed
+ */
+public interface IOptionsListener {
+
+    /**
+     * Called after a new options snapshot is published
+     *
+     * @param previous The options that were in effect before the change
+     * @param current The options that are now in effect
+     */
+    public void onOptionsChanged(OptionsSnapshot previous, OptionsSnapshot current);
+}
@@ -2,19 +2,38 @@ package game.config;
 
 import java.util.logging.Level;
 
-import framework.core.system.GamePreferences;
 import framework.utils.logging.Tracelog;
 
-import game.views.OptionsDialogView;
-
 import generated.DataLookup;
 
-public final class OptionsPreferences extends GamePreferences {
+public final class OptionsPreferences {
 
     public enum DrawOption { ONE, THREE };
     
     public enum ScoringOption { STANDARD, VEGAS, NONE };
     
+    public enum AnimationSpeed {
+        NONE("None"), SLOW("Slow"), NORMAL("Normal"), FAST("Fast");
+
+        /**
+         * The label of the speed, as shown to the player
+         */
+        private final String _label;
+
+        /**
+         * Constructs a new instance of this enum type
+         *
+         * @param label The label of the speed, as shown to the player
+         */
+        AnimationSpeed(String label) {
+            _label = label;
+        }
+
+        @Override public String toString() {
+            return _label;
+        }
+    };
+    
     public boolean timedGame;
     
     public boolean statusBar;
@@ -31,11 +50,36 @@ public final class OptionsPreferences extends GamePreferences {
     
     public boolean alwaysOnTop;
     
-    public OptionsPreferences() {
-        super(OptionsDialogView.class);
+    public AnimationSpeed animationSpeed;
+    
+    public boolean autoPlay;
+    
+    /**
+     * The store that holds the preferences, see {@link PreferencesStore}
+     */
+    private final PreferencesStore preferences = PreferencesStore.getInstance();
+    
+    /**
+     * Loads the options currently in effect, see {@link OptionsSnapshot#current()}
+     */
+    public void load() {
+        OptionsSnapshot snapshot = OptionsSnapshot.current();
+        drawOption = snapshot.drawOption;
+        scoringOption = snapshot.scoringOption;
+        timedGame = snapshot.timedGame;
+        statusBar = snapshot.statusBar;
+        outlineDragging = snapshot.outlineDragging;
+        cumulativeScore = snapshot.cumulativeScore;
+        deck = snapshot.deck;
+        alwaysOnTop = snapshot.alwaysOnTop;
+        animationSpeed = snapshot.animationSpeed;
+        autoPlay = snapshot.autoPlay;
     }
-
-    @Override public void load() {
+    
+    /**
+     * Reads the options from the preferences store
+     */
+    void read() {
         drawOption = DrawOption.values()[preferences.getInt("drawOption", DrawOption.ONE.ordinal())];
         scoringOption = ScoringOption.values()[preferences.getInt("scoringOption", ScoringOption.STANDARD.ordinal())];
         timedGame = preferences.getBoolean("timedGame", false);
@@ -44,9 +88,11 @@ public final class OptionsPreferences extends GamePreferences {
         cumulativeScore = preferences.getBoolean("cumulativeScore", false);
         deck = DataLookup.BACKSIDES.values()[preferences.getInt("deck", DataLookup.BACKSIDES.DECK_1.ordinal())];
         alwaysOnTop = preferences.getBoolean("alwaysOnTop", false);
+        animationSpeed = AnimationSpeed.values()[preferences.getInt("animationSpeed", AnimationSpeed.NORMAL.ordinal())];
+        autoPlay = preferences.getBoolean("autoPlay", false);
     }
 
-    @Override public void save() {
+    public void save() {
         try {
             preferences.putInt("drawOption", drawOption.ordinal());
             preferences.putInt("scoringOption", scoringOption.ordinal());
@@ -56,7 +102,10 @@ public final class OptionsPreferences extends GamePreferences {
             preferences.putBoolean("cumulativeScore", cumulativeScore);
             preferences.putInt("deck", deck.ordinal());
             preferences.putBoolean("alwaysOnTop", alwaysOnTop);
-            preferences.flush();
+            preferences.putInt("animationSpeed", animationSpeed.ordinal());
+            preferences.putBoolean("autoPlay", autoPlay);
+            preferences.save();
+            OptionsSnapshot.publish(this);
         } 
         catch (Exception exception) {
             Tracelog.log(Level.SEVERE, true, exception);
@@ -75,6 +124,8 @@ public final class OptionsPreferences extends GamePreferences {
         builder.append("Cumulative Score: " + Boolean.toString(cumulativeScore) + System.getProperty("line.separator"));
         builder.append("Deck: " + deck.toString() + System.getProperty("line.separator"));
         builder.append("Always on Top: " + alwaysOnTop + System.getProperty("line.seperator"));
+        builder.append("Animation Speed: " + animationSpeed + System.getProperty("line.separator"));
+        builder.append("Auto Play: " + Boolean.toString(autoPlay) + System.getProperty("line.separator"));
         builder.append(new String(new char[header.length()]).replace("\0", "="));
         return builder.toString();
     }
@@ -0,0 +1,120 @@
+package game.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import game.config.OptionsPreferences.AnimationSpeed;
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+
+import generated.DataLookup;
+
+/**
+ * An immutable view of the options of the game.
+ *
+ * The options are read from the {@link PreferencesStore} once, and a new snapshot is swapped in whenever
+ * {@link OptionsPreferences#save()} is called, after which every registered {@link IOptionsListener} is notified. Code
+ * that only needs to read the options should use {@link #current()} rather than loading an {@link OptionsPreferences}
+ */
+public final class OptionsSnapshot {
+
+    /**
+     * The snapshot currently in effect
+     */
+    private static volatile OptionsSnapshot _current;
+
+    /**
+     * The listeners notified whenever the options change
+     */
+    private static final List<IOptionsListener> _listeners = new CopyOnWriteArrayList<IOptionsListener>();
+
+    public final DrawOption drawOption;
+
+    public final ScoringOption scoringOption;
+
+    public final boolean timedGame;
+
+    public final boolean statusBar;
+
+    public final boolean outlineDragging;
+
+    public final boolean cumulativeScore;
+
+    public final DataLookup.BACKSIDES deck;
+
+    public final boolean alwaysOnTop;
+
+    public final AnimationSpeed animationSpeed;
+
+    public final boolean autoPlay;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param preferences The preferences to copy
+     */
+    private OptionsSnapshot(OptionsPreferences preferences) {
+        drawOption = preferences.drawOption;
+        scoringOption = preferences.scoringOption;
+        timedGame = preferences.timedGame;
+        statusBar = preferences.statusBar;
+        outlineDragging = preferences.outlineDragging;
+        cumulativeScore = preferences.cumulativeScore;
+        deck = preferences.deck;
+        alwaysOnTop = preferences.alwaysOnTop;
+        animationSpeed = preferences.animationSpeed;
+        autoPlay = preferences.autoPlay;
+    }
+
+    /**
+     * @return The options currently in effect, read from the preferences store the first time they are requested
+     */
+    public static OptionsSnapshot current() {
+        OptionsSnapshot snapshot = _current;
+        if(snapshot == null) {
+            synchronized(OptionsSnapshot.class) {
+                if(_current == null) {
+                    OptionsPreferences preferences = new OptionsPreferences();
+                    preferences.read();
+                    _current = new OptionsSnapshot(preferences);
+                }
+                snapshot = _current;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Registers a listener that is notified whenever the options change
+     *
+     * @param listener The listener
+     */
+    public static void addListener(IOptionsListener listener) {
+        _listeners.add(listener);
+    }
+
+    /**
+     * Unregisters the specified listener
+     *
+     * @param listener The listener
+     */
+    public static void removeListener(IOptionsListener listener) {
+        _listeners.remove(listener);
+    }
+
+    /**
+     * Swaps in a snapshot of the specified preferences and notifies the listeners. The listeners are called on the
+     * thread that saved the preferences
+     *
+     * @param preferences The preferences that were saved
+     */
+    static void publish(OptionsPreferences preferences) {
+        OptionsSnapshot previous = current();
+        OptionsSnapshot snapshot = new OptionsSnapshot(preferences);
+        _current = snapshot;
+
+        for(IOptionsListener listener : _listeners) {
+            listener.onOptionsChanged(previous, snapshot);
+        }
+    }
+}
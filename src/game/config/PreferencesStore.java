@@ -0,0 +1,248 @@
+package game.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+import framework.utils.logging.Tracelog;
+
+import game.views.OptionsDialogView;
+
+/**
+ * A local preferences backend held within a single properties file.
+ *
+ * The file is read once into memory, reads never touch the disk, and saves are debounced onto a background thread where
+ * the file is written to a temporary file and then moved over the existing one. Preferences that were stored by a previous
+ * version through {@link java.util.prefs.Preferences} are migrated the first time the file does not exist
+ */
+public final class PreferencesStore {
+
+    /**
+     * The number of milliseconds that a save waits for further changes before the file is written
+     */
+    private static final long SAVE_DELAY = 500;
+
+    /**
+     * The singleton instance of this class
+     */
+    private static PreferencesStore _instance;
+
+    /**
+     * The preferences file
+     */
+    private final File _file = new File(StatisticsLedger.DIRECTORY, "options.properties");
+
+    /**
+     * The preferences held in memory
+     */
+    private final Properties _properties = new Properties();
+
+    /**
+     * The background thread that writes the preferences file
+     */
+    private final ScheduledExecutorService _writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PreferencesStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The lock held while the preferences file is written, so that two writes never share the temporary file
+     */
+    private final Object _fileLock = new Object();
+
+    /**
+     * The pending write of the preferences file, if any
+     */
+    private ScheduledFuture<?> _pendingWrite;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private PreferencesStore() {
+    }
+
+    /**
+     * @return The preferences store, loading the preferences file the first time it is requested
+     */
+    public static synchronized PreferencesStore getInstance() {
+        if(_instance == null) {
+            _instance = new PreferencesStore();
+            _instance.load();
+        }
+
+        return _instance;
+    }
+
+    /**
+     * Gets the integer value associated to the specified key
+     *
+     * @param key The key
+     * @param defaultValue The value to use if the key does not exist or is not an integer
+     *
+     * @return The value
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = _properties.getProperty(key);
+        if(value != null) {
+            try {
+                return Integer.parseInt(value);
+            }
+            catch(NumberFormatException exception) {
+                Tracelog.log(Level.WARNING, true, exception);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Gets the boolean value associated to the specified key
+     *
+     * @param key The key
+     * @param defaultValue The value to use if the key does not exist
+     *
+     * @return The value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = _properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Associates the specified integer value to the specified key
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void putInt(String key, int value) {
+        _properties.setProperty(key, Integer.toString(value));
+    }
+
+    /**
+     * Associates the specified boolean value to the specified key
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void putBoolean(String key, boolean value) {
+        _properties.setProperty(key, Boolean.toString(value));
+    }
+
+    /**
+     * Schedules the preferences file to be written. Consecutive saves made within {@link #SAVE_DELAY} milliseconds of
+     * each other result in a single write
+     */
+    public synchronized void save() {
+        if(_pendingWrite != null) {
+            _pendingWrite.cancel(false);
+        }
+        _pendingWrite = _writer.schedule(() -> write(), SAVE_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the preferences file immediately if a save is pending, or waits for the write that is already in progress
+     */
+    public void flush() {
+        ScheduledFuture<?> pendingWrite;
+        synchronized(this) {
+            pendingWrite = _pendingWrite;
+            _pendingWrite = null;
+        }
+        if(pendingWrite == null) {
+            return;
+        }
+
+        if(pendingWrite.cancel(false)) {
+            write();
+            return;
+        }
+
+        try {
+            pendingWrite.get();
+        }
+        catch(InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException | CancellationException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+        }
+    }
+
+    /**
+     * Loads the preferences file into memory, migrating the legacy preferences if the file does not exist yet
+     */
+    private void load() {
+        if(_file.exists()) {
+            try(InputStream stream = new BufferedInputStream(new FileInputStream(_file))) {
+                _properties.load(stream);
+            }
+            catch(IOException exception) {
+                Tracelog.log(Level.SEVERE, true, exception);
+            }
+            return;
+        }
+
+        try {
+            // The legacy preferences were stored within the node of the options dialog package
+            String path = "/" + OptionsDialogView.class.getPackage().getName().replace('.', '/');
+            if(Preferences.userRoot().nodeExists(path)) {
+                Preferences legacy = Preferences.userRoot().node(path);
+                for(String key : legacy.keys()) {
+                    _properties.setProperty(key, legacy.get(key, ""));
+                }
+                save();
+            }
+        }
+        catch(BackingStoreException | SecurityException exception) {
+            Tracelog.log(Level.WARNING, true, exception);
+        }
+    }
+
+    /**
+     * Writes the preferences to a temporary file and then moves it over the preferences file, so that an interrupted write
+     * never leaves a corrupted file behind. Only the copy of the preferences is taken under the lock of this store, so a
+     * save is never held up by the disk
+     */
+    private void write() {
+        Properties properties;
+        synchronized(this) {
+            properties = (Properties) _properties.clone();
+        }
+
+        synchronized(_fileLock) {
+            StatisticsLedger.DIRECTORY.mkdirs();
+            File temporaryFile = new File(StatisticsLedger.DIRECTORY, _file.getName() + ".tmp");
+            try(OutputStream stream = new BufferedOutputStream(new FileOutputStream(temporaryFile))) {
+                properties.store(stream, null);
+            }
+            catch(IOException exception) {
+                Tracelog.log(Level.SEVERE, true, exception);
+                return;
+            }
+
+            try {
+                Files.move(temporaryFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(IOException exception) {
+                Tracelog.log(Level.SEVERE, true, exception);
+            }
+        }
+    }
+}
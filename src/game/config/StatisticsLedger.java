@@ -0,0 +1,484 @@
+package game.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import framework.utils.logging.Tracelog;
+
+import game.config.OptionsPreferences.ScoringOption;
+
+/**
+ * The statistics ledger keeps an append-only file of fixed-width records, one per finished game. The aggregates
+ * shown to the player are folded incrementally as records are appended, and a snapshot of those aggregates is kept
+ * next to the ledger so that opening the statistics never has to walk the whole file.
+ */
+public final class StatisticsLedger {
+
+    /**
+     * A single record within the ledger
+     */
+    public static final class GameRecord {
+
+        /**
+         * The seed used to deal the game
+         */
+        public final long seed;
+
+        /**
+         * The time at which the game finished, in milliseconds since the epoch
+         */
+        public final long timestamp;
+
+        /**
+         * The options that the game was played with, see {@link StatisticsLedger#packOptions(OptionsSnapshot)}
+         */
+        public final int options;
+
+        /**
+         * TRUE if the game was won, FALSE otherwise
+         */
+        public final boolean isWon;
+
+        /**
+         * The score of the game. For Vegas games this is the net amount won or lost within the game
+         */
+        public final int score;
+
+        /**
+         * The number of seconds that the game lasted
+         */
+        public final int time;
+
+        /**
+         * The number of moves that were made
+         */
+        public final int moves;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param seed The seed used to deal the game
+         * @param timestamp The time at which the game finished
+         * @param options The packed options the game was played with
+         * @param isWon TRUE if the game was won, FALSE otherwise
+         * @param score The score of the game
+         * @param time The number of seconds that the game lasted
+         * @param moves The number of moves that were made
+         */
+        public GameRecord(long seed, long timestamp, int options, boolean isWon, int score, int time, int moves) {
+            this.seed = seed;
+            this.timestamp = timestamp;
+            this.options = options;
+            this.isWon = isWon;
+            this.score = score;
+            this.time = time;
+            this.moves = moves;
+        }
+
+        /**
+         * @return TRUE if this game was played with Vegas scoring, FALSE otherwise
+         */
+        public boolean isVegas() {
+            return ((options >> 2) & 0x3) == ScoringOption.VEGAS.ordinal();
+        }
+
+        /**
+         * @return TRUE if this game was played with the cumulative score option, FALSE otherwise
+         */
+        public boolean isCumulative() {
+            return ((options >> 5) & 0x1) == 1;
+        }
+    }
+
+    /**
+     * The size in bytes of a single record within the ledger
+     */
+    public static final int RECORD_SIZE = 32;
+
+    /**
+     * The number of one second buckets used to track the time of won games. Games that last longer fall into the last bucket
+     */
+    private static final int TIME_BUCKETS = 1200;
+
+    /**
+     * The number of appends after which the aggregate snapshot is written back to disk
+     */
+    private static final int SNAPSHOT_INTERVAL = 32;
+
+    /**
+     * The version of the snapshot layout, bumped whenever the layout changes so that stale snapshots are rebuilt
+     */
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * The directory that holds the local game data
+     */
+    public static final File DIRECTORY = new File(System.getProperty("user.home"), ".solitaire");
+
+    /**
+     * The singleton instance of this class
+     */
+    private static StatisticsLedger _instance;
+
+    /**
+     * The ledger file
+     */
+    private final File _ledgerFile = new File(DIRECTORY, "statistics.dat");
+
+    /**
+     * The aggregate snapshot file
+     */
+    private final File _snapshotFile = new File(DIRECTORY, "statistics.idx");
+
+    /**
+     * The number of records folded into the aggregates
+     */
+    private long _records;
+
+    /**
+     * The number of games won
+     */
+    private long _gamesWon;
+
+    /**
+     * The current streak, positive for a winning streak and negative for a losing streak
+     */
+    private long _currentStreak;
+
+    /**
+     * The longest winning streak
+     */
+    private long _longestWinStreak;
+
+    /**
+     * The longest losing streak
+     */
+    private long _longestLossStreak;
+
+    /**
+     * The sum of every Vegas game played with the cumulative score option
+     */
+    private long _vegasCumulative;
+
+    /**
+     * The histogram of the time taken by won games
+     */
+    private final int[] _winTimes = new int[TIME_BUCKETS];
+
+    /**
+     * The number of appends since the snapshot was last written
+     */
+    private int _unsavedRecords;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private StatisticsLedger() {
+    }
+
+    /**
+     * @return The statistics ledger, loading the aggregates the first time it is requested
+     */
+    public static synchronized StatisticsLedger getInstance() {
+        if(_instance == null) {
+            _instance = new StatisticsLedger();
+            _instance.load();
+        }
+
+        return _instance;
+    }
+
+    /**
+     * Packs the options relevant to the statistics into a single value
+     *
+     * @param preferences The preferences to pack
+     *
+     * @return The packed options
+     */
+    public static int packOptions(OptionsSnapshot preferences) {
+        int options = preferences.drawOption.ordinal();
+        options |= preferences.scoringOption.ordinal() << 2;
+        options |= (preferences.timedGame ? 1 : 0) << 4;
+        options |= (preferences.cumulativeScore ? 1 : 0) << 5;
+        return options;
+    }
+
+    /**
+     * Appends the specified record to the ledger and folds it into the aggregates
+     *
+     * @param record The record to append
+     */
+    public synchronized void append(GameRecord record) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(record.seed);
+        buffer.putLong(record.timestamp);
+        buffer.putInt(record.score);
+        buffer.putInt(record.time);
+        buffer.putInt(record.moves);
+        buffer.putShort((short)record.options);
+        buffer.putShort((short)(record.isWon ? 1 : 0));
+        buffer.flip();
+
+        DIRECTORY.mkdirs();
+        try(FileOutputStream stream = new FileOutputStream(_ledgerFile, true)) {
+            FileChannel channel = stream.getChannel();
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+            return;
+        }
+
+        fold(record);
+
+        if(++_unsavedRecords >= SNAPSHOT_INTERVAL) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Writes the aggregates to disk if any record was appended since they were last written
+     */
+    public synchronized void flush() {
+        if(_unsavedRecords > 0) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * @return The number of games played
+     */
+    public synchronized long getGamesPlayed() {
+        return _records;
+    }
+
+    /**
+     * @return The number of games won
+     */
+    public synchronized long getGamesWon() {
+        return _gamesWon;
+    }
+
+    /**
+     * @return The percentage of games won
+     */
+    public synchronized double getWinRate() {
+        return _records == 0 ? 0 : (_gamesWon * 100.0) / _records;
+    }
+
+    /**
+     * @return The current streak, positive for a winning streak and negative for a losing streak
+     */
+    public synchronized long getCurrentStreak() {
+        return _currentStreak;
+    }
+
+    /**
+     * @return The longest winning streak
+     */
+    public synchronized long getLongestWinStreak() {
+        return _longestWinStreak;
+    }
+
+    /**
+     * @return The longest losing streak
+     */
+    public synchronized long getLongestLossStreak() {
+        return _longestLossStreak;
+    }
+
+    /**
+     * @return The sum of every Vegas game played with the cumulative score option
+     */
+    public synchronized long getVegasCumulative() {
+        return _vegasCumulative;
+    }
+
+    /**
+     * Gets the time under which the specified percentage of won games were finished
+     *
+     * @param percentile The percentile, between 0 and 100
+     *
+     * @return The time in seconds, or -1 if no game was won yet
+     */
+    public synchronized int getWinTimePercentile(double percentile) {
+        if(_gamesWon == 0) {
+            return -1;
+        }
+
+        long target = Math.max(1, (long)Math.ceil(_gamesWon * percentile / 100.0));
+        long total = 0;
+        for(int i = 0; i < TIME_BUCKETS; ++i) {
+            total += _winTimes[i];
+            if(total >= target) {
+                return i;
+            }
+        }
+
+        return TIME_BUCKETS - 1;
+    }
+
+    /**
+     * Folds the specified record into the aggregates
+     *
+     * @param record The record
+     */
+    private void fold(GameRecord record) {
+        ++_records;
+
+        if(record.isWon) {
+            ++_gamesWon;
+            _currentStreak = _currentStreak > 0 ? _currentStreak + 1 : 1;
+            _longestWinStreak = Math.max(_longestWinStreak, _currentStreak);
+            ++_winTimes[Math.max(0, Math.min(TIME_BUCKETS - 1, record.time))];
+        }
+        else {
+            _currentStreak = _currentStreak < 0 ? _currentStreak - 1 : -1;
+            _longestLossStreak = Math.max(_longestLossStreak, -_currentStreak);
+        }
+
+        if(record.isVegas() && record.isCumulative()) {
+            _vegasCumulative += record.score;
+        }
+    }
+
+    /**
+     * Resets the aggregates to their initial state
+     */
+    private void reset() {
+        _records = 0;
+        _gamesWon = 0;
+        _currentStreak = 0;
+        _longestWinStreak = 0;
+        _longestLossStreak = 0;
+        _vegasCumulative = 0;
+        Arrays.fill(_winTimes, 0);
+    }
+
+    /**
+     * Loads the aggregates from the snapshot, and folds any record that was appended after the snapshot was written
+     */
+    private void load() {
+        long ledgerRecords = 0;
+        if(_ledgerFile.exists()) {
+            // A partially written record can only be the result of an interrupted append, drop it so that
+            // subsequent appends stay aligned
+            long length = _ledgerFile.length();
+            if(length % RECORD_SIZE != 0) {
+                try(RandomAccessFile file = new RandomAccessFile(_ledgerFile, "rw")) {
+                    file.setLength(length - (length % RECORD_SIZE));
+                }
+                catch(IOException exception) {
+                    Tracelog.log(Level.SEVERE, true, exception);
+                }
+            }
+            ledgerRecords = _ledgerFile.length() / RECORD_SIZE;
+        }
+
+        if(!loadSnapshot() || _records > ledgerRecords) {
+            reset();
+        }
+
+        if(_records == ledgerRecords) {
+            return;
+        }
+
+        // Fold the tail of the ledger that the snapshot does not yet account for
+        try(RandomAccessFile file = new RandomAccessFile(_ledgerFile, "r")) {
+            file.seek(_records * RECORD_SIZE);
+            byte[] bytes = new byte[RECORD_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for(long i = _records; i < ledgerRecords; ++i) {
+                file.readFully(bytes);
+                buffer.clear();
+                fold(new GameRecord(buffer.getLong(), buffer.getLong(), buffer.getShort(28), buffer.getShort(30) == 1, buffer.getInt(16), buffer.getInt(20), buffer.getInt(24)));
+            }
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+        }
+
+        saveSnapshot();
+    }
+
+    /**
+     * Loads the aggregates from the snapshot file
+     *
+     * @return TRUE if the snapshot was loaded, FALSE otherwise
+     */
+    private boolean loadSnapshot() {
+        if(!_snapshotFile.exists()) {
+            return false;
+        }
+
+        try(DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(_snapshotFile)))) {
+            if(stream.readInt() != SNAPSHOT_VERSION || stream.readInt() != TIME_BUCKETS) {
+                return false;
+            }
+
+            _records = stream.readLong();
+            _gamesWon = stream.readLong();
+            _currentStreak = stream.readLong();
+            _longestWinStreak = stream.readLong();
+            _longestLossStreak = stream.readLong();
+            _vegasCumulative = stream.readLong();
+            for(int i = 0; i < TIME_BUCKETS; ++i) {
+                _winTimes[i] = stream.readInt();
+            }
+            return true;
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.WARNING, true, exception);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the aggregates to the snapshot file. The snapshot is written to a temporary file first and then
+     * moved over the existing one, so that an interrupted write never leaves a corrupted snapshot behind
+     */
+    private void saveSnapshot() {
+        DIRECTORY.mkdirs();
+        File temporaryFile = new File(DIRECTORY, _snapshotFile.getName() + ".tmp");
+        try(DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            stream.writeInt(SNAPSHOT_VERSION);
+            stream.writeInt(TIME_BUCKETS);
+            stream.writeLong(_records);
+            stream.writeLong(_gamesWon);
+            stream.writeLong(_currentStreak);
+            stream.writeLong(_longestWinStreak);
+            stream.writeLong(_longestLossStreak);
+            stream.writeLong(_vegasCumulative);
+            for(int i = 0; i < TIME_BUCKETS; ++i) {
+                stream.writeInt(_winTimes[i]);
+            }
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+            return;
+        }
+
+        try {
+            Files.move(temporaryFile.toPath(), _snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            _unsavedRecords = 0;
+        }
+        catch(IOException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+        }
+    }
+}
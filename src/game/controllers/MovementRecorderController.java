@@ -2,28 +2,31 @@ package game.controllers;
 
 import java.util.logging.Level;
 
-import framework.communication.internal.signal.ISignalListener;
-import framework.core.factories.AbstractFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.mvc.controller.BaseController;
 import framework.utils.logging.Tracelog;
 
-import game.models.MovementModel;
+import game.config.GameJournal;
+import game.events.GameEventBus;
+import game.events.IGameEventListener;
+import game.models.CardModel;
+import game.models.GameEngine;
 import game.models.MovementModel.MovementType;
-import game.views.GameView;
+import game.views.FoundationPileView;
+import game.views.GameContext;
 import game.views.IUndoable;
+import game.views.StockView;
+import game.views.TableauPileView;
+import game.views.TalonPileView;
+import game.views.helpers.DamageTracker;
 
 /**
- * The controller that handles recording of movement
+ * The controller that handles recording of movement. Every recorded movement is published through the {@link GameEventBus},
+ * and appended to the journal of the game once it is delivered back to this controller, so that the journal holds the
+ * movements in the same order as every other listener sees them
  * 
  * @author Daniel Ricci {@literal <thedanny09@icloud.com>}
  */
-public class MovementRecorderController extends BaseController {
-    
-    /**
-     * The model representation of a movement
-     */
-    private final MovementModel _movementModel = new MovementModel();
+public class MovementRecorderController extends BaseController implements IGameEventListener {
     
     /**
      * This flag indicates if the current state of the game can perform an undo
@@ -45,6 +48,25 @@ public class MovementRecorderController extends BaseController {
      */
     private IUndoable _destination;
     
+    /**
+     * The number of moves that were recorded
+     */
+    private int _moveCount;
+    
+    /**
+     * The journal that every recorded movement is appended to, or null if the game is not journaled
+     */
+    private final GameJournal _journal;
+    
+    /**
+     * Constructs a new instance of this class type
+     * 
+     * @param journal The journal that every recorded movement is appended to, or null if the game is not journaled
+     */
+    public MovementRecorderController(GameJournal journal) {
+        _journal = journal;
+    }
+    
     /**
      * Records the specified movement from one pile view implement to the other
      *
@@ -53,11 +75,30 @@ public class MovementRecorderController extends BaseController {
      * 
      */
     public void recordMovement(IUndoable source, IUndoable destination) {
+        recordMovement(source, destination, null);
+    }
+    
+    /**
+     * Records the specified movement from one pile view implement to the other
+     *
+     * @param source The pile view implementation source
+     * @param destination The pile view implementation destination
+     * @param card The card being moved or uncovered, or null if no particular card is involved
+     */
+    public void recordMovement(IUndoable source, IUndoable destination, CardModel card) {
         // Do not proceed with the record movement if the lock is enabled
         if(_lockRecording) {
             return;
         }
         
+        // Publish the movement before the pile views are modified by the movement
+        if(destination == null) {
+            GameEventBus.getInstance().postCardFlipped(getPileId(source), card == null ? GameEventBus.NONE : card.getCode());
+        }
+        else {
+            GameEventBus.getInstance().postMoveApplied(getPileId(source), getPileId(destination), card == null ? GameEventBus.NONE : card.getCode());
+        }
+        
         // Reset the values of this recorder
         reset();
 
@@ -78,8 +119,7 @@ public class MovementRecorderController extends BaseController {
             _canUndo = true;
         }
             
-        // Update the model
-        _movementModel.setMovement(fromMovement, toMovement, false);
+        ++_moveCount;
     }
         
     /**
@@ -97,13 +137,12 @@ public class MovementRecorderController extends BaseController {
         // Undo the last action associated to the source
         _source.undoLastAction();
         
-        // Update the model to notify listeners that a movement has occurred
-        _movementModel.setMovement(MovementType.fromClass(_source), MovementType.fromClass(_destination), true);
+        // Notify listeners that the movement was undone
+        GameEventBus.getInstance().postMoveUndone(getPileId(_source), getPileId(_destination));
 
-        // Repaint the source and destination
-        AbstractFactory.getFactory(ViewFactory.class).get(GameView.class).repaint();
-        _source.getContainerClass().repaint();
-        _destination.getContainerClass().repaint();
+        // Repaint the source and destination, undoing may have changed any card of either pile
+        DamageTracker.getInstance().addDamage(_source.getContainerClass());
+        DamageTracker.getInstance().addDamage(_destination.getContainerClass());
         
         // Reset the state of this recorder
         reset();
@@ -119,6 +158,20 @@ public class MovementRecorderController extends BaseController {
         return _canUndo;
     }
     
+    /**
+     * @return The number of moves that were recorded
+     */
+    public int getMoveCount() {
+        return _moveCount;
+    }
+    
+    /**
+     * @return The journal of the game, or null if the game is not journaled
+     */
+    public GameJournal getJournal() {
+        return _journal;
+    }
+    
     /**
      * Clears the undo availability
      */
@@ -144,7 +197,52 @@ public class MovementRecorderController extends BaseController {
         _destination = null;
     }
     
-    public void addSignalListener(ISignalListener listener) {
-        _movementModel.addListener(listener);
+    /**
+     * Gets the pile identifier of the specified pile view, see {@link GameEngine}
+     *
+     * @param view The pile view
+     * 
+     * @return The pile identifier, or {@link GameJournal#NONE} if the view is not a known pile
+     */
+    private static int getPileId(IUndoable view) {
+        if(view instanceof StockView) {
+            return GameEngine.PILE_STOCK;
+        }
+        if(view instanceof TalonPileView) {
+            return GameEngine.PILE_TALON;
+        }
+        
+        if(view instanceof FoundationPileView) {
+            return GameEngine.PILE_FOUNDATION + GameContext.current().getFoundationViews().indexOf(view);
+        }
+        if(view instanceof TableauPileView) {
+            return GameEngine.PILE_TABLEAU + GameContext.current().getTableauViews().indexOf(view);
+        }
+        
+        return GameJournal.NONE;
+    }
+    
+    @Override public void onMoveApplied(int from, int to, int card) {
+        if(_journal != null) {
+            _journal.append(from == GameEngine.PILE_STOCK ? GameJournal.ENTRY_DRAW : GameJournal.ENTRY_MOVE, from, to, card);
+        }
+    }
+    
+    @Override public void onMoveUndone(int from, int to) {
+        if(_journal != null) {
+            _journal.append(GameJournal.ENTRY_UNDO, GameJournal.NONE, GameJournal.NONE, GameJournal.NONE);
+        }
+    }
+    
+    @Override public void onCardFlipped(int pile, int card) {
+        if(_journal != null) {
+            _journal.append(GameJournal.ENTRY_FLIP, pile, GameJournal.NONE, card);
+        }
+    }
+    
+    @Override public void onTimerTicked() {
+        if(_journal != null) {
+            _journal.append(GameJournal.ENTRY_TICK, GameJournal.NONE, GameJournal.NONE, GameJournal.NONE);
+        }
     }
 }
\ No newline at end of file
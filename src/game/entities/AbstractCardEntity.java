@@ -123,6 +123,20 @@ public abstract class AbstractCardEntity extends DataEntity {
         return backsideCardEntity.getIsBacksideShowing();
     }
     
+    /**
+     * @return The layer associated to this entity
+     */
+    public final LAYER getLayer() {
+        return layer;
+    }
+    
+    /**
+     * @return The ordinal associated to this entity, where zero is an ace
+     */
+    public final int getOrdinal() {
+        return ordinal;
+    }
+    
     /**
      * @return TRUE if this card is a king, FALSE otherwise
      */
@@ -152,8 +166,9 @@ public abstract class AbstractCardEntity extends DataEntity {
      * Sets the backside of this entity
      *
      * @param backside The backside to set this entity with
+     * @param image The image of the backside, resolved once for the whole deck
      */
-    public void setBackside(BACKSIDES backside) {
-        backsideCardEntity.setActiveData(backside.identifier);
+    public void setBackside(BACKSIDES backside, Image image) {
+        backsideCardEntity.setBackside(backside, image);
     }
 }
\ No newline at end of file
@@ -1,19 +1,25 @@
 package game.entities;
 
+import java.awt.Image;
+import java.util.UUID;
+
 import framework.core.entity.DataEntity;
 
-import game.config.OptionsPreferences;
+import game.config.OptionsSnapshot;
 
 import generated.DataLookup;
 
 public class BacksideCardEntity extends DataEntity {
 	
-	public static final String DECK_BACKSIDE_CHANGED = "DECK_BACKSIDE_CHANGED";
-	
 	private boolean isBacksideVisible = false;
 
 	private DataLookup.BACKSIDES _backside;
 
+	/**
+	 * The backside image shared by every card of the deck, set when the whole deck is changed at once
+	 */
+	private Image _sharedImage;
+
 	public BacksideCardEntity() {		
 		this.setBackside();
 	}
@@ -30,9 +36,19 @@ public class BacksideCardEntity extends DataEntity {
 		return _backside;
 	}
 
+	/**
+	 * Sets the backside of this entity to an image that was already resolved
+	 *
+	 * @param backside The backside
+	 * @param image The image of the backside
+	 */
+	public void setBackside(DataLookup.BACKSIDES backside, Image image) {
+		_backside = backside;
+		_sharedImage = image;
+	}
+
 	private void setBackside() {
-		OptionsPreferences preferences = new OptionsPreferences();
-		preferences.load();
+		OptionsSnapshot preferences = OptionsSnapshot.current();
 		
 		if (_backside == preferences.deck) {
 			return;
@@ -41,6 +57,15 @@ public class BacksideCardEntity extends DataEntity {
 		super.setActiveData(preferences.deck.identifier);		
 	}
 		
+	@Override public void setActiveData(UUID identifier) {
+		_sharedImage = null;
+		super.setActiveData(identifier);
+	}
+
+	@Override public Image getRenderableContent() {
+		return _sharedImage != null ? _sharedImage : super.getRenderableContent();
+	}
+		
 	@Override public void refresh() {
 		setBackside();
 	}
@@ -0,0 +1,425 @@
+package game.events;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import javax.swing.Timer;
+
+import framework.utils.logging.Tracelog;
+
+import game.config.GameJournal;
+
+/**
+ * The bus that game events are published through.
+ *
+ * Events can be published from any thread. They are held within a ring of primitive arrays, so that publishing an event
+ * never allocates, and are delivered together on the event dispatch thread once per frame. A burst of events, such as an
+ * autocomplete moving every card to the foundations, therefore results in a single dispatch. Events that only describe the
+ * latest state, such as the score, are coalesced so that only the latest one of a frame is delivered
+ */
+public final class GameEventBus {
+
+    /**
+     * The value used when an event does not refer to a pile or a card
+     */
+    public static final int NONE = GameJournal.NONE;
+
+    /**
+     * The number of milliseconds within a frame
+     */
+    private static final int FRAME_DELAY = 1000 / 60;
+
+    /**
+     * The initial number of events that can be held before the buffers grow
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The event types
+     */
+    private static final int MOVE_APPLIED = 0;
+    private static final int MOVE_UNDONE = 1;
+    private static final int CARD_FLIPPED = 2;
+    private static final int TALON_CYCLED = 3;
+    private static final int TIMER_TICKED = 4;
+    private static final int SCORE_CHANGED = 5;
+    private static final int DECK_ANIMATED = 6;
+    private static final int GAME_WON = 7;
+    private static final int NEAR_WIN = 8;
+    private static final int ALL_UNCOVERED = 9;
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final GameEventBus _instance = new GameEventBus();
+
+    /**
+     * The listeners of this bus, in the order that they were added
+     */
+    private final List<IGameEventListener> _listeners = new CopyOnWriteArrayList<IGameEventListener>();
+
+    /**
+     * The timer that dispatches the pending events at the end of the frame
+     */
+    private final Timer _frameTimer = new Timer(FRAME_DELAY, event -> dispatch());
+
+    /**
+     * The types of the pending events
+     */
+    private int[] _types = new int[INITIAL_CAPACITY];
+
+    /**
+     * The first argument of the pending events
+     */
+    private int[] _firstArguments = new int[INITIAL_CAPACITY];
+
+    /**
+     * The second argument of the pending events
+     */
+    private int[] _secondArguments = new int[INITIAL_CAPACITY];
+
+    /**
+     * The value of the pending events
+     */
+    private long[] _values = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of pending events
+     */
+    private int _size;
+
+    /**
+     * The types of the events being delivered. The pending and delivered buffers are swapped at every dispatch
+     */
+    private int[] _deliveredTypes = new int[INITIAL_CAPACITY];
+
+    /**
+     * The first argument of the events being delivered
+     */
+    private int[] _deliveredFirstArguments = new int[INITIAL_CAPACITY];
+
+    /**
+     * The second argument of the events being delivered
+     */
+    private int[] _deliveredSecondArguments = new int[INITIAL_CAPACITY];
+
+    /**
+     * The value of the events being delivered
+     */
+    private long[] _deliveredValues = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of events being delivered
+     */
+    private int _deliveredSize;
+
+    /**
+     * The index of the pending score event, or -1 if there is none
+     */
+    private int _scoreIndex = -1;
+
+    /**
+     * The index of the pending deck animation event, or -1 if there is none
+     */
+    private int _deckIndex = -1;
+
+    /**
+     * This flag indicates if a dispatch is scheduled or in progress
+     */
+    private boolean _isScheduled;
+
+    /**
+     * This flag indicates if the events are currently being delivered
+     */
+    private boolean _isDispatching;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private GameEventBus() {
+        _frameTimer.setRepeats(false);
+    }
+
+    /**
+     * @return The game event bus
+     */
+    public static GameEventBus getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Adds the specified listener to this bus
+     *
+     * @param listener The listener
+     */
+    public void addListener(IGameEventListener listener) {
+        _listeners.add(listener);
+    }
+
+    /**
+     * Removes the specified listener from this bus
+     *
+     * @param listener The listener
+     */
+    public void removeListener(IGameEventListener listener) {
+        _listeners.remove(listener);
+    }
+
+    /**
+     * Removes every listener of this bus and discards the pending events
+     */
+    public synchronized void clear() {
+        _listeners.clear();
+        _frameTimer.stop();
+        _size = 0;
+        _scoreIndex = -1;
+        _deckIndex = -1;
+        _isScheduled = false;
+    }
+
+    /**
+     * Publishes that cards were moved from one pile to another
+     *
+     * @param from The pile that the cards were moved from
+     * @param to The pile that the cards were moved to
+     * @param card The code of the card that was moved, or {@link #NONE}
+     */
+    public void postMoveApplied(int from, int to, int card) {
+        post(MOVE_APPLIED, from, to, card);
+    }
+
+    /**
+     * Publishes that the last move was undone
+     *
+     * @param from The pile that the undone move started from
+     * @param to The pile that the undone move ended at, or {@link #NONE}
+     */
+    public void postMoveUndone(int from, int to) {
+        post(MOVE_UNDONE, from, to, 0);
+    }
+
+    /**
+     * Publishes that a card had its backside uncovered
+     *
+     * @param pile The pile holding the card
+     * @param card The code of the card
+     */
+    public void postCardFlipped(int pile, int card) {
+        post(CARD_FLIPPED, pile, NONE, card);
+    }
+
+    /**
+     * Publishes that the last card of the stock was drawn
+     *
+     * @param passes The number of passes made through the stock so far
+     */
+    public void postTalonCycled(int passes) {
+        post(TALON_CYCLED, NONE, NONE, passes);
+    }
+
+    /**
+     * Publishes that the timer penalty of the game applies
+     */
+    public void postTimerTicked() {
+        post(TIMER_TICKED, NONE, NONE, 0);
+    }
+
+    /**
+     * Publishes that the score changed
+     *
+     * @param score The score
+     */
+    public void postScoreChanged(long score) {
+        post(SCORE_CHANGED, NONE, NONE, score);
+    }
+
+    /**
+     * Publishes that the stock animation moved to its next image
+     */
+    public void postDeckAnimated() {
+        post(DECK_ANIMATED, NONE, NONE, 0);
+    }
+
+    /**
+     * Publishes that every card of the game was moved to the foundations
+     */
+    public void postGameWon() {
+        post(GAME_WON, NONE, NONE, 0);
+    }
+
+    /**
+     * Publishes that every card left on the board is face up within the tableau
+     */
+    public void postNearWin() {
+        post(NEAR_WIN, NONE, NONE, 0);
+    }
+
+    /**
+     * Publishes that every card of the tableau is face up
+     */
+    public void postAllCardsUncovered() {
+        post(ALL_UNCOVERED, NONE, NONE, 0);
+    }
+
+    /**
+     * Delivers every pending event immediately, so that the listeners reflect every event published so far. This method
+     * must be called from the event dispatch thread
+     */
+    public void flush() {
+        _frameTimer.stop();
+        dispatch();
+    }
+
+    /**
+     * Adds an event to the pending events, and schedules a dispatch at the end of the frame if none is scheduled yet
+     *
+     * @param type The event type
+     * @param first The first argument of the event
+     * @param second The second argument of the event
+     * @param value The value of the event
+     */
+    private synchronized void post(int type, int first, int second, long value) {
+        // Events describing the latest state replace the pending event of the same type
+        if(type == SCORE_CHANGED && _scoreIndex >= 0) {
+            _values[_scoreIndex] = value;
+            return;
+        }
+        if(type == DECK_ANIMATED && _deckIndex >= 0) {
+            return;
+        }
+
+        if(_size == _types.length) {
+            int capacity = _size * 2;
+            _types = Arrays.copyOf(_types, capacity);
+            _firstArguments = Arrays.copyOf(_firstArguments, capacity);
+            _secondArguments = Arrays.copyOf(_secondArguments, capacity);
+            _values = Arrays.copyOf(_values, capacity);
+        }
+
+        if(type == SCORE_CHANGED) {
+            _scoreIndex = _size;
+        }
+        else if(type == DECK_ANIMATED) {
+            _deckIndex = _size;
+        }
+
+        _types[_size] = type;
+        _firstArguments[_size] = first;
+        _secondArguments[_size] = second;
+        _values[_size] = value;
+        ++_size;
+
+        if(!_isScheduled) {
+            _isScheduled = true;
+            _frameTimer.start();
+        }
+    }
+
+    /**
+     * Swaps the pending events with the delivered events
+     *
+     * @return TRUE if there are events to deliver, FALSE otherwise
+     */
+    private synchronized boolean swap() {
+        if(_size == 0) {
+            _isScheduled = false;
+            return false;
+        }
+
+        int[] types = _deliveredTypes;
+        int[] firstArguments = _deliveredFirstArguments;
+        int[] secondArguments = _deliveredSecondArguments;
+        long[] values = _deliveredValues;
+
+        _deliveredTypes = _types;
+        _deliveredFirstArguments = _firstArguments;
+        _deliveredSecondArguments = _secondArguments;
+        _deliveredValues = _values;
+        _deliveredSize = _size;
+
+        _types = types;
+        _firstArguments = firstArguments;
+        _secondArguments = secondArguments;
+        _values = values;
+        _size = 0;
+        _scoreIndex = -1;
+        _deckIndex = -1;
+
+        return true;
+    }
+
+    /**
+     * Delivers the pending events to every listener. Events published by the listeners while the events are being
+     * delivered are delivered within the same dispatch
+     */
+    private void dispatch() {
+        if(_isDispatching) {
+            return;
+        }
+
+        _isDispatching = true;
+        try {
+            while(swap()) {
+                for(int i = 0; i < _deliveredSize; ++i) {
+                    for(IGameEventListener listener : _listeners) {
+                        try {
+                            deliver(listener, _deliveredTypes[i], _deliveredFirstArguments[i], _deliveredSecondArguments[i], _deliveredValues[i]);
+                        }
+                        catch(RuntimeException exception) {
+                            Tracelog.log(Level.SEVERE, true, exception);
+                        }
+                    }
+                }
+            }
+        }
+        finally {
+            _isDispatching = false;
+        }
+    }
+
+    /**
+     * Delivers a single event to the specified listener
+     *
+     * @param listener The listener
+     * @param type The event type
+     * @param first The first argument of the event
+     * @param second The second argument of the event
+     * @param value The value of the event
+     */
+    private static void deliver(IGameEventListener listener, int type, int first, int second, long value) {
+        switch(type) {
+        case MOVE_APPLIED:
+            listener.onMoveApplied(first, second, (int)value);
+            break;
+        case MOVE_UNDONE:
+            listener.onMoveUndone(first, second);
+            break;
+        case CARD_FLIPPED:
+            listener.onCardFlipped(first, (int)value);
+            break;
+        case TALON_CYCLED:
+            listener.onTalonCycled((int)value);
+            break;
+        case TIMER_TICKED:
+            listener.onTimerTicked();
+            break;
+        case SCORE_CHANGED:
+            listener.onScoreChanged(value);
+            break;
+        case DECK_ANIMATED:
+            listener.onDeckAnimated();
+            break;
+        case GAME_WON:
+            listener.onGameWon();
+            break;
+        case NEAR_WIN:
+            listener.onNearWin();
+            break;
+        case ALL_UNCOVERED:
+            listener.onAllCardsUncovered();
+            break;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package game.events;
+
+/**
+ * A listener of the events published through the {@link GameEventBus}. Every event is delivered on the event dispatch
+ * thread, in the order that it was published
+ *
+ * Piles are identified the same way as within {@link game.models.GameEngine}, and cards by their code
+ */
+public interface IGameEventListener {
+
+    /**
+     * Called when cards were moved from one pile to another, including cards drawn from the stock to the talon
+     *
+     * @param from The pile that the cards were moved from
+     * @param to The pile that the cards were moved to
+     * @param card The code of the card that was moved, or {@link GameEventBus#NONE} for cards drawn from the stock
+     */
+    default void onMoveApplied(int from, int to, int card) {
+    }
+
+    /**
+     * Called when the last move was undone
+     *
+     * @param from The pile that the undone move started from
+     * @param to The pile that the undone move ended at, or {@link GameEventBus#NONE}
+     */
+    default void onMoveUndone(int from, int to) {
+    }
+
+    /**
+     * Called when a card had its backside uncovered
+     *
+     * @param pile The pile holding the card
+     * @param card The code of the card
+     */
+    default void onCardFlipped(int pile, int card) {
+    }
+
+    /**
+     * Called when the last card of the stock was drawn, so that the talon will be recycled into the stock
+     *
+     * @param passes The number of passes made through the stock so far
+     */
+    default void onTalonCycled(int passes) {
+    }
+
+    /**
+     * Called every time that the timer penalty of the game applies
+     */
+    default void onTimerTicked() {
+    }
+
+    /**
+     * Called when the score changed. When the score changes multiple times within the same frame, only the latest score is delivered
+     *
+     * @param score The score
+     */
+    default void onScoreChanged(long score) {
+    }
+
+    /**
+     * Called when the stock animation moved to its next image. Multiple updates within the same frame are delivered once
+     */
+    default void onDeckAnimated() {
+    }
+
+    /**
+     * Called once when every card of the game was moved to the foundations
+     */
+    default void onGameWon() {
+    }
+
+    /**
+     * Called when the game can no longer be lost, that is every card left on the board is face up within the tableau
+     */
+    default void onNearWin() {
+    }
+
+    /**
+     * Called when the last card of the tableau that was showing its backside was uncovered
+     */
+    default void onAllCardsUncovered() {
+    }
+}
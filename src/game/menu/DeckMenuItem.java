@@ -6,21 +6,14 @@ import java.util.EventObject;
 
 import javax.swing.JComponent;
 import javax.swing.JMenuItem;
-import javax.swing.JOptionPane;
 
-import framework.communication.internal.signal.arguments.EventArgs;
 import framework.core.factories.AbstractFactory;
-import framework.core.factories.ModelFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.navigation.AbstractMenuItem;
 import framework.utils.globalisation.Localization;
 
-import game.config.OptionsPreferences;
-import game.entities.BacksideCardEntity;
-import game.models.CardModel;
 import game.views.DeckSelectionDialogView;
 import game.views.StatusBarView;
-import game.views.StockView;
 
 import resources.LocalizationStrings;
 
@@ -58,19 +51,8 @@ public class DeckMenuItem extends AbstractMenuItem {
         // stuck until the dialog has closed
         AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).clearMenuDescription();
         
+        // The new deck is applied by the listeners of the options snapshot once the selection is saved
         DeckSelectionDialogView view = new DeckSelectionDialogView();
         view.render();
-        if(view.getDialogResult() == JOptionPane.OK_OPTION) {
-            
-            // Update all the backsides of all the cards in the game
-            EventArgs args = new EventArgs(this, CardModel.EVENT_UPDATE_BACKSIDE);
-            AbstractFactory.getFactory(ModelFactory.class).multicastSignalListeners(CardModel.class, args);
-            
-            OptionsPreferences preferences = new OptionsPreferences();
-            preferences.load();
-
-            // Send out the signal to the stockview
-            AbstractFactory.getFactory(ViewFactory.class).multicastSignalListeners(StockView.class, new EventArgs(this, BacksideCardEntity.DECK_BACKSIDE_CHANGED));
-        }
     }
 }
\ No newline at end of file
@@ -51,7 +51,5 @@ public class OnTopMenuItem extends AbstractMenuItem {
     	preferences.load();
     	preferences.alwaysOnTop = !preferences.alwaysOnTop;
     	preferences.save();
-    	
-    	Application.instance.setAlwaysOnTop(preferences.alwaysOnTop);
     }
 }
\ No newline at end of file
@@ -9,7 +9,6 @@ import javax.swing.JComponent;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 
-import framework.communication.internal.signal.arguments.EventArgs;
 import framework.core.factories.AbstractFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.navigation.AbstractMenuItem;
@@ -17,7 +16,6 @@ import framework.core.navigation.MenuBuilder;
 import framework.core.system.Application;
 import framework.utils.globalisation.Localization;
 
-import game.views.CardView;
 import game.views.OptionsDialogView;
 import game.views.StatusBarView;
 
@@ -60,21 +58,10 @@ public class OptionsMenuItem extends AbstractMenuItem {
         OptionsDialogView options = new OptionsDialogView();
         options.render();
         
-        if(options.getDialogResult() == JOptionPane.OK_OPTION) {
-            if(options.refreshGameRequired) {
-                Application.instance.isRestarting = true;
-                MenuBuilder.search(Application.instance.getJMenuBar(), NewGameMenuItem.class).getComponent(AbstractButton.class).doClick();
-            }
-            else {
-                if(options.statusBarChanged) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).synchronizeWithOptions();
-                }
-                if(options.outlineDraggingChanged) {
-                    EventArgs args = new EventArgs(this, CardView.EVENT_OUTLINE_SYNCHRONIZE);
-                    args.setSuppressUpdate(true);
-                    AbstractFactory.getFactory(ViewFactory.class).multicastSignalListeners(CardView.class, args);
-                }
-            }
+        // Options that do not require a new game are applied by the listeners of the options snapshot
+        if(options.getDialogResult() == JOptionPane.OK_OPTION && options.refreshGameRequired) {
+            Application.instance.isRestarting = true;
+            MenuBuilder.search(Application.instance.getJMenuBar(), NewGameMenuItem.class).getComponent(AbstractButton.class).doClick();
         }
     }
 }
\ No newline at end of file
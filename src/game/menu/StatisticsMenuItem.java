@@ -0,0 +1,94 @@
+package game.menu;
+
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.EventObject;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+
+import framework.core.factories.AbstractFactory;
+import framework.core.factories.ViewFactory;
+import framework.core.navigation.AbstractMenuItem;
+import framework.core.system.Application;
+import framework.utils.globalisation.Localization;
+
+import game.config.StatisticsLedger;
+import game.views.StatusBarView;
+
+import resources.LocalizationStrings;
+
+/**
+ * The statistics menu item that displays the aggregates of every game played
+ */
+public class StatisticsMenuItem extends AbstractMenuItem {
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param parent The parent associated to this menu item
+     */
+    public StatisticsMenuItem(JComponent parent) {
+        super(new JMenuItem(Localization.instance().getLocalizedString(LocalizationStrings.STATISTICS)), parent);
+        super.getComponent(JMenuItem.class).setMnemonic(KeyEvent.VK_S);
+    }
+
+    @Override protected void onEntered(EventObject event) {
+        super.onEntered(event);
+        AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).setMenuDescription("Show game statistics");
+    }
+
+    @Override protected void onExited(EventObject event) {
+        super.onExited(event);
+        AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).clearMenuDescription();
+    }
+
+    @Override public void onExecute(ActionEvent actionEvent) {
+        // Every value shown here is an aggregate already maintained by the ledger, nothing is read from disk
+        StatisticsLedger ledger = StatisticsLedger.getInstance();
+
+        JPanel panel = new JPanel(new GridLayout(0, 2, 16, 4));
+        addRow(panel, LocalizationStrings.STATISTICS_PLAYED, String.valueOf(ledger.getGamesPlayed()));
+        addRow(panel, LocalizationStrings.STATISTICS_WON, String.valueOf(ledger.getGamesWon()));
+        addRow(panel, LocalizationStrings.STATISTICS_WIN_RATE, String.format("%.1f%%", ledger.getWinRate()));
+        addRow(panel, LocalizationStrings.STATISTICS_CURRENT_STREAK, String.valueOf(ledger.getCurrentStreak()));
+        addRow(panel, LocalizationStrings.STATISTICS_LONGEST_WIN_STREAK, String.valueOf(ledger.getLongestWinStreak()));
+        addRow(panel, LocalizationStrings.STATISTICS_LONGEST_LOSS_STREAK, String.valueOf(ledger.getLongestLossStreak()));
+        addRow(panel, LocalizationStrings.STATISTICS_VEGAS_CUMULATIVE, String.valueOf(ledger.getVegasCumulative()));
+        addRow(panel, LocalizationStrings.STATISTICS_MEDIAN_TIME, toTime(ledger.getWinTimePercentile(50)));
+        addRow(panel, LocalizationStrings.STATISTICS_FASTEST_TIME, toTime(ledger.getWinTimePercentile(0)));
+
+        JOptionPane.showMessageDialog(
+            Application.instance,
+            panel,
+            Localization.instance().getLocalizedString(LocalizationStrings.STATISTICS_HEADER),
+            JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Adds a labeled row to the specified panel
+     *
+     * @param panel The panel
+     * @param key The localization key of the label
+     * @param value The value to show next to the label
+     */
+    private static void addRow(JPanel panel, String key, String value) {
+        panel.add(new JLabel(Localization.instance().getLocalizedString(key)));
+        panel.add(new JLabel(value));
+    }
+
+    /**
+     * Formats the specified number of seconds
+     *
+     * @param seconds The number of seconds, or a negative value if there is no time to show
+     *
+     * @return The formatted time
+     */
+    private static String toTime(int seconds) {
+        return seconds < 0 ? "-" : String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -14,6 +14,7 @@ import framework.core.navigation.AbstractMenuItem;
 import framework.utils.globalisation.Localization;
 
 import game.controllers.MovementRecorderController;
+import game.views.BoardCanvasView;
 import game.views.StatusBarView;
 
 /**
@@ -45,10 +46,19 @@ public class UndoMenuItem extends AbstractMenuItem {
     }
     
     @Override protected boolean isEnabled() {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        if(viewFactory.exists(BoardCanvasView.class)) {
+            return viewFactory.get(BoardCanvasView.class).canUndo();
+        }
         return AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).canUndo();
     }
     
     @Override public void onExecute(ActionEvent actionEvent) {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        if(viewFactory.exists(BoardCanvasView.class)) {
+            viewFactory.get(BoardCanvasView.class).undo();
+            return;
+        }
         AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).undoLastMovement();
     }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package game.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plans the longest sequence of moves to the foundations that can be made from a board without uncovering any card or
+ * drawing from the stock.
+ *
+ * The plan is computed in a single pass with a worklist of piles. A pile is only looked at again when its top-most card
+ * changed, or when the card that its top-most card was waiting for reached the foundations, so that every card is
+ * considered a bounded number of times. When every card left on the board is face up within ordered tableau columns and
+ * the stock and talon are empty, the plan is instead produced in closed form, rank by rank
+ */
+public final class AutocompletePlanner {
+
+    /**
+     * A single move of a card to the foundations
+     */
+    public static final class Move {
+
+        /**
+         * The pile that the card is moved from, see {@link GameEngine}
+         */
+        public final int from;
+
+        /**
+         * The code of the card
+         */
+        public final int card;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param from The pile that the card is moved from
+         * @param card The code of the card
+         */
+        private Move(int from, int card) {
+            this.from = from;
+            this.card = card;
+        }
+
+        @Override public String toString() {
+            return String.format("%d:%d", from, card);
+        }
+    }
+
+    /**
+     * The index of the talon within the worklist, the tableau columns follow it
+     */
+    private static final int TALON = BoardPosition.TABLEAU_COUNT;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private AutocompletePlanner() {
+    }
+
+    /**
+     * Plans the moves to the foundations that can be made from the specified board
+     *
+     * @param position The board
+     *
+     * @return The moves, in the order that they must be applied
+     */
+    public static List<Move> plan(BoardPosition position) {
+        // The rank of the top-most card of each suit within the foundations
+        int[] homeRanks = new int[BoardPosition.FOUNDATION_COUNT];
+        Arrays.fill(homeRanks, -1);
+        for(int top : position.foundations) {
+            if(top != BoardPosition.NONE) {
+                homeRanks[BoardPosition.getSuit(top)] = BoardPosition.getRank(top);
+            }
+        }
+
+        List<Move> moves = new ArrayList<Move>();
+        if(isFinishable(position)) {
+            planFinish(position, homeRanks, moves);
+        }
+        else {
+            planWorklist(position, homeRanks, moves);
+        }
+
+        return moves;
+    }
+
+    /**
+     * Indicates if the specified card can be moved to the foundations without ever being needed within the tableau, that
+     * is both cards of the opposite colour and of the rank below it are already within the foundations. Aces and twos are
+     * always safe
+     *
+     * @param card The code of the card
+     * @param homeRanks The rank of the top-most card of each suit within the foundations, -1 for an empty suit
+     *
+     * @return TRUE if the card is the next card of its suit and is safe to move, FALSE otherwise
+     */
+    public static boolean isSafe(int card, int[] homeRanks) {
+        int suit = BoardPosition.getSuit(card);
+        int rank = BoardPosition.getRank(card);
+        if(rank != homeRanks[suit] + 1) {
+            return false;
+        }
+        if(rank <= 1) {
+            return true;
+        }
+
+        // The suits alternate in colour, so the neighbouring suits are the opposite colour
+        int suits = BoardPosition.FOUNDATION_COUNT;
+        return homeRanks[(suit + 1) % suits] >= rank - 1 && homeRanks[(suit + suits - 1) % suits] >= rank - 1;
+    }
+
+    /**
+     * Indicates if every card left on the board can be moved to the foundations rank by rank, that is the stock and the
+     * talon are empty and every tableau column is a face up sequence of descending ranks
+     *
+     * @param position The board
+     *
+     * @return TRUE if the board can be finished in closed form, FALSE otherwise
+     */
+    private static boolean isFinishable(BoardPosition position) {
+        for(int[] layer : position.stock) {
+            if(layer.length > 0) {
+                return false;
+            }
+        }
+        for(int[] layer : position.waste) {
+            if(layer.length > 0) {
+                return false;
+            }
+        }
+
+        for(int column = 0; column < position.tableau.length; ++column) {
+            if(position.tableauHidden[column] > 0) {
+                return false;
+            }
+            int[] cards = position.tableau[column];
+            for(int i = 1; i < cards.length; ++i) {
+                if(BoardPosition.getRank(cards[i]) != BoardPosition.getRank(cards[i - 1]) - 1) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Plans the moves of a board that can be finished in closed form. The top-most card of every column holds the lowest
+     * rank of its column, so taking the ranks in ascending order always finds the card below already home
+     *
+     * @param position The board
+     * @param homeRanks The rank of the top-most card of each suit within the foundations
+     * @param moves The moves, populated by this method
+     */
+    private static void planFinish(BoardPosition position, int[] homeRanks, List<Move> moves) {
+        int[] sizes = new int[position.tableau.length];
+        for(int column = 0; column < sizes.length; ++column) {
+            sizes[column] = position.tableau[column].length;
+        }
+
+        for(int rank = 0; rank < BoardPosition.RANK_COUNT; ++rank) {
+            for(int column = 0; column < sizes.length; ++column) {
+                if(sizes[column] > 0) {
+                    int card = position.tableau[column][sizes[column] - 1];
+                    if(BoardPosition.getRank(card) == rank) {
+                        moves.add(new Move(GameEngine.PILE_TABLEAU + column, card));
+                        homeRanks[BoardPosition.getSuit(card)] = rank;
+                        --sizes[column];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans the moves of a board with a worklist of the piles whose top-most card may be able to move
+     *
+     * @param position The board
+     * @param homeRanks The rank of the top-most card of each suit within the foundations
+     * @param moves The moves, populated by this method
+     */
+    private static void planWorklist(BoardPosition position, int[] homeRanks, List<Move> moves) {
+        int columns = position.tableau.length;
+
+        // The number of cards left within each tableau column
+        int[] sizes = new int[columns];
+        for(int column = 0; column < columns; ++column) {
+            sizes[column] = position.tableau[column].length;
+        }
+
+        // The waste flattened from the top-most card downwards, none of it can be played while it waits to be recycled
+        int wasteSize = 0;
+        for(int[] layer : position.isRecycled ? new int[0][] : position.waste) {
+            wasteSize += layer.length;
+        }
+        int[] waste = new int[wasteSize];
+        for(int layer = wasteSize == 0 ? -1 : position.waste.length - 1, i = 0; layer >= 0; --layer) {
+            for(int card : position.waste[layer]) {
+                waste[i++] = card;
+            }
+        }
+        int wasteIndex = 0;
+
+        // The pile whose top-most card is waiting for the previous card of its suit to reach the foundations
+        int[] waiting = new int[BoardPosition.DECK_SIZE];
+        Arrays.fill(waiting, -1);
+
+        // Every pile is considered once, and then again only when it may have become movable
+        int[] worklist = new int[columns + 1 + BoardPosition.DECK_SIZE * 2];
+        int head = 0;
+        int tail = 0;
+        for(int pile = 0; pile <= columns; ++pile) {
+            worklist[tail++] = pile;
+        }
+
+        while(head < tail) {
+            int pile = worklist[head++];
+
+            int card;
+            if(pile == TALON) {
+                card = wasteIndex < waste.length ? waste[wasteIndex] : BoardPosition.NONE;
+            }
+            else {
+                card = sizes[pile] > position.tableauHidden[pile] ? position.tableau[pile][sizes[pile] - 1] : BoardPosition.NONE;
+            }
+            if(card == BoardPosition.NONE) {
+                continue;
+            }
+
+            int suit = BoardPosition.getSuit(card);
+            int rank = BoardPosition.getRank(card);
+            if(rank != homeRanks[suit] + 1) {
+                waiting[card] = pile;
+                continue;
+            }
+
+            if(pile == TALON) {
+                moves.add(new Move(GameEngine.PILE_TALON, card));
+                ++wasteIndex;
+            }
+            else {
+                moves.add(new Move(GameEngine.PILE_TABLEAU + pile, card));
+                --sizes[pile];
+            }
+            homeRanks[suit] = rank;
+
+            // The pile exposed a new card, and the next card of the suit may now be able to follow
+            worklist[tail++] = pile;
+            if(rank + 1 < BoardPosition.RANK_COUNT) {
+                int next = BoardPosition.getCode(suit, rank + 1);
+                if(waiting[next] != -1) {
+                    worklist[tail++] = waiting[next];
+                    waiting[next] = -1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package game.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A complete snapshot of a board, along with its one-line text notation.
+ *
+ * Cards are written as a rank (A23456789TJQK) followed by a suit (HCDS). A lowercase suit denotes a card whose
+ * backside is showing. The notation is made of five fields separated by a space
+ *
+ *   1. The tableau columns from left to right separated by '/', each listing its cards from the bottom upwards, or '-' when empty
+ *   2. The foundations from left to right separated by '/', each showing its top-most card, or '-' when empty
+ *   3. The talon, listing the layers of the stock from the bottom upwards, the cursor '|', then the layers of the waste
+ *      from the bottom upwards. Layers are separated by ',' and list their cards from the top-most card downwards
+ *   4. The draw count, either 1 or 3
+ *   5. The number of passes made through the deck, followed by 'r' when the deck is waiting to be recycled
+ *
+ * For example: {@code KH/2c5D/... -/-/-/- 3S4H5D,...| 3 0}
+ */
+public final class BoardPosition {
+
+    /**
+     * The value used to denote the absence of a card
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The number of tableau columns
+     */
+    public static final int TABLEAU_COUNT = 7;
+
+    /**
+     * The number of foundations
+     */
+    public static final int FOUNDATION_COUNT = 4;
+
+    /**
+     * The number of ranks within a suit
+     */
+    public static final int RANK_COUNT = 13;
+
+    /**
+     * The number of cards within a deck
+     */
+    public static final int DECK_SIZE = 52;
+
+    /**
+     * The rank characters, ordered by rank
+     */
+    private static final String RANKS = "A23456789TJQK";
+
+    /**
+     * The suit characters, ordered the same way as the suit layers
+     */
+    private static final String SUITS = "HCDS";
+
+    /**
+     * The rank lookup by character
+     */
+    private static final int[] RANK_LOOKUP = new int[128];
+
+    /**
+     * The suit lookup by character, upper and lower case
+     */
+    private static final int[] SUIT_LOOKUP = new int[128];
+
+    static {
+        Arrays.fill(RANK_LOOKUP, NONE);
+        Arrays.fill(SUIT_LOOKUP, NONE);
+        for(int i = 0; i < RANKS.length(); ++i) {
+            RANK_LOOKUP[RANKS.charAt(i)] = i;
+        }
+        for(int i = 0; i < SUITS.length(); ++i) {
+            SUIT_LOOKUP[SUITS.charAt(i)] = i;
+            SUIT_LOOKUP[Character.toLowerCase(SUITS.charAt(i))] = i;
+        }
+    }
+
+    /**
+     * The tableau columns from left to right, each listing its cards from the bottom upwards
+     */
+    public final int[][] tableau;
+
+    /**
+     * The number of cards at the bottom of each tableau column that have their backside showing
+     */
+    public final int[] tableauHidden;
+
+    /**
+     * The top-most card of each foundation from left to right, or {@link #NONE}
+     */
+    public final int[] foundations;
+
+    /**
+     * The layers of the stock from the bottom upwards, each listing its cards from the top-most card downwards
+     */
+    public final int[][] stock;
+
+    /**
+     * The layers of the waste from the bottom upwards, each listing its cards from the top-most card downwards
+     */
+    public final int[][] waste;
+
+    /**
+     * The number of cards drawn from the stock at a time
+     */
+    public final int drawCount;
+
+    /**
+     * The number of passes made through the deck
+     */
+    public final int passes;
+
+    /**
+     * TRUE if the waste is waiting to be recycled back into the stock, FALSE otherwise
+     */
+    public final boolean isRecycled;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param tableau The tableau columns from left to right
+     * @param tableauHidden The number of cards with their backside showing in each tableau column
+     * @param foundations The top-most card of each foundation
+     * @param stock The layers of the stock
+     * @param waste The layers of the waste
+     * @param drawCount The number of cards drawn from the stock at a time
+     * @param passes The number of passes made through the deck
+     * @param isRecycled TRUE if the waste is waiting to be recycled, FALSE otherwise
+     */
+    public BoardPosition(int[][] tableau, int[] tableauHidden, int[] foundations, int[][] stock, int[][] waste, int drawCount, int passes, boolean isRecycled) {
+        this.tableau = tableau;
+        this.tableauHidden = tableauHidden;
+        this.foundations = foundations;
+        this.stock = stock;
+        this.waste = waste;
+        this.drawCount = drawCount;
+        this.passes = passes;
+        this.isRecycled = isRecycled;
+    }
+
+    /**
+     * Gets the code of the specified card
+     *
+     * @param suit The suit, ordered the same way as the suit layers
+     * @param rank The rank, where zero is an ace
+     *
+     * @return The card code
+     */
+    public static int getCode(int suit, int rank) {
+        return suit * RANK_COUNT + rank;
+    }
+
+    /**
+     * @param code The card code
+     *
+     * @return The suit of the specified card
+     */
+    public static int getSuit(int code) {
+        return code / RANK_COUNT;
+    }
+
+    /**
+     * @param code The card code
+     *
+     * @return The rank of the specified card, where zero is an ace
+     */
+    public static int getRank(int code) {
+        return code % RANK_COUNT;
+    }
+
+    /**
+     * @param code The card code
+     *
+     * @return TRUE if the suit of the specified card is red, FALSE otherwise
+     */
+    public static boolean isRed(int code) {
+        int suit = getSuit(code);
+        return suit == 0 || suit == 2;
+    }
+
+    /**
+     * Parses the specified notation
+     *
+     * @param notation The notation
+     *
+     * @return The position described by the notation
+     *
+     * @throws IllegalArgumentException If the notation is malformed or does not describe a full deck
+     */
+    public static BoardPosition parse(String notation) {
+        return new Parser(notation.trim()).parse();
+    }
+
+    /**
+     * @return The one-line notation of this position
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder(192);
+
+        for(int column = 0; column < tableau.length; ++column) {
+            if(column > 0) {
+                builder.append('/');
+            }
+            if(tableau[column].length == 0) {
+                builder.append('-');
+            }
+            for(int i = 0; i < tableau[column].length; ++i) {
+                appendCard(builder, tableau[column][i], i < tableauHidden[column]);
+            }
+        }
+
+        builder.append(' ');
+        for(int i = 0; i < foundations.length; ++i) {
+            if(i > 0) {
+                builder.append('/');
+            }
+            if(foundations[i] == NONE) {
+                builder.append('-');
+            }
+            else {
+                appendCard(builder, foundations[i], false);
+            }
+        }
+
+        builder.append(' ');
+        appendLayers(builder, stock);
+        builder.append('|');
+        appendLayers(builder, waste);
+
+        builder.append(' ').append(drawCount);
+        builder.append(' ').append(passes);
+        if(isRecycled) {
+            builder.append('r');
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Appends the specified card to the builder
+     *
+     * @param builder The builder
+     * @param code The card code
+     * @param isBackside TRUE if the backside of the card is showing, FALSE otherwise
+     */
+    private static void appendCard(StringBuilder builder, int code, boolean isBackside) {
+        char suit = SUITS.charAt(getSuit(code));
+        builder.append(RANKS.charAt(getRank(code))).append(isBackside ? Character.toLowerCase(suit) : suit);
+    }
+
+    /**
+     * Appends the specified layers to the builder
+     *
+     * @param builder The builder
+     * @param layers The layers
+     */
+    private static void appendLayers(StringBuilder builder, int[][] layers) {
+        for(int i = 0; i < layers.length; ++i) {
+            if(i > 0) {
+                builder.append(',');
+            }
+            for(int code : layers[i]) {
+                appendCard(builder, code, false);
+            }
+        }
+    }
+
+    @Override public String toString() {
+        return format();
+    }
+
+    /**
+     * Single pass parser of the position notation
+     */
+    private static final class Parser {
+
+        /**
+         * The flag added to a parsed card code when its backside is showing
+         */
+        private static final int BACKSIDE_FLAG = 0x100;
+
+        /**
+         * The notation being parsed
+         */
+        private final String _text;
+
+        /**
+         * The index of the next character to read
+         */
+        private int _index;
+
+        /**
+         * The cards that were encountered so far, one bit per card code
+         */
+        private long _seen;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param text The notation to parse
+         */
+        Parser(String text) {
+            _text = text;
+        }
+
+        /**
+         * @return The parsed position
+         */
+        BoardPosition parse() {
+            int[][] tableau = new int[TABLEAU_COUNT][];
+            int[] tableauHidden = new int[TABLEAU_COUNT];
+            for(int column = 0; column < TABLEAU_COUNT; ++column) {
+                if(column > 0) {
+                    expect('/');
+                }
+                tableau[column] = parseTableauColumn();
+                for(int i = 0; i < tableau[column].length; ++i) {
+                    if((tableau[column][i] & BACKSIDE_FLAG) != 0) {
+                        if(i != tableauHidden[column]) {
+                            throw error("Cards with their backside showing must be at the bottom of a tableau column");
+                        }
+                        ++tableauHidden[column];
+                        tableau[column][i] &= ~BACKSIDE_FLAG;
+                    }
+                }
+            }
+            expect(' ');
+
+            int[] foundations = new int[FOUNDATION_COUNT];
+            for(int i = 0; i < FOUNDATION_COUNT; ++i) {
+                if(i > 0) {
+                    expect('/');
+                }
+                if(peek() == '-') {
+                    ++_index;
+                    foundations[i] = NONE;
+                }
+                else {
+                    // The foundation holds every card of the suit up to and including its top-most card
+                    int top = parseCard(false);
+                    foundations[i] = top;
+                    for(int code = getCode(getSuit(top), 0); code < top; ++code) {
+                        mark(code);
+                    }
+                }
+            }
+            expect(' ');
+
+            int[][] stock = parseLayers();
+            expect('|');
+            int[][] waste = parseLayers();
+            expect(' ');
+
+            int drawCount = parseNumber();
+            if(drawCount != 1 && drawCount != 3) {
+                throw error("The draw count must be 1 or 3");
+            }
+            expect(' ');
+
+            int passes = parseNumber();
+            boolean isRecycled = false;
+            if(peek() == 'r') {
+                ++_index;
+                isRecycled = true;
+            }
+            if(_index != _text.length()) {
+                throw error("Unexpected trailing characters");
+            }
+
+            for(int[][] layers : new int[][][] { stock, waste }) {
+                for(int[] layer : layers) {
+                    if(layer.length > drawCount) {
+                        throw error("A talon layer holds more cards than the draw count");
+                    }
+                }
+            }
+            if(isRecycled && stock.length > 0) {
+                throw error("The stock must be empty when the deck is waiting to be recycled");
+            }
+            if(Long.bitCount(_seen) != DECK_SIZE) {
+                throw error("The position does not contain all " + DECK_SIZE + " cards");
+            }
+
+            return new BoardPosition(tableau, tableauHidden, foundations, stock, waste, drawCount, passes, isRecycled);
+        }
+
+        /**
+         * @return The cards of a tableau column, flagged with {@link #BACKSIDE_FLAG} when their backside is showing
+         */
+        private int[] parseTableauColumn() {
+            if(peek() == '-') {
+                ++_index;
+                return new int[0];
+            }
+
+            int start = _index;
+            while(_index < _text.length() && _text.charAt(_index) != '/' && _text.charAt(_index) != ' ') {
+                ++_index;
+            }
+            int count = (_index - start) / 2;
+            if(count == 0 || (_index - start) % 2 != 0) {
+                throw error("Malformed tableau column");
+            }
+
+            _index = start;
+            int[] cards = new int[count];
+            for(int i = 0; i < count; ++i) {
+                cards[i] = parseCard(true);
+            }
+            return cards;
+        }
+
+        /**
+         * @return The talon layers up to the next cursor or field separator
+         */
+        private int[][] parseLayers() {
+            List<int[]> layers = new ArrayList<int[]>();
+            if(peek() == '|' || peek() == ' ') {
+                return new int[0][];
+            }
+
+            while(true) {
+                int start = _index;
+                while(_index < _text.length() && ",| ".indexOf(_text.charAt(_index)) == -1) {
+                    ++_index;
+                }
+                int count = (_index - start) / 2;
+                if(count == 0 || (_index - start) % 2 != 0) {
+                    throw error("Malformed talon layer");
+                }
+
+                _index = start;
+                int[] layer = new int[count];
+                for(int i = 0; i < count; ++i) {
+                    layer[i] = parseCard(false);
+                }
+                layers.add(layer);
+
+                if(peek() != ',') {
+                    return layers.toArray(new int[layers.size()][]);
+                }
+                ++_index;
+            }
+        }
+
+        /**
+         * Parses a single card and marks it as seen
+         *
+         * @param allowBackside TRUE if a lowercase suit is allowed, FALSE otherwise
+         *
+         * @return The card code, flagged with {@link #BACKSIDE_FLAG} when its backside is showing
+         */
+        private int parseCard(boolean allowBackside) {
+            if(_index + 1 >= _text.length()) {
+                throw error("Unexpected end of notation");
+            }
+
+            char rankChar = _text.charAt(_index);
+            char suitChar = _text.charAt(_index + 1);
+            int rank = rankChar < 128 ? RANK_LOOKUP[rankChar] : NONE;
+            int suit = suitChar < 128 ? SUIT_LOOKUP[suitChar] : NONE;
+            if(rank == NONE || suit == NONE) {
+                throw error("Invalid card '" + rankChar + suitChar + "'");
+            }
+
+            boolean isBackside = Character.isLowerCase(suitChar);
+            if(isBackside && !allowBackside) {
+                throw error("Only tableau cards can have their backside showing");
+            }
+
+            _index += 2;
+            int code = getCode(suit, rank);
+            mark(code);
+            return isBackside ? code | BACKSIDE_FLAG : code;
+        }
+
+        /**
+         * @return The unsigned number at the current index
+         */
+        private int parseNumber() {
+            int start = _index;
+            int value = 0;
+            while(_index < _text.length() && Character.isDigit(_text.charAt(_index))) {
+                value = value * 10 + (_text.charAt(_index++) - '0');
+            }
+            if(start == _index) {
+                throw error("Expected a number");
+            }
+            return value;
+        }
+
+        /**
+         * Marks the specified card as seen
+         *
+         * @param code The card code
+         */
+        private void mark(int code) {
+            long bit = 1L << code;
+            if((_seen & bit) != 0) {
+                throw error("The card '" + RANKS.charAt(getRank(code)) + SUITS.charAt(getSuit(code)) + "' appears more than once");
+            }
+            _seen |= bit;
+        }
+
+        /**
+         * Consumes the specified character
+         *
+         * @param character The expected character
+         */
+        private void expect(char character) {
+            if(peek() != character) {
+                throw error("Expected '" + character + "'");
+            }
+            ++_index;
+        }
+
+        /**
+         * @return The character at the current index, or zero at the end of the notation
+         */
+        private char peek() {
+            return _index < _text.length() ? _text.charAt(_index) : 0;
+        }
+
+        /**
+         * @param message The error message
+         *
+         * @return The exception describing the error at the current index
+         */
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("%s at index %d of \"%s\"", message, _index, _text));
+        }
+    }
+}
@@ -4,14 +4,12 @@ import java.awt.Image;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
-import framework.communication.internal.signal.ISignalReceiver;
-import framework.communication.internal.signal.arguments.EventArgs;
 import framework.core.factories.AbstractFactory;
 import framework.core.factories.ModelFactory;
 import framework.core.mvc.model.BaseModel;
 
-import game.config.OptionsPreferences;
 import game.entities.AbstractCardEntity;
 import game.entities.ClubCardEntity;
 import game.entities.DiamondCardEntity;
@@ -22,21 +20,10 @@ import generated.DataLookup;
 
 public class CardModel extends BaseModel {
     
-    public static final String EVENT_UPDATE_BACKSIDE = "EVENT_UPDATE_BACKSIDE";
-    
     private final AbstractCardEntity _cardEntity;
         
     public CardModel(AbstractCardEntity cardEntity) {
         _cardEntity = cardEntity;
-        
-        addSignal(EVENT_UPDATE_BACKSIDE, new ISignalReceiver<EventArgs>() {
-            @Override public void signalReceived(EventArgs event) {
-                OptionsPreferences preferences = new OptionsPreferences();
-                preferences.load();
-                _cardEntity.setBackside(preferences.deck);
-                refresh();
-            }
-        });
     }
         
     public boolean isEmpty() {
@@ -51,25 +38,62 @@ public class CardModel extends BaseModel {
         return _cardEntity.getBacksideVisible();
     }
     
-    public static List<CardModel> newInstances() {
+    /**
+     * Creates the full deck of cards, shuffled with the specified seed so that the same seed always yields the same deal
+     *
+     * @param seed The seed used to shuffle the deck
+     *
+     * @return The shuffled deck of cards
+     */
+    public static List<CardModel> newInstances(long seed) {
         List<CardModel> entities = new ArrayList<CardModel>();
-        ModelFactory factory = AbstractFactory.getFactory(ModelFactory.class);
-        for(DataLookup.HEARTS heart : DataLookup.HEARTS.values()) {
-            entities.add(factory.add(new CardModel(new HeartCardEntity(heart))));
-        }
-        for(DataLookup.CLUBS club : DataLookup.CLUBS.values()) {
-            entities.add(factory.add(new CardModel(new ClubCardEntity(club))));
+        for(int code = 0; code < BoardPosition.DECK_SIZE; ++code) {
+            entities.add(newInstance(code));
         }
-        for(DataLookup.DIAMONDS diamond : DataLookup.DIAMONDS.values()) {
-            entities.add(factory.add(new CardModel(new DiamondCardEntity(diamond))));
-        }
-        for(DataLookup.SPADES spade : DataLookup.SPADES.values()) {
-            entities.add(factory.add(new CardModel(new SpadeCardEntity(spade))));
-        }
-        Collections.shuffle(entities);
+        Collections.shuffle(entities, new Random(seed));
         return entities;
     }
     
+    /**
+     * Creates the card associated to the specified code
+     *
+     * @param code The code of the card, see {@link BoardPosition}
+     *
+     * @return The card
+     */
+    public static CardModel newInstance(int code) {
+        return AbstractFactory.getFactory(ModelFactory.class).add(new CardModel(newCardEntity(code)));
+    }
+    
+    /**
+     * Creates the card entity associated to the specified code, showing its face. This is the only place where a code is
+     * mapped to the face of the card within the tilemap
+     *
+     * @param code The code of the card, see {@link BoardPosition}
+     *
+     * @return The card entity
+     */
+    public static AbstractCardEntity newCardEntity(int code) {
+        int rank = BoardPosition.getRank(code);
+        switch(BoardPosition.getSuit(code)) {
+        case 0:
+            return new HeartCardEntity(DataLookup.HEARTS.values()[rank]);
+        case 1:
+            return new ClubCardEntity(DataLookup.CLUBS.values()[rank]);
+        case 2:
+            return new DiamondCardEntity(DataLookup.DIAMONDS.values()[rank]);
+        default:
+            return new SpadeCardEntity(DataLookup.SPADES.values()[rank]);
+        }
+    }
+    
+    /**
+     * @return The code of this card, see {@link BoardPosition}
+     */
+    public int getCode() {
+        return BoardPosition.getCode(_cardEntity.getLayer().ordinal(), _cardEntity.getOrdinal());
+    }
+    
     public AbstractCardEntity getCardEntity() {
         return _cardEntity;
     }
@@ -0,0 +1,254 @@
+package game.models;
+
+import java.util.Arrays;
+
+/**
+ * Determines if a game still has a productive move left, that is a move that brings the game closer to being won.
+ *
+ * The detector holds a compact summary of the board: the face up cards of each tableau column along with the number of
+ * cards hidden beneath them, the rank of the top-most card of each suit within the foundations, and the set of talon cards
+ * that can be reached by drawing from the stock within the passes that remain. Each part is updated on its own when the
+ * piles it describes change, so that answering whether a productive move is left only walks this summary
+ *
+ * The following moves are productive
+ * <ul>
+ * <li>Turning over the top-most card of a tableau column</li>
+ * <li>Moving a card to the foundations, including a card that a move within the tableau would expose</li>
+ * <li>Moving the face up cards of a column elsewhere when this uncovers a hidden card, or empties the column for a king</li>
+ * <li>Moving a reachable talon card to the foundations or to the tableau</li>
+ * </ul>
+ */
+public final class DeadEndDetector {
+
+    /**
+     * The face up cards of each tableau column, from the card at the base of the column to the top-most card
+     */
+    private final int[][] _faceUp = new int[BoardPosition.TABLEAU_COUNT][BoardPosition.DECK_SIZE];
+
+    /**
+     * The number of face up cards of each tableau column
+     */
+    private final int[] _faceUpCount = new int[BoardPosition.TABLEAU_COUNT];
+
+    /**
+     * The number of face down cards of each tableau column
+     */
+    private final int[] _hiddenCount = new int[BoardPosition.TABLEAU_COUNT];
+
+    /**
+     * The rank of the top-most card of each suit within the foundations, -1 for an empty suit
+     */
+    private final int[] _homeRanks = new int[BoardPosition.FOUNDATION_COUNT];
+
+    /**
+     * The talon cards that can be reached by drawing from the stock, one bit per card code
+     */
+    private long _talonCards;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    public DeadEndDetector() {
+        Arrays.fill(_homeRanks, -1);
+    }
+
+    /**
+     * Sets the cards of the specified tableau column
+     *
+     * @param column The tableau column, starting at zero for the left-most column
+     * @param cards The face up cards of the column, from the top-most card downwards
+     * @param count The number of face up cards
+     * @param hidden The number of face down cards beneath the face up cards
+     */
+    public void setColumn(int column, int[] cards, int count, int hidden) {
+        for(int i = 0; i < count; ++i) {
+            _faceUp[column][i] = cards[count - 1 - i];
+        }
+        _faceUpCount[column] = count;
+        _hiddenCount[column] = hidden;
+    }
+
+    /**
+     * Sets the rank of the top-most card of the specified suit within the foundations
+     *
+     * @param suit The suit
+     * @param rank The rank, or -1 if none of the cards of the suit are within the foundations
+     */
+    public void setHomeRank(int suit, int rank) {
+        _homeRanks[suit] = rank;
+    }
+
+    /**
+     * Sets the talon cards that can be reached by drawing from the stock
+     *
+     * @param talonCards The cards, one bit per card code, see {@link #getReachableTalonCards(int[][], int[][], int, boolean, boolean)}
+     */
+    public void setTalonCards(long talonCards) {
+        _talonCards = talonCards;
+    }
+
+    /**
+     * Gets the talon cards that can be reached by drawing from the stock, as the top-most card of the waste after a draw.
+     * The cards of the current pass are reached group by group, and when the talon can be recycled every group top of the
+     * following passes is reached as well
+     *
+     * @param stock The layers of the stock from the bottom upwards, each listing its cards from the top-most card downwards
+     * @param waste The layers of the waste from the bottom upwards, each listing its cards from the top-most card downwards
+     * @param drawCount The number of cards drawn from the stock at a time
+     * @param isRecycled TRUE if the waste is waiting to be recycled, in which case none of its cards can be played
+     * @param canRecycle TRUE if the talon can be played through again once the stock is empty
+     *
+     * @return The cards, one bit per card code
+     */
+    public static long getReachableTalonCards(int[][] stock, int[][] waste, int drawCount, boolean isRecycled, boolean canRecycle) {
+        long cards = 0;
+
+        // The top-most card of the waste, and the top-most card of every group left within the stock
+        if(!isRecycled && waste.length > 0 && waste[waste.length - 1].length > 0) {
+            cards |= 1L << waste[waste.length - 1][0];
+        }
+        for(int[] layer : stock) {
+            if(layer.length > 0) {
+                cards |= 1L << layer[0];
+            }
+        }
+
+        if(!canRecycle) {
+            return cards;
+        }
+
+        // The order that the cards are drawn in once recycled, the waste from its oldest card followed by the stock
+        int size = 0;
+        for(int[] layer : waste) {
+            size += layer.length;
+        }
+        for(int[] layer : stock) {
+            size += layer.length;
+        }
+        int[] order = new int[size];
+        int index = 0;
+        for(int[] layer : waste) {
+            for(int i = layer.length - 1; i >= 0; --i) {
+                order[index++] = layer[i];
+            }
+        }
+        for(int layer = stock.length - 1; layer >= 0; --layer) {
+            for(int i = stock[layer].length - 1; i >= 0; --i) {
+                order[index++] = stock[layer][i];
+            }
+        }
+
+        // A recycled talon is grouped from the bottom of the stock, so the groups end at the last card drawn
+        for(int i = size - 1; i >= 0; i -= drawCount) {
+            cards |= 1L << order[i];
+        }
+
+        return cards;
+    }
+
+    /**
+     * @return TRUE if at least one productive move is left, FALSE otherwise
+     */
+    public boolean hasProductiveMove() {
+        int columns = _faceUpCount.length;
+
+        boolean hasEmptyColumn = false;
+        boolean hasKingWaiting = false;
+        for(int column = 0; column < columns; ++column) {
+            int count = _faceUpCount[column];
+            if(count == 0) {
+                // A face down card on top of a column can be turned over
+                if(_hiddenCount[column] > 0) {
+                    return true;
+                }
+                hasEmptyColumn = true;
+                continue;
+            }
+
+            if(isNextHome(_faceUp[column][count - 1])) {
+                return true;
+            }
+
+            int base = _faceUp[column][0];
+            if(BoardPosition.getRank(base) == BoardPosition.RANK_COUNT - 1 && _hiddenCount[column] > 0) {
+                hasKingWaiting = true;
+            }
+        }
+
+        // Talon cards played to the foundations or to the tableau
+        for(long talonCards = _talonCards; talonCards != 0; talonCards &= talonCards - 1) {
+            int card = Long.numberOfTrailingZeros(talonCards);
+            if(isNextHome(card)) {
+                return true;
+            }
+            if(BoardPosition.getRank(card) == BoardPosition.RANK_COUNT - 1) {
+                if(hasEmptyColumn) {
+                    return true;
+                }
+                hasKingWaiting = true;
+            }
+            else if(findColumnAccepting(card, -1) != -1) {
+                return true;
+            }
+        }
+
+        for(int column = 0; column < columns; ++column) {
+            int count = _faceUpCount[column];
+            if(count == 0) {
+                continue;
+            }
+
+            // The whole face up run, which either uncovers a hidden card or empties the column
+            int base = _faceUp[column][0];
+            boolean isUseful = _hiddenCount[column] > 0 || hasKingWaiting;
+            if(BoardPosition.getRank(base) == BoardPosition.RANK_COUNT - 1) {
+                if(_hiddenCount[column] > 0 && hasEmptyColumn) {
+                    return true;
+                }
+            }
+            else if(isUseful && findColumnAccepting(base, column) != -1) {
+                return true;
+            }
+
+            // Part of the run, when the card that it exposes can be moved to the foundations
+            for(int i = 1; i < count; ++i) {
+                if(isNextHome(_faceUp[column][i - 1]) && findColumnAccepting(_faceUp[column][i], column) != -1) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param card The code of the card
+     *
+     * @return TRUE if the card is the next card of its suit to be moved to the foundations, FALSE otherwise
+     */
+    private boolean isNextHome(int card) {
+        return BoardPosition.getRank(card) == _homeRanks[BoardPosition.getSuit(card)] + 1;
+    }
+
+    /**
+     * Finds a tableau column whose top-most card accepts the specified card
+     *
+     * @param card The code of the card
+     * @param excluded The column to skip, or -1
+     *
+     * @return The column, or -1 if none accepts the card
+     */
+    private int findColumnAccepting(int card, int excluded) {
+        for(int column = 0; column < _faceUpCount.length; ++column) {
+            int count = _faceUpCount[column];
+            if(column == excluded || count == 0) {
+                continue;
+            }
+            int top = _faceUp[column][count - 1];
+            if(BoardPosition.getRank(top) == BoardPosition.getRank(card) + 1 && BoardPosition.isRed(top) != BoardPosition.isRed(card)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+}
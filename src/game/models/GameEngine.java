@@ -0,0 +1,600 @@
+package game.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+import game.models.MovementModel.MovementType;
+
+/**
+ * A rules engine for a single game that operates purely on card codes, see {@link BoardPosition}. The engine mirrors
+ * the behaviour of the views, including the way the talon groups its cards and the score ledger that the score views
+ * compute the score with, see {@link ScoreLedger}, so that recorded games can be replayed and verified without any user interface.
+ *
+ * Piles are identified as follows: the stock is {@link #PILE_STOCK}, the talon is {@link #PILE_TALON}, the foundations
+ * from left to right start at {@link #PILE_FOUNDATION} and the tableau columns from left to right start at {@link #PILE_TABLEAU}
+ */
+public final class GameEngine {
+
+    /**
+     * The pile identifier of the stock
+     */
+    public static final int PILE_STOCK = 0;
+
+    /**
+     * The pile identifier of the talon
+     */
+    public static final int PILE_TALON = 1;
+
+    /**
+     * The pile identifier of the left-most foundation
+     */
+    public static final int PILE_FOUNDATION = 2;
+
+    /**
+     * The pile identifier of the left-most tableau column
+     */
+    public static final int PILE_TABLEAU = PILE_FOUNDATION + BoardPosition.FOUNDATION_COUNT;
+
+    /**
+     * The total number of piles
+     */
+    public static final int PILE_COUNT = PILE_TABLEAU + BoardPosition.TABLEAU_COUNT;
+
+    /**
+     * The draw option that the game is played with
+     */
+    private final DrawOption _drawOption;
+
+    /**
+     * The scoring option that the game is played with
+     */
+    private final ScoringOption _scoringOption;
+
+    /**
+     * The tableau columns, each listing its cards from the bottom upwards
+     */
+    private final int[][] _tableau = new int[BoardPosition.TABLEAU_COUNT][BoardPosition.DECK_SIZE];
+
+    /**
+     * The number of cards within each tableau column
+     */
+    private final int[] _tableauSize = new int[BoardPosition.TABLEAU_COUNT];
+
+    /**
+     * The number of cards at the bottom of each tableau column that have their backside showing
+     */
+    private final int[] _tableauHidden = new int[BoardPosition.TABLEAU_COUNT];
+
+    /**
+     * The top-most card of each foundation, or {@link BoardPosition#NONE}
+     */
+    private final int[] _foundations = new int[BoardPosition.FOUNDATION_COUNT];
+
+    /**
+     * The cards of the talon from the bottom upwards. The stock occupies the bottom of the array and the waste the top
+     */
+    private final int[] _talon = new int[BoardPosition.DECK_SIZE];
+
+    /**
+     * The group of each card of the talon. Consecutive cards sharing a group are drawn together, mirroring the
+     * layers of the talon view
+     */
+    private final int[] _talonGroup = new int[BoardPosition.DECK_SIZE];
+
+    /**
+     * The number of cards within the talon
+     */
+    private int _talonSize;
+
+    /**
+     * The number of cards of the talon that belong to the stock
+     */
+    private int _stockSize;
+
+    /**
+     * The next group identifier to hand out
+     */
+    private int _nextGroup;
+
+    /**
+     * The number of passes made through the deck
+     */
+    private int _passes;
+
+    /**
+     * TRUE if the waste is waiting to be recycled back into the stock, FALSE otherwise
+     */
+    private boolean _isRecycled;
+
+    /**
+     * The ledger that the score of the game is computed from
+     */
+    private ScoreLedger _ledger;
+
+    /**
+     * TRUE if the last action can be undone, FALSE otherwise
+     */
+    private boolean _canUndo;
+
+    /**
+     * The state of the board before the last undoable action
+     */
+    private GameEngine _backup;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param drawOption The draw option that the game is played with
+     * @param scoringOption The scoring option that the game is played with
+     */
+    public GameEngine(DrawOption drawOption, ScoringOption scoringOption) {
+        _drawOption = drawOption;
+        _scoringOption = scoringOption;
+    }
+
+    /**
+     * Deals the game associated to the specified seed, the same way that the game view deals its cards
+     *
+     * @param seed The seed used to shuffle the deck
+     */
+    public void deal(long seed) {
+        List<Integer> codes = new ArrayList<Integer>(BoardPosition.DECK_SIZE);
+        for(int code = 0; code < BoardPosition.DECK_SIZE; ++code) {
+            codes.add(code);
+        }
+        Collections.shuffle(codes, new Random(seed));
+
+        // The tableau is dealt from the right-most column to the left-most column, each column taking its cards in order
+        int index = 0;
+        for(int column = BoardPosition.TABLEAU_COUNT - 1; column >= 0; --column) {
+            for(int i = 0; i <= column; ++i) {
+                _tableau[column][i] = codes.get(index++);
+            }
+            _tableauSize[column] = column + 1;
+            _tableauHidden[column] = column;
+        }
+
+        for(int i = 0; i < _foundations.length; ++i) {
+            _foundations[i] = BoardPosition.NONE;
+        }
+
+        // The remaining cards go to the talon. When drawing three, each layer holds three cards where the first
+        // card of the layer is the top-most card of that layer
+        _talonSize = BoardPosition.DECK_SIZE - index;
+        for(int i = 0; i < _talonSize; ++i) {
+            int slot = i;
+            if(_drawOption == DrawOption.THREE) {
+                int layerStart = (i / 3) * 3;
+                int layerSize = Math.min(3, _talonSize - layerStart);
+                slot = layerStart + layerSize - 1 - (i - layerStart);
+            }
+            _talon[slot] = codes.get(index + i);
+            _talonGroup[slot] = _drawOption == DrawOption.THREE ? i / 3 : i;
+        }
+        _stockSize = _talonSize;
+        _nextGroup = _talonSize;
+
+        _passes = 0;
+        _isRecycled = false;
+        _canUndo = false;
+        _ledger = new ScoreLedger(_drawOption, _scoringOption, _scoringOption == ScoringOption.VEGAS ? ScoreLedger.VEGAS_INITIAL_SCORE : 0);
+    }
+
+    /**
+     * @return The score of the game
+     */
+    public long getScore() {
+        return _ledger.getScore();
+    }
+
+    /**
+     * @return TRUE if every card is on the foundations, FALSE otherwise
+     */
+    public boolean isWon() {
+        for(int top : _foundations) {
+            if(top == BoardPosition.NONE || BoardPosition.getRank(top) != BoardPosition.RANK_COUNT - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return TRUE if the talon can no longer be played with, FALSE otherwise
+     */
+    public boolean isTalonEnded() {
+        return _scoringOption == ScoringOption.VEGAS && _passes == (_drawOption == DrawOption.THREE ? 3 : 1);
+    }
+
+    /**
+     * Draws the next hand from the stock, recycling the waste when the stock was played through
+     *
+     * @return TRUE if the draw is allowed, FALSE otherwise
+     */
+    public boolean draw() {
+        if(isTalonEnded() || _talonSize == 0) {
+            return false;
+        }
+
+        beginUndoable(MovementType.STOCK, MovementType.TALON);
+
+        if(_isRecycled) {
+            recycle();
+        }
+
+        if(_stockSize == 0) {
+            _ledger.recordPass(_passes);
+            _isRecycled = true;
+        }
+        else {
+            // Take the top-most group of the stock and put it on top of the waste, keeping its order
+            int start = _stockSize - 1;
+            while(start > 0 && _talonGroup[start - 1] == _talonGroup[_stockSize - 1]) {
+                --start;
+            }
+
+            int count = _stockSize - start;
+            int[] drawn = new int[count];
+            System.arraycopy(_talon, start, drawn, 0, count);
+            System.arraycopy(_talon, _stockSize, _talon, start, _talonSize - _stockSize);
+            System.arraycopy(_talonGroup, _stockSize, _talonGroup, start, _talonSize - _stockSize);
+            int group = _nextGroup++;
+            for(int i = 0; i < count; ++i) {
+                _talon[_talonSize - count + i] = drawn[i];
+                _talonGroup[_talonSize - count + i] = group;
+            }
+
+            _stockSize = start;
+            if(_stockSize == 0) {
+                ++_passes;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves the specified card, along with every card above it, from one pile to another
+     *
+     * @param from The pile that the card is moved from
+     * @param to The pile that the card is moved to
+     * @param card The code of the card being moved
+     *
+     * @return TRUE if the move is allowed, FALSE otherwise
+     */
+    public boolean move(int from, int to, int card) {
+        int count = getMoveCount(from, to, card);
+        if(count == 0) {
+            return false;
+        }
+
+        beginUndoable(getMovementType(from), getMovementType(to));
+
+        // Take the cards from the source
+        int[] cards = new int[count];
+        if(isTableau(from)) {
+            int column = from - PILE_TABLEAU;
+            _tableauSize[column] -= count;
+            System.arraycopy(_tableau[column], _tableauSize[column], cards, 0, count);
+        }
+        else if(from == PILE_TALON) {
+            cards[0] = _talon[--_talonSize];
+        }
+        else {
+            cards[0] = card;
+            _foundations[from - PILE_FOUNDATION] = BoardPosition.getRank(card) == 0 ? BoardPosition.NONE : card - 1;
+        }
+
+        // Place the cards onto the destination
+        if(isTableau(to)) {
+            int column = to - PILE_TABLEAU;
+            System.arraycopy(cards, 0, _tableau[column], _tableauSize[column], count);
+            _tableauSize[column] += count;
+        }
+        else {
+            _foundations[to - PILE_FOUNDATION] = card;
+        }
+
+        return true;
+    }
+
+    /**
+     * Verifies if the specified card, along with every card above it, can be moved from one pile to another without
+     * moving it
+     *
+     * @param from The pile that the card is moved from
+     * @param to The pile that the card is moved to
+     * @param card The code of the card being moved
+     *
+     * @return TRUE if the move is allowed, FALSE otherwise
+     */
+    public boolean canMove(int from, int to, int card) {
+        return getMoveCount(from, to, card) != 0;
+    }
+
+    /**
+     * @return TRUE if the last action can be undone, FALSE otherwise
+     */
+    public boolean canUndo() {
+        return _canUndo;
+    }
+
+    /**
+     * Uncovers the backside of the top-most card of the specified tableau column
+     *
+     * @param pile The tableau pile
+     * @param card The code of the card being uncovered
+     *
+     * @return TRUE if the card can be uncovered, FALSE otherwise
+     */
+    public boolean flip(int pile, int card) {
+        if(!isTableau(pile)) {
+            return false;
+        }
+
+        int column = pile - PILE_TABLEAU;
+        if(_tableauSize[column] == 0 || _tableauHidden[column] != _tableauSize[column] || _tableau[column][_tableauSize[column] - 1] != card) {
+            return false;
+        }
+
+        --_tableauHidden[column];
+
+        // Uncovering a card is recorded without a destination, which cannot be undone and does not affect the score
+        _canUndo = false;
+        _ledger.recordFlip();
+        return true;
+    }
+
+    /**
+     * Undoes the last action
+     *
+     * @return TRUE if the last action could be undone, FALSE otherwise
+     */
+    public boolean undo() {
+        if(!_canUndo) {
+            return false;
+        }
+
+        copy(_backup, this);
+        _canUndo = false;
+        _ledger.undo();
+
+        return true;
+    }
+
+    /**
+     * Applies the penalty of the game timer
+     */
+    public void tick() {
+        _ledger.recordTick();
+    }
+
+    /**
+     * Applies the bonus given when the game is won
+     *
+     * @param seconds The number of seconds that the game lasted
+     */
+    public void applyBonus(long seconds) {
+        _ledger.recordBonus(seconds);
+    }
+
+    /**
+     * @return The current position of the board
+     */
+    public BoardPosition getPosition() {
+        int[][] tableau = new int[BoardPosition.TABLEAU_COUNT][];
+        for(int column = 0; column < tableau.length; ++column) {
+            tableau[column] = java.util.Arrays.copyOf(_tableau[column], _tableauSize[column]);
+        }
+
+        return new BoardPosition(
+            tableau,
+            _tableauHidden.clone(),
+            _foundations.clone(),
+            getLayers(0, _stockSize),
+            getLayers(_stockSize, _talonSize),
+            _drawOption == DrawOption.THREE ? 3 : 1,
+            _passes,
+            _isRecycled
+        );
+    }
+
+    /**
+     * Gets the number of cards that moving the specified card from one pile to another would move
+     *
+     * @param from The pile that the card is moved from
+     * @param to The pile that the card is moved to
+     * @param card The code of the card being moved
+     *
+     * @return The number of cards moved, or zero if the move is not allowed
+     */
+    private int getMoveCount(int from, int to, int card) {
+        if(from == to || card < 0 || card >= BoardPosition.DECK_SIZE) {
+            return 0;
+        }
+
+        // Find how many cards are being moved from the source
+        int count;
+        if(isTableau(from)) {
+            int column = from - PILE_TABLEAU;
+            int index = -1;
+            for(int i = _tableauHidden[column]; i < _tableauSize[column]; ++i) {
+                if(_tableau[column][i] == card) {
+                    index = i;
+                    break;
+                }
+            }
+            if(index == -1) {
+                return 0;
+            }
+            count = _tableauSize[column] - index;
+        }
+        else if(from == PILE_TALON) {
+            if(_isRecycled || _talonSize == _stockSize || _talon[_talonSize - 1] != card) {
+                return 0;
+            }
+            count = 1;
+        }
+        else if(isFoundation(from)) {
+            if(_foundations[from - PILE_FOUNDATION] != card) {
+                return 0;
+            }
+            count = 1;
+        }
+        else {
+            return 0;
+        }
+
+        // Verify that the destination accepts the card
+        if(isTableau(to)) {
+            int column = to - PILE_TABLEAU;
+            if(_tableauSize[column] == 0) {
+                if(BoardPosition.getRank(card) != BoardPosition.RANK_COUNT - 1) {
+                    return 0;
+                }
+            }
+            else {
+                int top = _tableau[column][_tableauSize[column] - 1];
+                if(_tableauHidden[column] == _tableauSize[column] || BoardPosition.isRed(top) == BoardPosition.isRed(card) || BoardPosition.getRank(card) + 1 != BoardPosition.getRank(top)) {
+                    return 0;
+                }
+            }
+        }
+        else if(isFoundation(to)) {
+            int top = _foundations[to - PILE_FOUNDATION];
+            if(count != 1 || (top == BoardPosition.NONE ? BoardPosition.getRank(card) != 0 : card != top + 1 || BoardPosition.getRank(card) == 0)) {
+                return 0;
+            }
+        }
+        else {
+            return 0;
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the talon cards within the specified range, grouped by layer from the bottom upwards. Each layer
+     * lists its cards from the top-most card downwards
+     *
+     * @param start The first index of the range
+     * @param end The index after the last index of the range
+     *
+     * @return The layers of card codes
+     */
+    private int[][] getLayers(int start, int end) {
+        List<int[]> layers = new ArrayList<int[]>();
+        for(int i = start; i < end;) {
+            int layerEnd = i + 1;
+            while(layerEnd < end && _talonGroup[layerEnd] == _talonGroup[i]) {
+                ++layerEnd;
+            }
+            int[] layer = new int[layerEnd - i];
+            for(int j = 0; j < layer.length; ++j) {
+                layer[j] = _talon[layerEnd - 1 - j];
+            }
+            layers.add(layer);
+            i = layerEnd;
+        }
+        return layers.toArray(new int[layers.size()][]);
+    }
+
+    /**
+     * Recycles the waste back into the stock, regrouping the cards the same way the talon view does
+     */
+    private void recycle() {
+        // The talon view walks its cards from the top-most card downwards, where the top-most card ends up at the bottom of the stock
+        int[] cards = new int[_talonSize];
+        for(int i = 0; i < _talonSize; ++i) {
+            cards[i] = _talon[_talonSize - 1 - i];
+        }
+
+        int groupSize = _drawOption == DrawOption.THREE ? 3 : 1;
+        int slot = 0;
+        for(int layerStart = 0; layerStart < cards.length; layerStart += groupSize) {
+            int group = _nextGroup++;
+            for(int i = Math.min(layerStart + groupSize, cards.length) - 1; i >= layerStart; --i) {
+                _talon[slot] = cards[i];
+                _talonGroup[slot++] = group;
+            }
+        }
+
+        _stockSize = _talonSize;
+        _isRecycled = false;
+    }
+
+    /**
+     * Backs up the board and applies the score of the action that is about to be made
+     *
+     * @param from The movement type that the action starts from
+     * @param to The movement type that the action ends at
+     */
+    private void beginUndoable(MovementType from, MovementType to) {
+        if(_backup == null) {
+            _backup = new GameEngine(_drawOption, _scoringOption);
+        }
+        copy(this, _backup);
+
+        _canUndo = true;
+        _ledger.recordMove(from, to);
+    }
+
+    /**
+     * Copies the board of the specified engine into another engine
+     *
+     * @param source The engine to copy from
+     * @param destination The engine to copy to
+     */
+    private static void copy(GameEngine source, GameEngine destination) {
+        for(int column = 0; column < BoardPosition.TABLEAU_COUNT; ++column) {
+            System.arraycopy(source._tableau[column], 0, destination._tableau[column], 0, source._tableauSize[column]);
+        }
+        System.arraycopy(source._tableauSize, 0, destination._tableauSize, 0, BoardPosition.TABLEAU_COUNT);
+        System.arraycopy(source._tableauHidden, 0, destination._tableauHidden, 0, BoardPosition.TABLEAU_COUNT);
+        System.arraycopy(source._foundations, 0, destination._foundations, 0, BoardPosition.FOUNDATION_COUNT);
+        System.arraycopy(source._talon, 0, destination._talon, 0, source._talonSize);
+        System.arraycopy(source._talonGroup, 0, destination._talonGroup, 0, source._talonSize);
+        destination._talonSize = source._talonSize;
+        destination._stockSize = source._stockSize;
+        destination._nextGroup = source._nextGroup;
+        destination._passes = source._passes;
+        destination._isRecycled = source._isRecycled;
+    }
+
+    /**
+     * @param pile The pile identifier
+     *
+     * @return TRUE if the pile is a tableau column, FALSE otherwise
+     */
+    private static boolean isTableau(int pile) {
+        return pile >= PILE_TABLEAU && pile < PILE_COUNT;
+    }
+
+    /**
+     * @param pile The pile identifier
+     *
+     * @return TRUE if the pile is a foundation, FALSE otherwise
+     */
+    private static boolean isFoundation(int pile) {
+        return pile >= PILE_FOUNDATION && pile < PILE_TABLEAU;
+    }
+
+    /**
+     * @param pile The pile identifier
+     *
+     * @return The movement type associated to the specified pile
+     */
+    private static MovementType getMovementType(int pile) {
+        if(pile == PILE_STOCK) {
+            return MovementType.STOCK;
+        }
+        if(pile == PILE_TALON) {
+            return MovementType.TALON;
+        }
+        return isFoundation(pile) ? MovementType.FOUNDATION : MovementType.TABLEAU;
+    }
+}
@@ -1,13 +1,14 @@
 package game.models;
 
-import framework.core.mvc.model.BaseModel;
-
 import game.views.FoundationPileView;
 import game.views.StockView;
 import game.views.TableauPileView;
 import game.views.TalonPileView;
 
-public class MovementModel extends BaseModel {
+/**
+ * The movement model describes the type of pile that a movement starts from or ends at
+ */
+public class MovementModel {
     
     public enum MovementType {
         STOCK,
@@ -33,31 +34,23 @@ public class MovementModel extends BaseModel {
                 return MovementType.NONE;
             }
         }
-    }
-    
-    private MovementType _from;
-    
-    private MovementType _to;
-    
-    private boolean _isUndo;
-    
-    public void setMovement(MovementType from, MovementType to, boolean isUndo) {
-        _from = from;
-        _to = to;
-        _isUndo = isUndo;
         
-        doneUpdating();
-    }
-    
-    public MovementType getFrom() {
-        return _from;
-    }
-    
-    public MovementType getTo() {
-        return _to;
-    }
-    
-    public boolean getIsUndo() {
-        return _isUndo;
+        public static MovementType fromPile(int pile) {
+            if(pile == GameEngine.PILE_STOCK) {
+                return MovementType.STOCK;
+            }
+            else if(pile == GameEngine.PILE_TALON) {
+                return MovementType.TALON;
+            }
+            else if(pile >= GameEngine.PILE_FOUNDATION && pile < GameEngine.PILE_TABLEAU) {
+                return MovementType.FOUNDATION;
+            }
+            else if(pile >= GameEngine.PILE_TABLEAU && pile < GameEngine.PILE_COUNT) {
+                return MovementType.TABLEAU;
+            }
+            else {
+                return MovementType.NONE;
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+package game.models;
+
+import java.util.Arrays;
+
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+import game.models.MovementModel.MovementType;
+
+/**
+ * The ledger that the score of a game is computed from.
+ *
+ * Every action that affects the score is appended to the ledger as an entry holding the score that the action is worth,
+ * and the running score after it. Entries are never modified nor removed: undoing a move appends an entry that reverses
+ * the move along with the undo penalty, so moves can be undone at any depth while the ledger keeps the full history of the
+ * score. The score of each movement is looked up from a table indexed by where the movement started and ended.
+ *
+ * Every method of this class is synchronized, so entries can be appended and the score read from any thread
+ */
+public final class ScoreLedger {
+
+    /**
+     * The types of entries of the ledger
+     */
+    public enum EntryType { MOVE, FLIP, PASS, TICK, BONUS, UNDO };
+
+    /**
+     * The standard score of each movement, indexed by where the movement started and where it ended
+     */
+    private static final long[][] STANDARD_MOVEMENT_SCORES = new long[MovementType.values().length][MovementType.values().length];
+
+    /**
+     * The Vegas score of each movement, indexed by where the movement started and where it ended
+     */
+    private static final long[][] VEGAS_MOVEMENT_SCORES = new long[MovementType.values().length][MovementType.values().length];
+
+    static {
+        STANDARD_MOVEMENT_SCORES[MovementType.TALON.ordinal()][MovementType.TABLEAU.ordinal()] = 5;
+        STANDARD_MOVEMENT_SCORES[MovementType.TALON.ordinal()][MovementType.FOUNDATION.ordinal()] = 10;
+        STANDARD_MOVEMENT_SCORES[MovementType.TABLEAU.ordinal()][MovementType.FOUNDATION.ordinal()] = 10;
+        STANDARD_MOVEMENT_SCORES[MovementType.FOUNDATION.ordinal()][MovementType.TABLEAU.ordinal()] = -15;
+
+        VEGAS_MOVEMENT_SCORES[MovementType.TALON.ordinal()][MovementType.TABLEAU.ordinal()] = 5;
+        VEGAS_MOVEMENT_SCORES[MovementType.TALON.ordinal()][MovementType.FOUNDATION.ordinal()] = 5;
+        VEGAS_MOVEMENT_SCORES[MovementType.TABLEAU.ordinal()][MovementType.FOUNDATION.ordinal()] = 5;
+        VEGAS_MOVEMENT_SCORES[MovementType.FOUNDATION.ordinal()][MovementType.TABLEAU.ordinal()] = -5;
+    }
+
+    /**
+     * The score that a Vegas game starts with, the price of the deck
+     */
+    public static final long VEGAS_INITIAL_SCORE = -52;
+
+    /**
+     * The penalty of undoing a move when not playing Vegas
+     */
+    private static final long UNDO_PENALTY = -2;
+
+    /**
+     * The penalty applied every time that the game timer ticks when not playing Vegas
+     */
+    private static final long TICK_PENALTY = -2;
+
+    /**
+     * The initial number of entries that can be held before the ledger grows
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The draw option of the game
+     */
+    private final DrawOption _drawOption;
+
+    /**
+     * The scoring option of the game
+     */
+    private final ScoringOption _scoringOption;
+
+    /**
+     * The score before the first entry
+     */
+    private final long _initialScore;
+
+    /**
+     * The type of each entry
+     */
+    private EntryType[] _types = new EntryType[INITIAL_CAPACITY];
+
+    /**
+     * The score that each entry is worth
+     */
+    private long[] _values = new long[INITIAL_CAPACITY];
+
+    /**
+     * The score after each entry
+     */
+    private long[] _scores = new long[INITIAL_CAPACITY];
+
+    /**
+     * The number of entries
+     */
+    private int _size;
+
+    /**
+     * The indices of the move entries that were not undone, from the oldest move to the latest
+     */
+    private int[] _moves = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of move entries that were not undone
+     */
+    private int _moveCount;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param drawOption The draw option of the game
+     * @param scoringOption The scoring option of the game
+     * @param initialScore The score before the first entry, see {@link #VEGAS_INITIAL_SCORE}
+     */
+    public ScoreLedger(DrawOption drawOption, ScoringOption scoringOption, long initialScore) {
+        _drawOption = drawOption;
+        _scoringOption = scoringOption;
+        _initialScore = initialScore;
+    }
+
+    /**
+     * Gets the score of the specified movement
+     *
+     * @param scoringOption The scoring option of the game
+     * @param from The movement type that the movement started from
+     * @param to The movement type that the movement ended at
+     *
+     * @return The score of the movement
+     */
+    public static long getMovementScore(ScoringOption scoringOption, MovementType from, MovementType to) {
+        return (scoringOption == ScoringOption.VEGAS ? VEGAS_MOVEMENT_SCORES : STANDARD_MOVEMENT_SCORES)[from.ordinal()][to.ordinal()];
+    }
+
+    /**
+     * Appends a movement from one pile to another, including a draw from the stock
+     *
+     * @param from The movement type that the movement started from
+     * @param to The movement type that the movement ended at
+     *
+     * @return The score after the movement
+     */
+    public synchronized long recordMove(MovementType from, MovementType to) {
+        if(_moveCount == _moves.length) {
+            _moves = Arrays.copyOf(_moves, _moveCount * 2);
+        }
+        _moves[_moveCount++] = _size;
+        return append(EntryType.MOVE, getMovementScore(_scoringOption, from, to));
+    }
+
+    /**
+     * Appends a card of the tableau being turned over, which is not worth any score
+     *
+     * @return The score after the card was turned over
+     */
+    public synchronized long recordFlip() {
+        return append(EntryType.FLIP, 0);
+    }
+
+    /**
+     * Appends the stock being played through
+     *
+     * @param passes The number of passes made through the stock so far
+     *
+     * @return The score after the penalty of the pass
+     */
+    public synchronized long recordPass(int passes) {
+        long value = 0;
+        if(_scoringOption != ScoringOption.VEGAS) {
+            if(_drawOption == DrawOption.THREE && _scoringOption == ScoringOption.STANDARD) {
+                value = passes > 3 ? -20 : 0;
+            }
+            else {
+                value = -100;
+            }
+        }
+        return append(EntryType.PASS, value);
+    }
+
+    /**
+     * Appends a tick of the game timer
+     *
+     * @return The score after the penalty of the tick
+     */
+    public synchronized long recordTick() {
+        return append(EntryType.TICK, _scoringOption == ScoringOption.VEGAS ? 0 : TICK_PENALTY);
+    }
+
+    /**
+     * Appends the bonus given when the game is won
+     *
+     * @param seconds The number of seconds that the game lasted
+     *
+     * @return The bonus
+     */
+    public synchronized long recordBonus(long seconds) {
+        long bonus = _scoringOption != ScoringOption.VEGAS && seconds > 30 ? 700000 / seconds : 0;
+        append(EntryType.BONUS, bonus);
+        return bonus;
+    }
+
+    /**
+     * Undoes the latest move that was not undone yet. The move is reversed, and the undo penalty applies when not playing
+     * Vegas
+     *
+     * @return TRUE if a move was undone, FALSE if there is no move left to undo
+     */
+    public synchronized boolean undo() {
+        if(_moveCount == 0) {
+            return false;
+        }
+
+        long value = _values[_moves[--_moveCount]];
+        append(EntryType.UNDO, -value + (_scoringOption == ScoringOption.VEGAS ? 0 : UNDO_PENALTY));
+        return true;
+    }
+
+    /**
+     * @return The current score
+     */
+    public synchronized long getScore() {
+        return _size == 0 ? _initialScore : _scores[_size - 1];
+    }
+
+    /**
+     * @return The score before the first entry
+     */
+    public long getInitialScore() {
+        return _initialScore;
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return _size;
+    }
+
+    /**
+     * @param index The index of the entry
+     *
+     * @return The type of the specified entry
+     */
+    public synchronized EntryType getType(int index) {
+        return _types[index];
+    }
+
+    /**
+     * @param index The index of the entry
+     *
+     * @return The score that the specified entry is worth
+     */
+    public synchronized long getValue(int index) {
+        return _values[index];
+    }
+
+    /**
+     * @param index The index of the entry
+     *
+     * @return The score after the specified entry
+     */
+    public synchronized long getScore(int index) {
+        return _scores[index];
+    }
+
+    /**
+     * Appends an entry to this ledger. The score cannot go below zero unless playing Vegas
+     *
+     * @param type The type of the entry
+     * @param value The score that the entry is worth
+     *
+     * @return The score after the entry
+     */
+    private long append(EntryType type, long value) {
+        if(_size == _types.length) {
+            int capacity = _size * 2;
+            _types = Arrays.copyOf(_types, capacity);
+            _values = Arrays.copyOf(_values, capacity);
+            _scores = Arrays.copyOf(_scores, capacity);
+        }
+
+        long score = getScore() + value;
+        if(_scoringOption != ScoringOption.VEGAS) {
+            score = Math.max(0, score);
+        }
+
+        _types[_size] = type;
+        _values[_size] = value;
+        _scores[_size] = score;
+        ++_size;
+
+        return score;
+    }
+}
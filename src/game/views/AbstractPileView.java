@@ -13,9 +13,10 @@ import java.util.List;
 
 import javax.swing.JLayeredPane;
 
-import framework.core.factories.AbstractFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
+import framework.core.physics.ICollidable;
+
+import game.views.helpers.DamageTracker;
 
 /**
  * Abstract representation of a pile view
@@ -64,7 +65,7 @@ public abstract class AbstractPileView extends PanelView implements IUndoable {
             return null;
         }
         
-        Component comp = layeredPane.getComponents()[0];
+        Component comp = layeredPane.getComponent(0);
         if(!(comp instanceof CardView)) {
             return null;
         }
@@ -84,8 +85,9 @@ public abstract class AbstractPileView extends PanelView implements IUndoable {
     
     public void addCard(CardView cardView, int layerPosition) {
      
-        // Hold onto a reference of the parent for repainting reasons
+        // The region that the cards leave within their previous parent is recorded before they are moved
         Container parentCardView = cardView.getParent();
+        DamageTracker.getInstance().addDamage(parentCardView, cardView.getBounds());
         
         // Get the list of components associated to the card view.
         // This list represents all the children associated to the said CardView.this reference.
@@ -103,14 +105,25 @@ public abstract class AbstractPileView extends PanelView implements IUndoable {
             layeredPane.setLayer(comp, layerPosition);
             Point offset = getCardOffset((CardView)comp);
             comp.setBounds(new Rectangle(offset.x, offset.y, comp.getPreferredSize().width, comp.getPreferredSize().height));
+            DamageTracker.getInstance().addDamage(layeredPane, comp.getBounds());
 
             ++layerPosition;
         }
-        
-        parentCardView.repaint();
-        repaint();
     }
     
+    /**
+     * Gets if the specified source can be dropped onto this view when it is at the specified bounds. This is used for the
+     * cards that are drawn over the game view while they are dragged, whose own bounds remain within their pile
+     *
+     * @param source The card view being dropped
+     * @param bounds The bounds of the source, within the parent of this view
+     *
+     * @return TRUE if the source can be dropped onto this view, FALSE otherwise
+     */
+    public boolean isValidCollision(Component source, Rectangle bounds) {
+        return this instanceof ICollidable && bounds.intersects(getX(), getY(), getWidth(), getHeight()) && ((ICollidable)this).isValidCollision(source);
+    }
+
     /**
      * Gets the offset that should be set to the specified card view
      *
@@ -151,24 +164,10 @@ public abstract class AbstractPileView extends PanelView implements IUndoable {
         // Get all the cards currently in the pile view
         List<Component> allComponents = Arrays.asList(layeredPane.getComponents());
         Collections.reverse(allComponents);
-        _previousCards.addAll(allComponents);
         
-        // Attempt to get the card that is currently being dragged.
-        // Note: This is only valid in a non-outline scenario. In this scenario, the card that we are getting
-        //       here is the card that was clicked on. The subsequent cards that are being dragged along with it
-        //       if any can be found in the layered pane associated to this clicked card.
-        CardView cardView = AbstractFactory.getFactory(ViewFactory.class).get(GameView.class).getCardComponent();
-        if(cardView != null) {
-            _previousCards.add(cardView);
-            
-            List<Component> components = Arrays.asList(cardView.layeredPane.getComponents());
-            Collections.reverse(components);
-            
-            // Add any subsequent cards below the clicked card if any
-            for(Component comp : components) {
-                _previousCards.add(comp);
-            }
-        }
+        // Note: The cards being dragged remain within this pile until they are dropped, so they are part of the
+        //       components taken here
+        _previousCards.addAll(allComponents);
     }
 
     @Override public void clearBackup() {        
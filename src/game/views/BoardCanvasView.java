@@ -0,0 +1,895 @@
+package game.views;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.swing.SwingUtilities;
+import javax.swing.border.Border;
+
+import framework.core.factories.AbstractFactory;
+import framework.core.factories.ControllerFactory;
+import framework.core.factories.DataFactory;
+import framework.core.factories.ViewFactory;
+import framework.core.mvc.view.PanelView;
+import framework.utils.globalisation.Localization;
+
+import game.config.GameJournal;
+import game.config.OptionsPreferences.ScoringOption;
+import game.config.OptionsSnapshot;
+import game.config.StatisticsLedger;
+import game.config.StatisticsLedger.GameRecord;
+import game.controllers.MovementRecorderController;
+import game.events.GameEventBus;
+import game.models.AutocompletePlanner;
+import game.models.AutocompletePlanner.Move;
+import game.models.BoardPosition;
+import game.models.CardModel;
+import game.models.GameEngine;
+import game.views.components.ExclusiveLineBorder;
+import game.views.helpers.CardImageCache;
+import game.views.helpers.DragEventCoalescer;
+import game.views.helpers.PileImageCache;
+
+import generated.DataLookup;
+
+import resources.LocalizationStrings;
+
+/**
+ * The board canvas paints the entire game from the {@link GameEngine} as a single component.
+ *
+ * This is the alternative to the {@link GameView}, where every card is a view of its own nested within the layered panes
+ * of its pile. Here the piles are laid out by geometry alone: the board is split into seven columns, with the stock, the
+ * talon and the foundations in the top row and the tableau in the bottom row. Every paint draws the piles from the current
+ * position of the engine in z-order, and the mouse is resolved to a pile and a card from that same geometry, so moving a
+ * card changes the engine and repaints the board without adding, removing or laying out any component.
+ *
+ * The canvas is used when the game is started with the {@code canvas} argument
+ */
+public final class BoardCanvasView extends PanelView {
+
+    /**
+     * The number of columns of the board
+     */
+    private static final int COLUMN_COUNT = BoardPosition.TABLEAU_COUNT;
+
+    /**
+     * The column of the left-most foundation
+     */
+    private static final int FOUNDATION_COLUMN = 3;
+
+    /**
+     * The y-coordinate of the top row
+     */
+    private static final int TOP_ROW_Y = 10;
+
+    /**
+     * The y-coordinate of the tableau
+     */
+    private static final int TABLEAU_Y = TOP_ROW_Y + CardView.CARD_HEIGHT + 12;
+
+    /**
+     * The offset of a card within the tableau from the card beneath it when that card shows its backside
+     */
+    private static final int CARD_OFFSET_BACKSIDE = 3;
+
+    /**
+     * The offset of a card within the tableau from the card beneath it when that card shows its face
+     */
+    private static final int CARD_OFFSET = 15;
+
+    /**
+     * The offset of each card of a hand within the talon when drawing three
+     */
+    private static final int CARD_OFFSET_X = 12;
+
+    /**
+     * The seed used to deal the cards of this game
+     */
+    private final long _seed = new Random().nextLong();
+
+    /**
+     * The engine that holds the state of the game
+     */
+    private final GameEngine _engine;
+
+    /**
+     * The position of the board that is painted, taken from the engine after every change
+     */
+    private BoardPosition _position;
+
+    /**
+     * The rendered appearance of every pile
+     */
+    private final PileImageCache _pileImages = new PileImageCache(GameEngine.PILE_COUNT);
+
+    /**
+     * The contents of every pile as they were last painted, see {@link #getPileKey(int)}
+     */
+    private final String[] _pileKeys = new String[GameEngine.PILE_COUNT];
+
+    /**
+     * The card of each card code, used to resolve the images of the faces
+     */
+    private final CardModel[] _cards = new CardModel[BoardPosition.DECK_SIZE];
+
+    /**
+     * The card used to resolve the image of the backside
+     */
+    private final CardModel _backside;
+
+    /**
+     * The border drawn around the cards being dragged when outline dragging is enabled
+     */
+    private final Border _outlineBorder = new ExclusiveLineBorder(1);
+
+    /**
+     * The status bar view
+     */
+    private final StatusBarView _statusBarView;
+
+    /**
+     * The movement recorder, which journals the game
+     */
+    private final MovementRecorderController _recorder;
+
+    /**
+     * The pile that the mouse was pressed on, or {@link BoardPosition#NONE}
+     */
+    private int _pressedPile = BoardPosition.NONE;
+
+    /**
+     * The index of the card that the mouse was pressed on, from the bottom of its pile
+     */
+    private int _pressedIndex;
+
+    /**
+     * The position that the mouse was pressed at
+     */
+    private Point _pressedPoint;
+
+    /**
+     * This flag indicates if the cards that the mouse was pressed on are being dragged
+     */
+    private boolean _isDragging;
+
+    /**
+     * The bounds of the cards being dragged, from the bottom-most card to the top of the top-most card
+     */
+    private final Rectangle _dragBounds = new Rectangle();
+
+    /**
+     * The pile that the cards being dragged would be dropped onto, or {@link BoardPosition#NONE}
+     */
+    private int _collision = BoardPosition.NONE;
+
+    /**
+     * The pile of the last action that can be undone
+     */
+    private int _undoFrom = BoardPosition.NONE;
+
+    /**
+     * The pile that the last action that can be undone went to
+     */
+    private int _undoTo = BoardPosition.NONE;
+
+    /**
+     * This flag indicates if the result of this game was written to the statistics ledger
+     */
+    private boolean _isResultRecorded;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    public BoardCanvasView() {
+        setLayout(new BorderLayout());
+        setBackground(new Color(0, 128, 0));
+
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+        _engine = new GameEngine(preferences.drawOption, preferences.scoringOption);
+        _engine.deal(_seed);
+        onBoardChanged();
+
+        for(int code = 0; code < _cards.length; ++code) {
+            _cards[code] = CardModel.newInstance(code);
+        }
+        _backside = CardModel.newInstance(0);
+        _backside.setBackside(true);
+
+        // The movement recorder only journals the game, the moves are undone by the engine
+        _recorder = AbstractFactory.getFactory(ControllerFactory.class).add(new MovementRecorderController(new GameJournal(_seed, StatisticsLedger.packOptions(preferences))), true);
+        GameEventBus.getInstance().addListener(_recorder);
+
+        // The status bar is the only child of the canvas, its score view is kept up to date by the game events
+        _statusBarView = AbstractFactory.getFactory(ViewFactory.class).add(new StatusBarView(), true);
+        add(_statusBarView, BorderLayout.SOUTH);
+
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent event) {
+                onMousePressed(event);
+            }
+            @Override public void mouseDragged(MouseEvent event) {
+                onMouseDragged(event);
+            }
+            @Override public void mouseReleased(MouseEvent event) {
+                onMouseReleased(event);
+            }
+            @Override public void mouseClicked(MouseEvent event) {
+                // Double clicking on the top-most card of a pile sends it to the foundations
+                int pile = getPileAt(event.getPoint());
+                if(SwingUtilities.isLeftMouseButton(event) && event.getClickCount() == 2 && pile != BoardPosition.NONE && getCardIndexAt(pile, event.getPoint()) == getCardCount(pile) - 1) {
+                    sendToFoundation(pile);
+                }
+            }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+    }
+
+    /**
+     * @return The seed used to deal the cards of this game
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    /**
+     * @return The current position of the board
+     */
+    public BoardPosition getPosition() {
+        return _position;
+    }
+
+    /**
+     * @return TRUE if the last action can be undone, FALSE otherwise
+     */
+    public boolean canUndo() {
+        return _engine.canUndo();
+    }
+
+    /**
+     * Undoes the last action
+     */
+    public void undo() {
+        if(_engine.undo()) {
+            GameEventBus.getInstance().postMoveUndone(_undoFrom, _undoTo);
+            onBoardChanged();
+        }
+    }
+
+    /**
+     * Writes the result of this game to the statistics ledger, see {@link GameView#recordGameResult(boolean)}
+     *
+     * @param isWon TRUE if the game was won, FALSE otherwise
+     */
+    public void recordGameResult(boolean isWon) {
+        if(_isResultRecorded) {
+            return;
+        }
+
+        // Deliver the pending game events so that the score and the journal are up to date
+        GameEventBus.getInstance().flush();
+
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+        int moves = _recorder.getMoveCount();
+        if(moves == 0 && preferences.scoringOption != ScoringOption.VEGAS) {
+            return;
+        }
+
+        _isResultRecorded = true;
+        int score = (int)_statusBarView.getScoreView().getGameScore();
+        int time = (int)_statusBarView.getTimerView().getTime();
+        StatisticsLedger.getInstance().append(new GameRecord(_seed, System.currentTimeMillis(), StatisticsLedger.packOptions(preferences), isWon, score, time, moves));
+        _recorder.getJournal().write(score, time, moves, isWon);
+    }
+
+    /**
+     * Handles the mouse being pressed, drawing from the stock, uncovering a card of the tableau or selecting the cards
+     * to drag
+     *
+     * @param event The mouse event
+     */
+    private void onMousePressed(MouseEvent event) {
+        _pressedPile = BoardPosition.NONE;
+        _pressedPoint = null;
+
+        if(SwingUtilities.isRightMouseButton(event)) {
+            performCardsAutocomplete();
+            return;
+        }
+        if(!SwingUtilities.isLeftMouseButton(event)) {
+            return;
+        }
+
+        _statusBarView.getTimerView().startGameTimer();
+
+        int pile = getPileAt(event.getPoint());
+        if(pile == GameEngine.PILE_STOCK) {
+            draw();
+            return;
+        }
+        if(pile == BoardPosition.NONE) {
+            return;
+        }
+
+        int index = getCardIndexAt(pile, event.getPoint());
+        if(index == BoardPosition.NONE) {
+            return;
+        }
+
+        // Pressing on the top-most card of a column that shows its backside uncovers it
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            int column = pile - GameEngine.PILE_TABLEAU;
+            if(index < _position.tableauHidden[column]) {
+                int card = _position.tableau[column][index];
+                if(index == _position.tableau[column].length - 1 && _engine.flip(pile, card)) {
+                    GameEventBus.getInstance().postCardFlipped(pile, card);
+                    onBoardChanged();
+                }
+                return;
+            }
+        }
+
+        // The drag only starts once the mouse moves, so that clicking on a card leaves it where it is
+        _pressedPile = pile;
+        _pressedIndex = index;
+        _pressedPoint = event.getPoint();
+    }
+
+    /**
+     * Handles the mouse being dragged. The position is processed by the next frame, see {@link DragEventCoalescer}
+     *
+     * @param event The mouse event
+     */
+    private void onMouseDragged(MouseEvent event) {
+        if(_pressedPoint == null) {
+            return;
+        }
+
+        if(!_isDragging) {
+            _isDragging = true;
+            _dragBounds.setBounds(getStackBounds(_pressedPile, _pressedIndex));
+
+            // The cards being dragged are no longer drawn within their pile
+            _pileImages.invalidate(_pressedPile);
+        }
+        DragEventCoalescer.getInstance().post(event.getPoint(), this::moveDrag);
+    }
+
+    /**
+     * Handles the mouse being released, dropping the cards being dragged
+     *
+     * @param event The mouse event
+     */
+    private void onMouseReleased(MouseEvent event) {
+        if(!_isDragging) {
+            _pressedPoint = null;
+            return;
+        }
+
+        // The cards are dropped where the mouse was released
+        DragEventCoalescer.getInstance().flush();
+
+        int destination = _collision;
+        int card = getCard(_pressedPile, _pressedIndex);
+        setCollision(BoardPosition.NONE);
+        repaint(_dragBounds);
+
+        _isDragging = false;
+        _pressedPoint = null;
+        _pileImages.invalidate(_pressedPile);
+
+        if(destination != BoardPosition.NONE) {
+            move(_pressedPile, destination, card);
+        }
+        else {
+            repaint(getPileBounds(_pressedPile));
+        }
+    }
+
+    /**
+     * Moves the cards being dragged so that they follow the mouse, and resolves the pile that they would be dropped onto
+     *
+     * @param point The position of the mouse
+     */
+    private void moveDrag(Point point) {
+        if(!_isDragging) {
+            return;
+        }
+
+        // The region that the cards leave and the region that they enter are repainted
+        repaint(_dragBounds);
+        Rectangle origin = getStackBounds(_pressedPile, _pressedIndex);
+        _dragBounds.setLocation(origin.x + point.x - _pressedPoint.x, origin.y + point.y - _pressedPoint.y);
+        repaint(_dragBounds);
+
+        // The pile under the center of the top-most card being dragged is the only pile that can take the cards
+        int pile = getPileAt(new Point(_dragBounds.x + CardView.CARD_WIDTH / 2, _dragBounds.y + CardView.CARD_HEIGHT / 2));
+        if(pile == _pressedPile || pile == GameEngine.PILE_STOCK || pile == GameEngine.PILE_TALON || pile == BoardPosition.NONE || !_engine.canMove(_pressedPile, pile, getCard(_pressedPile, _pressedIndex))) {
+            pile = BoardPosition.NONE;
+        }
+        setCollision(pile);
+    }
+
+    /**
+     * Sets the pile that the cards being dragged would be dropped onto, repainting the highlight of the previous pile
+     * and the new pile
+     *
+     * @param pile The pile, or {@link BoardPosition#NONE}
+     */
+    private void setCollision(int pile) {
+        if(pile == _collision) {
+            return;
+        }
+        if(_collision != BoardPosition.NONE) {
+            _pileImages.invalidate(_collision);
+            repaint(getPileBounds(_collision));
+        }
+        _collision = pile;
+        if(_collision != BoardPosition.NONE) {
+            _pileImages.invalidate(_collision);
+            repaint(getPileBounds(_collision));
+        }
+    }
+
+    /**
+     * Draws the next hand from the stock
+     */
+    private void draw() {
+        int passes = _position.passes;
+        boolean isDeckPlayed = !_position.isRecycled && _position.stock.length == 0;
+        if(!_engine.draw()) {
+            return;
+        }
+
+        GameEventBus.getInstance().postMoveApplied(GameEngine.PILE_STOCK, GameEngine.PILE_TALON, GameEventBus.NONE);
+        if(isDeckPlayed) {
+            GameEventBus.getInstance().postTalonCycled(passes);
+        }
+        _undoFrom = GameEngine.PILE_STOCK;
+        _undoTo = GameEngine.PILE_TALON;
+        onBoardChanged();
+    }
+
+    /**
+     * Moves the specified card, along with every card above it, from one pile to another
+     *
+     * @param from The pile that the card is moved from
+     * @param to The pile that the card is moved to
+     * @param card The code of the card
+     *
+     * @return TRUE if the card was moved, FALSE otherwise
+     */
+    private boolean move(int from, int to, int card) {
+        if(!_engine.move(from, to, card)) {
+            return false;
+        }
+
+        GameEventBus.getInstance().postMoveApplied(from, to, card);
+        _undoFrom = from;
+        _undoTo = to;
+        onBoardChanged();
+
+        if(_engine.isWon()) {
+            processWin();
+        }
+        return true;
+    }
+
+    /**
+     * Sends the top-most card of the specified pile to the left-most foundation that accepts it
+     *
+     * @param pile The pile
+     *
+     * @return TRUE if the card was moved, FALSE otherwise
+     */
+    private boolean sendToFoundation(int pile) {
+        if(pile != GameEngine.PILE_TALON && pile < GameEngine.PILE_TABLEAU) {
+            return false;
+        }
+
+        int card = getCard(pile, getCardCount(pile) - 1);
+        if(card == BoardPosition.NONE) {
+            return false;
+        }
+        for(int foundation = GameEngine.PILE_FOUNDATION; foundation < GameEngine.PILE_TABLEAU; ++foundation) {
+            if(move(pile, foundation, card)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends every card that can be played to the foundations, see {@link AutocompletePlanner}
+     */
+    private void performCardsAutocomplete() {
+        for(Move move : AutocompletePlanner.plan(_position)) {
+            // Stop if the board no longer matches the plan
+            if(getCard(move.from, getCardCount(move.from) - 1) != move.card || !sendToFoundation(move.from)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Takes the position of the board from the engine and repaints the piles whose contents changed
+     */
+    private void onBoardChanged() {
+        _position = _engine.getPosition();
+        for(int pile = 0; pile < GameEngine.PILE_COUNT; ++pile) {
+            String key = getPileKey(pile);
+            if(!key.equals(_pileKeys[pile])) {
+                _pileKeys[pile] = key;
+                _pileImages.invalidate(pile);
+                repaint(getPileBounds(pile));
+            }
+        }
+    }
+
+    /**
+     * Repaints every pile with the current images of the cards, such as once the deck was changed
+     */
+    public void onCardImagesChanged() {
+        _pileImages.invalidateAll();
+        repaint();
+    }
+
+    /**
+     * @return The rendered appearance of every pile, along with how often it was reused
+     */
+    public PileImageCache getPileImages() {
+        return _pileImages;
+    }
+
+    /**
+     * Gets the contents of the specified pile, as far as they change its appearance
+     *
+     * @param pile The pile
+     *
+     * @return The contents of the pile
+     */
+    private String getPileKey(int pile) {
+        if(pile == GameEngine.PILE_STOCK) {
+            return Arrays.deepToString(_position.stock) + _position.isRecycled + _engine.isTalonEnded();
+        }
+        if(pile == GameEngine.PILE_TALON) {
+            // The talon steps down as it grows
+            return Arrays.deepToString(_position.waste) + _position.isRecycled;
+        }
+        if(pile < GameEngine.PILE_TABLEAU) {
+            return Integer.toString(_position.foundations[pile - GameEngine.PILE_FOUNDATION]);
+        }
+        int column = pile - GameEngine.PILE_TABLEAU;
+        return Arrays.toString(_position.tableau[column]) + _position.tableauHidden[column];
+    }
+
+    /**
+     * Processes the win of the game, see {@link GameView}
+     */
+    private void processWin() {
+        TimerView timerView = _statusBarView.getTimerView();
+        timerView.stop();
+
+        // The moves must reach the score before the bonus is added to it
+        GameEventBus.getInstance().flush();
+        long bonus = _statusBarView.getScoreView().updateScoreBonus(timerView.getTime());
+        _statusBarView.setMenuDescription(String.format(Localization.instance().getLocalizedString(LocalizationStrings.GAME_WON_STATUS_BAR), bonus));
+
+        recordGameResult(true);
+    }
+
+    /**
+     * @param column The column
+     *
+     * @return The x-coordinate of the cards within the specified column
+     */
+    private int getColumnX(int column) {
+        int columnWidth = getWidth() / COLUMN_COUNT;
+        return column * columnWidth + (columnWidth - CardView.CARD_WIDTH) / 2;
+    }
+
+    /**
+     * @param pile The pile
+     *
+     * @return The column of the specified pile
+     */
+    private static int getColumn(int pile) {
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            return pile - GameEngine.PILE_TABLEAU;
+        }
+        if(pile >= GameEngine.PILE_FOUNDATION) {
+            return FOUNDATION_COLUMN + pile - GameEngine.PILE_FOUNDATION;
+        }
+        return pile;
+    }
+
+    /**
+     * Gets the pile at the specified position
+     *
+     * @param point The position
+     *
+     * @return The pile, or {@link BoardPosition#NONE} if there is none
+     */
+    private int getPileAt(Point point) {
+        if(point.x < 0 || point.x >= getWidth() || point.y < TOP_ROW_Y) {
+            return BoardPosition.NONE;
+        }
+
+        int column = Math.min(COLUMN_COUNT - 1, point.x / Math.max(1, getWidth() / COLUMN_COUNT));
+        if(point.y >= TABLEAU_Y) {
+            return GameEngine.PILE_TABLEAU + column;
+        }
+        if(column >= FOUNDATION_COLUMN) {
+            return GameEngine.PILE_FOUNDATION + column - FOUNDATION_COLUMN;
+        }
+        return column == 2 ? BoardPosition.NONE : column;
+    }
+
+    /**
+     * Gets the card of the specified pile at the specified position, where a card that is covered only counts where it
+     * is not covered by the cards above it
+     *
+     * @param pile The pile
+     * @param point The position
+     *
+     * @return The index of the card from the bottom of the pile, or {@link BoardPosition#NONE} if there is none
+     */
+    private int getCardIndexAt(int pile, Point point) {
+        for(int index = getCardCount(pile) - 1; index >= 0; --index) {
+            if(getCardBounds(pile, index).contains(point)) {
+                // Only the top-most card of the talon and of the foundations can be taken
+                return pile < GameEngine.PILE_TABLEAU && index != getCardCount(pile) - 1 ? BoardPosition.NONE : index;
+            }
+        }
+        return BoardPosition.NONE;
+    }
+
+    /**
+     * Gets the number of cards of the specified pile that are shown. The talon shows the cards of its last hand, and the
+     * foundations show their top-most card
+     *
+     * @param pile The pile
+     *
+     * @return The number of cards
+     */
+    private int getCardCount(int pile) {
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            return _position.tableau[pile - GameEngine.PILE_TABLEAU].length;
+        }
+        if(pile >= GameEngine.PILE_FOUNDATION) {
+            return _position.foundations[pile - GameEngine.PILE_FOUNDATION] == BoardPosition.NONE ? 0 : 1;
+        }
+        if(pile == GameEngine.PILE_TALON) {
+            return _position.isRecycled || _position.waste.length == 0 ? 0 : _position.waste[_position.waste.length - 1].length;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the code of the specified card
+     *
+     * @param pile The pile
+     * @param index The index of the card from the bottom of the pile
+     *
+     * @return The code of the card, or {@link BoardPosition#NONE} if there is none
+     */
+    private int getCard(int pile, int index) {
+        if(index < 0 || index >= getCardCount(pile)) {
+            return BoardPosition.NONE;
+        }
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            return _position.tableau[pile - GameEngine.PILE_TABLEAU][index];
+        }
+        if(pile >= GameEngine.PILE_FOUNDATION) {
+            return _position.foundations[pile - GameEngine.PILE_FOUNDATION];
+        }
+
+        // The cards of a hand are listed from the top-most card downwards
+        int[] hand = _position.waste[_position.waste.length - 1];
+        return hand[hand.length - 1 - index];
+    }
+
+    /**
+     * Gets the bounds of the specified card
+     *
+     * @param pile The pile
+     * @param index The index of the card from the bottom of the pile
+     *
+     * @return The bounds of the card
+     */
+    private Rectangle getCardBounds(int pile, int index) {
+        int x = getColumnX(getColumn(pile));
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            int column = pile - GameEngine.PILE_TABLEAU;
+            int y = TABLEAU_Y;
+            for(int i = 0; i < index; ++i) {
+                y += i < _position.tableauHidden[column] ? CARD_OFFSET_BACKSIDE : CARD_OFFSET;
+            }
+            return new Rectangle(x, y, CardView.CARD_WIDTH, CardView.CARD_HEIGHT);
+        }
+        if(pile == GameEngine.PILE_TALON) {
+            // The talon steps down as it grows, and the cards of a hand are fanned out when drawing three
+            int count = 0;
+            for(int[] hand : _position.waste) {
+                count += hand.length;
+            }
+            int step = count < (_position.drawCount == 3 ? 13 : 12) ? 0 : count < 22 ? 1 : 2;
+            return new Rectangle(x + 2 * step + (_position.drawCount == 3 ? index * CARD_OFFSET_X : 0), TOP_ROW_Y + step + index, CardView.CARD_WIDTH, CardView.CARD_HEIGHT);
+        }
+        return new Rectangle(x, TOP_ROW_Y, CardView.CARD_WIDTH, CardView.CARD_HEIGHT);
+    }
+
+    /**
+     * Gets the bounds of the specified card along with every card above it
+     *
+     * @param pile The pile
+     * @param index The index of the card from the bottom of the pile
+     *
+     * @return The bounds of the cards
+     */
+    private Rectangle getStackBounds(int pile, int index) {
+        Rectangle bounds = getCardBounds(pile, index);
+        bounds.add(getCardBounds(pile, Math.max(index, getCardCount(pile) - 1)));
+        return bounds;
+    }
+
+    /**
+     * Gets the region that the specified pile is painted within
+     *
+     * @param pile The pile
+     *
+     * @return The region of the pile
+     */
+    private Rectangle getPileBounds(int pile) {
+        int x = getColumnX(getColumn(pile));
+        if(pile >= GameEngine.PILE_TABLEAU) {
+            return new Rectangle(x, TABLEAU_Y, CardView.CARD_WIDTH, Math.max(0, getHeight() - TABLEAU_Y));
+        }
+
+        // The stock and the talon step down as they grow, and the talon is fanned out when drawing three
+        return new Rectangle(x, TOP_ROW_Y, CardView.CARD_WIDTH + 4 + (pile == GameEngine.PILE_TALON ? 2 * CARD_OFFSET_X : 0), CardView.CARD_HEIGHT + 4);
+    }
+
+    @Override protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+
+        // The outline of the cards being dragged is drawn over the cards, which stay within their pile
+        boolean isOutline = OptionsSnapshot.current().outlineDragging;
+        int hiddenPile = _isDragging && !isOutline ? _pressedPile : BoardPosition.NONE;
+
+        // Each pile is drawn from its image, only the piles that were invalidated are painted again
+        for(int pile = 0; pile < GameEngine.PILE_COUNT; ++pile) {
+            Rectangle bounds = getPileBounds(pile);
+            if(graphics.hitClip(bounds.x, bounds.y, bounds.width, bounds.height)) {
+                int count = pile == hiddenPile ? _pressedIndex : getCardCount(pile);
+                int currentPile = pile;
+                _pileImages.paint(graphics, pile, bounds, getBackground(), getGraphicsConfiguration(), pileGraphics -> paintPile(pileGraphics, currentPile, count, isOutline));
+            }
+        }
+
+        if(!_isDragging) {
+            return;
+        }
+
+        // The cards being dragged are drawn above every pile
+        int offsetX = _dragBounds.x - getCardBounds(_pressedPile, _pressedIndex).x;
+        int offsetY = _dragBounds.y - getCardBounds(_pressedPile, _pressedIndex).y;
+        for(int index = _pressedIndex; index < getCardCount(_pressedPile); ++index) {
+            Rectangle bounds = getCardBounds(_pressedPile, index);
+            if(isOutline) {
+                _outlineBorder.paintBorder(this, graphics, bounds.x + offsetX, bounds.y + offsetY, bounds.width, bounds.height);
+                graphics.setPaintMode();
+            }
+            else {
+                paintCard(graphics, getCard(_pressedPile, index), false, bounds.x + offsetX, bounds.y + offsetY, false, false);
+            }
+        }
+    }
+
+    /**
+     * Paints the stock, which shows the backsides stepped by how many cards it holds or the sign that the talon can be
+     * recycled
+     *
+     * @param graphics The graphics context
+     */
+    private void paintStock(Graphics graphics) {
+        int count = 0;
+        for(int[] hand : _position.isRecycled ? _position.waste : _position.stock) {
+            count += hand.length;
+        }
+
+        int x = getColumnX(0);
+        if(count == 0) {
+            DataLookup.MISC sign = _engine.isTalonEnded() ? DataLookup.MISC.TALON_END : DataLookup.MISC.TALON_RESTART;
+            Image image = AbstractFactory.getFactory(DataFactory.class).getDataEntity(sign.identifier);
+            graphics.drawImage(image, x, TOP_ROW_Y, null);
+            return;
+        }
+
+        int steps = 1 + (count > 10 ? 1 : 0) + (count > 20 ? 1 : 0);
+        for(int step = 0; step < steps; ++step) {
+            paintCard(graphics, BoardPosition.NONE, true, x + 2 * step, TOP_ROW_Y + step, false, false);
+        }
+    }
+
+    /**
+     * Paints the specified pile
+     *
+     * @param graphics The graphics context
+     * @param pile The pile
+     * @param count The number of cards to paint from the bottom of the pile
+     * @param isOutline TRUE if outline dragging is enabled, FALSE otherwise
+     */
+    private void paintPile(Graphics graphics, int pile, int count, boolean isOutline) {
+        if(pile == GameEngine.PILE_STOCK) {
+            paintStock(graphics);
+            return;
+        }
+
+        boolean isHighlighted = pile == _collision;
+        if(count == 0) {
+            if(pile >= GameEngine.PILE_FOUNDATION && pile < GameEngine.PILE_TABLEAU) {
+                Rectangle bounds = getCardBounds(pile, 0);
+                if(isHighlighted && isOutline) {
+                    graphics.setXORMode(Color.WHITE);
+                }
+                graphics.drawImage(AbstractFactory.getFactory(DataFactory.class).getDataEntity(DataLookup.MISC.FOUNDATION.identifier), bounds.x, bounds.y, null);
+                graphics.setPaintMode();
+            }
+            else if(isHighlighted && isOutline) {
+                Rectangle bounds = getCardBounds(pile, 0);
+                graphics.setXORMode(Color.WHITE);
+                graphics.setColor(Color.BLACK);
+                graphics.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+                graphics.setPaintMode();
+            }
+            return;
+        }
+
+        int hidden = pile >= GameEngine.PILE_TABLEAU ? _position.tableauHidden[pile - GameEngine.PILE_TABLEAU] : 0;
+        for(int index = 0; index < count; ++index) {
+            Rectangle bounds = getCardBounds(pile, index);
+            paintCard(graphics, getCard(pile, index), index < hidden, bounds.x, bounds.y, isHighlighted && index == getCardCount(pile) - 1, isOutline);
+        }
+    }
+
+    /**
+     * Paints a card from the images converted for the display, see {@link CardImageCache}
+     *
+     * @param graphics The graphics context
+     * @param card The code of the card
+     * @param isBackside TRUE if the backside of the card is showing, FALSE otherwise
+     * @param x The x-coordinate of the card
+     * @param y The y-coordinate of the card
+     * @param isHighlighted TRUE if the card is highlighted as the card that the cards being dragged would be dropped onto
+     * @param isOutline TRUE if outline dragging is enabled, FALSE otherwise
+     */
+    private void paintCard(Graphics graphics, int card, boolean isBackside, int x, int y, boolean isHighlighted, boolean isOutline) {
+        CardModel cardModel = isBackside ? _backside : _cards[card];
+        Image image = CardImageCache.getInstance().getImage(cardModel, getGraphicsConfiguration());
+        if(image == null) {
+            image = cardModel.getRenderableContent();
+        }
+
+        // A highlighted card is inverted when outline dragging, otherwise it is drawn opaque like the card views are
+        if(isHighlighted) {
+            if(isOutline) {
+                graphics.setXORMode(Color.WHITE);
+            }
+            else {
+                graphics.setColor(Color.BLACK);
+                graphics.fillRect(x, y, CardView.CARD_WIDTH, CardView.CARD_HEIGHT);
+            }
+        }
+        graphics.drawImage(image, x, y, CardView.CARD_WIDTH, CardView.CARD_HEIGHT, null);
+        graphics.setPaintMode();
+    }
+}
@@ -0,0 +1,158 @@
+package game.views;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The index of the piles of the game by position, used to resolve the pile that cards are dropped onto.
+ *
+ * The game is laid out as a grid of columns, with the talon and the foundations in the top row and the tableau in the
+ * bottom row. The index maps every x-coordinate of the game view to its nearest column, and splits the rows at the top of
+ * the tableau, so the pile under a position is found with two array lookups instead of testing every pile. The index is
+ * rebuilt the first time that it is used after any pile was moved or resized
+ */
+public final class BoardIndex {
+
+    /**
+     * The context of the game that this index is for
+     */
+    private final GameContext _context;
+
+    /**
+     * The column of every x-coordinate of the game view
+     */
+    private int[] _columns = new int[0];
+
+    /**
+     * The pile of the top row for every column, or null if the column has no pile that cards can be dropped onto
+     */
+    private AbstractPileView[] _topPiles = new AbstractPileView[0];
+
+    /**
+     * The pile of the bottom row for every column
+     */
+    private AbstractPileView[] _bottomPiles = new AbstractPileView[0];
+
+    /**
+     * The y-coordinate where the bottom row starts
+     */
+    private int _bottomRowY;
+
+    /**
+     * This flag indicates if the index must be rebuilt before it is used
+     */
+    private boolean _isInvalid = true;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param context The context of the game
+     */
+    BoardIndex(GameContext context) {
+        _context = context;
+
+        ComponentAdapter layoutListener = new ComponentAdapter() {
+            @Override public void componentMoved(ComponentEvent event) {
+                _isInvalid = true;
+            }
+            @Override public void componentResized(ComponentEvent event) {
+                _isInvalid = true;
+            }
+        };
+        context.getGameView().addComponentListener(layoutListener);
+        for(AbstractPileView pileView : getPiles()) {
+            pileView.addComponentListener(layoutListener);
+        }
+    }
+
+    /**
+     * Gets the pile that cards at the specified bounds would be dropped onto, which is the pile under the center of the
+     * top-most card
+     *
+     * @param bounds The bounds of the cards, within the game view
+     *
+     * @return The pile, or null if there is no pile that cards can be dropped onto at that position
+     */
+    public AbstractPileView getPile(Rectangle bounds) {
+        if(_isInvalid) {
+            rebuild();
+        }
+        if(_columns.length == 0) {
+            return null;
+        }
+
+        int x = bounds.x + CardView.CARD_WIDTH / 2;
+        int y = bounds.y + CardView.CARD_HEIGHT / 2;
+        int column = _columns[Math.max(0, Math.min(_columns.length - 1, x))];
+        return y < _bottomRowY ? _topPiles[column] : _bottomPiles[column];
+    }
+
+    /**
+     * Rebuilds this index from the current bounds of the piles
+     */
+    private void rebuild() {
+        _isInvalid = false;
+
+        List<TableauPileView> tableauViews = _context.getTableauViews();
+        int width = _context.getGameView().getWidth();
+        if(tableauViews.isEmpty() || width <= 0) {
+            _columns = new int[0];
+            return;
+        }
+
+        // Every x-coordinate belongs to its nearest column, the space between two columns is split in half
+        _columns = new int[width];
+        _bottomPiles = tableauViews.toArray(new AbstractPileView[tableauViews.size()]);
+        for(int x = 0, column = 0; x < width; ++x) {
+            while(column + 1 < _bottomPiles.length && x >= getCenterX(_bottomPiles[column]) + (getCenterX(_bottomPiles[column + 1]) - getCenterX(_bottomPiles[column])) / 2) {
+                ++column;
+            }
+            _columns[x] = column;
+        }
+
+        // The piles of the top row are aligned to the columns of the tableau
+        _topPiles = new AbstractPileView[_bottomPiles.length];
+        List<AbstractPileView> topPiles = new ArrayList<AbstractPileView>(_context.getFoundationViews());
+        topPiles.add(_context.getTalonView());
+        for(AbstractPileView pileView : topPiles) {
+            if(pileView == null) {
+                continue;
+            }
+            int x = getCenterX(pileView);
+            if(x >= 0 && x < width) {
+                _topPiles[_columns[x]] = pileView;
+            }
+        }
+
+        _bottomRowY = Integer.MAX_VALUE;
+        for(AbstractPileView pileView : _bottomPiles) {
+            _bottomRowY = Math.min(_bottomRowY, pileView.getY());
+        }
+    }
+
+    /**
+     * @return The piles that cards can be dropped onto, or taken from
+     */
+    private List<AbstractPileView> getPiles() {
+        List<AbstractPileView> piles = new ArrayList<AbstractPileView>();
+        if(_context.getTalonView() != null) {
+            piles.add(_context.getTalonView());
+        }
+        piles.addAll(_context.getFoundationViews());
+        piles.addAll(_context.getTableauViews());
+        return piles;
+    }
+
+    /**
+     * @param component The component
+     *
+     * @return The x-coordinate of the center of the specified component
+     */
+    private static int getCenterX(Component component) {
+        return component.getX() + component.getWidth() / 2;
+    }
+}
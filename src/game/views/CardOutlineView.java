@@ -16,18 +16,17 @@ import javax.swing.JLayeredPane;
 import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 
-import framework.core.factories.AbstractFactory;
-import framework.core.factories.ControllerFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
 import framework.core.mvc.view.layout.DragListener;
-import framework.core.physics.CollisionListener;
 import framework.core.physics.ICollidable;
 import framework.utils.MouseListenerEvent;
 import framework.utils.MouseListenerEvent.SupportedActions;
 
-import game.controllers.MovementRecorderController;
+import game.controllers.CardController;
 import game.views.components.ExclusiveLineBorder;
+import game.views.helpers.CardDragHelper;
+import game.views.helpers.DamageTracker;
+import game.views.helpers.DragEventCoalescer;
 
 /**
  * This view represents the outline of a normal card view
@@ -50,8 +49,6 @@ public final class CardOutlineView extends PanelView {
      */
     private class CardDragEvents extends MouseMotionAdapter {
         
-        private PanelView _collidedView = null;
-        
         @Override public void mouseDragged(MouseEvent event) {
             
             if(!isEnabled()) {
@@ -63,36 +60,8 @@ public final class CardOutlineView extends PanelView {
             	return;
             }
             
-            ICollidable collider = _collisionListener.getCollision();
-            if(collider != null) {
-                
-                // Determine what the collision was with. Either it was with a card, or
-                // it is with the Foundation or an empty PileView
-                PanelView collidedView = (PanelView)collider;
-                
-                if(collidedView instanceof AbstractPileView) {
-                    CardView card = ((AbstractPileView)collidedView).getLastCard();
-                    if(card != null) {
-                        collidedView = card;
-                    }    
-                }
-                
-                // If there was something that was already collided with
-                // then remove the highlight
-                if(_collidedView != null) {
-                    _collidedView.setIsHighlighted(false);
-                }
-
-                // Set the newly collided view
-                _collidedView = collidedView;
-                _collidedView.setIsHighlighted(true);
-            }
-            else {
-                if(_collidedView != null) {
-                    _collidedView.setIsHighlighted(false);
-                }
-                _collidedView = null;
-            }
+            // The collision is resolved once per frame from wherever the outline is by then
+            DragEventCoalescer.getInstance().post(event.getPoint(), point -> updateCollision());
         }
     }
 
@@ -181,12 +150,12 @@ public final class CardOutlineView extends PanelView {
                         
                         // Get a reference to the game view and status view, and add the card into the proper
                         // z-order so that it appears underneath the status bar, but over everything else in the game
-                        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
-                        GameView gameView = viewFactory.get(GameView.class);
-                        StatusBarView statusBarView = viewFactory.get(StatusBarView.class);
+                        GameContext context = GameContext.current();
+                        GameView gameView = context.getGameView();
+                        StatusBarView statusBarView = context.getStatusBarView();
 
                         gameView.add(CardOutlineView.this, gameView.getComponentZOrder(statusBarView) + 1);
-                        gameView.repaint();
+                        DamageTracker.getInstance().addDamage(CardOutlineView.this);
 
                         // Do not continue iterating, the card was found so there is nothing left to do
                         break;
@@ -206,19 +175,22 @@ public final class CardOutlineView extends PanelView {
                 return;
             }
             
-            ICollidable collider = _collisionListener.getCollision();
+            // Resolve the collision from where the mouse was released, then stop colliding with it
+            DragEventCoalescer.getInstance().flush();
+            AbstractPileView collider = _collision;
+            setCollision(null);
             _bounds = null;
             
             if(collider != null) {
             
                 // Get a reference to the pile view that has has been collided with
-                AbstractPileView pileViewCollider = (AbstractPileView) collider;
+                AbstractPileView pileViewCollider = collider;
                 
                 // Get the before movement type to know where the move is coming from
                 AbstractPileView fromPileView = (AbstractPileView) _cardView.getParent().getParent();
 
                 // Record that the movement occurred
-                AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).recordMovement(fromPileView, pileViewCollider);
+                GameContext.current().getRecorder().recordMovement(fromPileView, pileViewCollider, _cardView.getViewProperties().getEntity(CardController.class).getCard());
                 
                 // Unselect all the cards within this pile view to remove the outline xor'd highlight
                 pileViewCollider.removeHighlight();
@@ -226,8 +198,9 @@ public final class CardOutlineView extends PanelView {
                 // Repaint the pile view
                 pileViewCollider.repaint();
 
-                // Add this card to the new location
+                // Add this card to the new location, repainting the region that it leaves within its previous pile
                 int initialSize = pileViewCollider.layeredPane.getComponents().length;
+                DamageTracker.getInstance().addDamage(_cardView.getParent(), _cardView.getBounds());
                 pileViewCollider.layeredPane.add(_cardView);
                 pileViewCollider.layeredPane.setLayer(_cardView, initialSize);
                 Point offset = pileViewCollider.getCardOffset(_cardView);
@@ -242,6 +215,7 @@ public final class CardOutlineView extends PanelView {
                 Collections.reverse(layeredComponents);
                 for(int i = 0; i < layeredComponents.size(); ++i) {
                     CardOutlineView outline = (CardOutlineView) layeredComponents.get(i);
+                    DamageTracker.getInstance().addDamage(outline._cardView.getParent(), outline._cardView.getBounds());
                     pileViewCollider.layeredPane.add(outline._cardView);
                     pileViewCollider.layeredPane.setLayer(outline._cardView, initialSize + i);
                     outline._cardView.add(outline);
@@ -263,23 +237,19 @@ public final class CardOutlineView extends PanelView {
                 }
             }
 
+            // Repaint the region that the outline was dragged to before it leaves the game view
+            DamageTracker.getInstance().addDamage(CardOutlineView.this);
+
             // Add the this outline back to it's underlying card view
             CardOutlineView.this.setBorder(null);
             _cardView.add(CardOutlineView.this);
 
-            // Repaint the components involved
-            ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
-            GameView gameView = viewFactory.get(GameView.class);
-            gameView.repaint();
-
-            _cardView.getParent().repaint();
+            // Repaint the pile that the card is within
+            DamageTracker.getInstance().addDamage(_cardView.getParent());
             
             // Set the drag listener to be enabled. This is because it could have been disabled from other workflows, however if 
             // the code got this far it should be re-enabled
             _dragListener.setEnabled(true);
-            
-            // See if the board is in a winning state
-            GameView.scanGameForWin();
         }
     }
     
@@ -294,9 +264,14 @@ public final class CardOutlineView extends PanelView {
     private final DragListener _dragListener = new DragListener(SupportedActions.LEFT);
 
     /**
-     * The collision listener associated to this view
+     * The pile that this outline collides with, or null if there is none
+     */
+    private AbstractPileView _collision;
+    
+    /**
+     * The view highlighted for the collision, either the last card of the pile or the pile itself when it is empty
      */
-    private final CollisionListener _collisionListener = new CollisionListener(this, SupportedActions.LEFT);
+    private PanelView _collidedView;
     
     /**
      * The card view associated to this outline
@@ -322,9 +297,6 @@ public final class CardOutlineView extends PanelView {
         addMouseListener(_dragListener);
         addMouseMotionListener(_dragListener);
         
-        addMouseListener(_collisionListener);
-        addMouseMotionListener(_collisionListener);
-        
         addMouseListener(new CardSelectionEvents());
         addMouseMotionListener(new CardDragEvents());
         
@@ -335,7 +307,7 @@ public final class CardOutlineView extends PanelView {
         addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
                 if(!SwingUtilities.isRightMouseButton(event)) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                    GameContext.current().getTimerView().startGameTimer();
                     removeMouseListener(this);
                 }
             }
@@ -383,7 +355,71 @@ public final class CardOutlineView extends PanelView {
         }
         
         _dragListener.setEnabled(enabled);
-        _collisionListener.setEnabled(enabled);
+    }
+
+    /**
+     * @return The card view associated to this outline
+     */
+    public CardView getCardView() {
+        return _cardView;
+    }
+    
+    /**
+     * Resolves the pile that this outline collides with where it currently is, and highlights it
+     */
+    private void updateCollision() {
+        GameContext context = GameContext.current();
+        if(context == null || getParent() != context.getGameView()) {
+            return;
+        }
+        
+        setCollision(CardDragHelper.findCollision(this, getBounds(), (AbstractPileView)_cardView.getParentIView()));
+        
+        if(_collision != null) {
+            
+            // Determine what the collision was with. Either it was with a card, or
+            // it is with the Foundation or an empty PileView
+            PanelView collidedView = _collision;
+            CardView card = _collision.getLastCard();
+            if(card != null) {
+                collidedView = card;
+            }
+            
+            // If there was something that was already collided with
+            // then remove the highlight
+            if(_collidedView != null) {
+                _collidedView.setIsHighlighted(false);
+            }
+
+            // Set the newly collided view
+            _collidedView = collidedView;
+            _collidedView.setIsHighlighted(true);
+        }
+        else {
+            if(_collidedView != null) {
+                _collidedView.setIsHighlighted(false);
+            }
+            _collidedView = null;
+        }
+    }
+    
+    /**
+     * Sets the pile that this outline collides with, notifying the previous pile and the new pile
+     * 
+     * @param collision The pile, or null if there is none
+     */
+    private void setCollision(AbstractPileView collision) {
+        if(collision == _collision) {
+            return;
+        }
+        
+        if(_collision != null) {
+            ((ICollidable)_collision).onCollisionStop(this);
+        }
+        _collision = collision;
+        if(_collision != null) {
+            ((ICollidable)_collision).onCollisionStart(this);
+        }
     }
     
     @Override public void setBounds(int x, int y, int width, int height) {
@@ -4,15 +4,12 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Image;
 import java.awt.Point;
-import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.logging.Level;
 
 import javax.swing.BoxLayout;
 import javax.swing.JLayeredPane;
@@ -21,23 +18,18 @@ import javax.swing.SwingUtilities;
 import framework.api.IView;
 import framework.communication.internal.signal.ISignalReceiver;
 import framework.communication.internal.signal.arguments.EventArgs;
-import framework.core.factories.AbstractFactory;
-import framework.core.factories.ControllerFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.graphics.IRenderable;
 import framework.core.mvc.view.PanelView;
-import framework.core.mvc.view.layout.DragListener;
-import framework.core.physics.CollisionListener;
 import framework.core.physics.ICollidable;
 import framework.utils.MouseListenerEvent;
 import framework.utils.MouseListenerEvent.SupportedActions;
-import framework.utils.logging.Tracelog;
 
-import game.config.OptionsPreferences;
 import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsSnapshot;
 import game.controllers.CardController;
-import game.controllers.MovementRecorderController;
 import game.models.CardModel;
+import game.views.helpers.CardDragHelper;
+import game.views.helpers.CardImageCache;
 import game.views.helpers.ViewHelper;
 
 /**
@@ -49,7 +41,7 @@ import game.views.helpers.ViewHelper;
 public final class CardView extends PanelView implements ICollidable {
 
     /**
-     * The card selection events for this outline view
+     * The card selection events for this card view, dragging the card along with the cards above it
      * 
      * @author Daniel Ricci {@literal <thedanny09@icloud.com>}
      *
@@ -57,14 +49,14 @@ public final class CardView extends PanelView implements ICollidable {
     private final class CardSelectionEvents extends MouseListenerEvent {
         
         /**
-         * The parent layer pane
+         * The position that the card was pressed at, within the game view
          */
-        private JLayeredPane _parentLayeredPane;
+        private Point _pressedPoint;
         
         /**
-         * The parent panel view
+         * This flag indicates if the drag of the card was stopped until the mouse is pressed again
          */
-        private IView _parentPanelView;
+        private boolean _isDragStopped;
         
         /**
          * Constructs a new instance of this class type
@@ -73,8 +65,20 @@ public final class CardView extends PanelView implements ICollidable {
             super(SupportedActions.LEFT);
         }
         
+        /**
+         * Stops the current drag of the card, the card is not dragged until the mouse is pressed again
+         */
+        public void stopDragEvent() {
+            _isDragStopped = true;
+            if(CardDragHelper.getInstance().getCardView() == CardView.this) {
+                CardDragHelper.getInstance().cancel();
+            }
+        }
+        
         @Override public void mousePressed(MouseEvent event) {
             super.mousePressed(event);
+            _isDragStopped = false;
+            _pressedPoint = null;
             if(getIsConsumed() && event.isConsumed()) {
                 return;
             }
@@ -83,107 +87,41 @@ public final class CardView extends PanelView implements ICollidable {
                 return;
             }
             
-            // Get the parent of this card view, used as a reference to go back to whatever we were coming from
-            _parentLayeredPane = (JLayeredPane) CardView.this.getParent();
-            
-            // Get the parent IView w.r.t this card view, this is used to make sure that we are not trying to collide with ourselves
-            _parentPanelView = CardView.this.getParentIView();
-
-            // Get the list of components that the parent owns
-            Component[] components =_parentLayeredPane.getComponents();
-
-            // Find the card that is being dragged and take all the siblings below it and populate them into the
-            // layered pane composed by the CardView.this reference
-            mainLabel : for(int i = components.length - 1; i >= 0; --i) {
-
-                if(components[i].equals(CardView.this)) {
-
-                    // Get the siblings of cards within the components list (excluding CardView.this)
-                    List<CardView> cardViews = Arrays.asList(Arrays.copyOfRange(components, 0, i, CardView[].class));
-
-                    // Reverse the list because layered panes associate objects closer to layer 0 as being closer to the screen.
-                    Collections.reverse(cardViews);
-
-                    // Fixes a bug where the layered pane is chopped from the waist down
-                    CardView.this.layeredPane.setSize(layeredPane.getWidth(), layeredPane.getHeight() + (cardViews.size() * 15));
-                    
-                    // For each sibling add it into the associated layered pane and position it correctly within
-                    // the pane, accounting for the fact that CardView.this is the temporary 'root'
-                    for(int j = 0; j < cardViews.size(); ++j) {
-                        layeredPane.add(cardViews.get(j));
-                        layeredPane.setLayer(cardViews.get(j), j);
-                        
-                        // Account for the border offsets of -1 for left and bottom
-                        cardViews.get(j).setBounds(new Rectangle(0, (15 * (j + 1)), cardViews.get(j).getPreferredSize().width, cardViews.get(j).getPreferredSize().height));
-                        _parentLayeredPane.remove(cardViews.get(j));
-                    }
-
-                    // Position the card at the same place where the drag was attempted from, because when you
-                    // add to the application it will position the component at the origin which is not desired
-                    Point initialLocation = CardView.this.getLocation();
-                    
-                    // Note: Add +2 to the width and height because of the initial border size offset
-                    Rectangle rectangle = new Rectangle(_parentLayeredPane.getParent().getLocation().x + initialLocation.x, _parentLayeredPane.getParent().getLocation().y + initialLocation.y, layeredPane.getWidth(), layeredPane.getHeight());
-                    CardView.this.setBounds(rectangle);
-
-                    // Remove the card view reference from it's initial parent
-                    _parentLayeredPane.remove(CardView.this);
-                    
-                    // Get a reference to the game view and status view, and add the card into the proper
-                    // z-order so that it appears underneath the status bar, but over everything else in the game
-                    ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
-                    GameView gameView = viewFactory.get(GameView.class);
-                    StatusBarView statusBarView = viewFactory.get(StatusBarView.class);
-
-                    gameView.add(CardView.this, gameView.getComponentZOrder(statusBarView) + 1);
-                    gameView.repaint();
-
-                    break mainLabel;
-                }
-            }
+            // The drag only starts once the mouse moves, so that clicking on a card leaves it where it is
+            _pressedPoint = SwingUtilities.convertPoint(CardView.this, event.getPoint(), GameContext.current().getGameView());
         }
-
-        @Override public void mouseReleased(MouseEvent event) {
-            
-            super.mouseReleased(event);
+        
+        @Override public void mouseDragged(MouseEvent event) {
+            super.mouseDragged(event);
             if(getIsConsumed() && event.isConsumed()) {
                 return;
             }
             
-            if(!isEnabled()) {
+            if(!isEnabled() || _isDragStopped || _pressedPoint == null) {
                 return;
             }
             
-            if(_parentLayeredPane == null) {
-                _parentPanelView = null;
+            CardDragHelper dragHelper = CardDragHelper.getInstance();
+            if(dragHelper.getCardView() != CardView.this && !dragHelper.start(CardView.this, _pressedPoint)) {
+                _pressedPoint = null;
                 return;
             }
             
-            // If there is a valid collider, set that as the new parent
-            if(_collisionListener.getCollision() != null) {
-                AbstractPileView pileView = (AbstractPileView) _collisionListener.getCollision();
-                
-                // Do not go further if what we have collided with is where we were already, that is not considered a valid collision.
-                // Note: Should this go inside of the drag listener?
-                if(!pileView.equals(_parentPanelView)) { 
-                    // Get the before movement type to know where the move is coming from
-                    Optional<Component> layeredPane = Arrays.asList(pileView.getComponents()).stream().filter(z -> z.getClass() == JLayeredPane.class).findFirst();
-                    if(layeredPane.isPresent()) {
-                        AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).recordMovement((IUndoable)_parentLayeredPane.getParent(), pileView);                  
-                        _parentLayeredPane = (JLayeredPane) layeredPane.get();
-                    }
-                    else {
-                        Tracelog.log(Level.SEVERE, true, "Could not find JLayeredPane within the CardView mouseReleased event...");
-                        return;
-                    }
-                }
+            dragHelper.drag(SwingUtilities.convertPoint(CardView.this, event.getPoint(), GameContext.current().getGameView()));
+        }
+
+        @Override public void mouseReleased(MouseEvent event) {
+            
+            super.mouseReleased(event);
+            _pressedPoint = null;
+            if(getIsConsumed() && event.isConsumed()) {
+                return;
             }
             
-            // Get the offset that was set, and use this within our calculations
-            AbstractPileView parent = (AbstractPileView) _parentLayeredPane.getParent();
-            parent.addCard(CardView.this);
-            _parentLayeredPane = null;
-            _parentPanelView = null;
+            // Drop the cards onto the pile that they collide with, if any
+            if(CardDragHelper.getInstance().getCardView() == CardView.this) {
+                CardDragHelper.getInstance().drop();
+            }
         }
     }
     
@@ -227,16 +165,6 @@ public final class CardView extends PanelView implements ICollidable {
      */
     private CardController _controller;
 
-    /**
-     * The draggable listener associated to this view
-     */
-    private final DragListener _dragListener = new DragListener(SupportedActions.LEFT);
-
-    /**
-     * The collision listener associated to this view
-     */
-    private final CollisionListener _collisionListener = new CollisionListener(this, SupportedActions.LEFT);
-
     /**
      * The layered pane that holds the potential list of cards that would be dragged along-side this card vuew
      */
@@ -288,11 +216,10 @@ public final class CardView extends PanelView implements ICollidable {
         _cardOutline = new CardOutlineView(this);
         _cardOutline.render();
         
-        addMouseListener(_dragListener);
-        addMouseMotionListener(_dragListener);
-        
-        addMouseListener(_collisionListener);
-        addMouseMotionListener(_collisionListener);
+        // Register this view to handle the events raised by the card selection events. This is done first so that a
+        // successful double click below can stop the drag that the press would otherwise start
+        addMouseListener(_cardSelectionEvents);
+        addMouseMotionListener(_cardSelectionEvents);
         
         // Add the mouse listener responsible for handling single clicks and double clicks on this card.
         // Note: This will sometimes not be called depending on if the outline is enabled or not, since the 
@@ -306,7 +233,7 @@ public final class CardView extends PanelView implements ICollidable {
         addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
                 if(!SwingUtilities.isRightMouseButton(event)) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                    GameContext.current().getTimerView().startGameTimer();
                     removeMouseListener(this);
                 }
             }
@@ -316,10 +243,6 @@ public final class CardView extends PanelView implements ICollidable {
         ViewHelper.registerForCardsAutocomplete(this);
         ViewHelper.registerForCardsAutocomplete(_cardOutline);
         
-        // Register this view to handle the events raised by the card selection events
-        addMouseListener(_cardSelectionEvents);
-        addMouseMotionListener(_cardSelectionEvents);
-        
         // Listen in on events when we need to synchronize withthe online option
         addSignal(EVENT_OUTLINE_SYNCHRONIZE, new ISignalReceiver<EventArgs>() {
             @Override public void signalReceived(EventArgs event) {
@@ -327,12 +250,8 @@ public final class CardView extends PanelView implements ICollidable {
 
                 // When playing in draw three, make sure that cards that are not top-most are not enabled. This
                 // needs to be done after the synchronize.
-                OptionsPreferences optionsPreferences = new OptionsPreferences();
-                optionsPreferences.load();
-                if(optionsPreferences.drawOption == DrawOption.THREE && CardView.this.getParentIView().getClass() == TalonPileView.class) {
+                if(CardView.this.getParentIView() instanceof TalonPileView && ((TalonPileView)CardView.this.getParentIView()).getDrawOption() == DrawOption.THREE) {
                     if(((JLayeredPane)getParent()).getPosition(CardView.this) > 0) {
-                        _dragListener.setEnabled(false);
-                        _collisionListener.setEnabled(false);
                         _cardSelectionEvents.setEnabled(false);
                     }
                 }
@@ -353,16 +272,9 @@ public final class CardView extends PanelView implements ICollidable {
      */
     private void synchronizeWithOptions() {
         // Verify if the option for highlighting is enabled or not
-        OptionsPreferences optionsPreferences = new OptionsPreferences();
-        optionsPreferences.load();
+        OptionsSnapshot optionsPreferences = OptionsSnapshot.current();
         _highlightsEnabled = optionsPreferences.outlineDragging;
 
-        // If the card has its backside shown or the outline option is enabled
-        // then do not allow dragging or collision to work as normal
-        boolean isAvailable = !_controller.getCard().getIsBackside() && !optionsPreferences.outlineDragging;
-        _dragListener.setEnabled(isAvailable);
-        _collisionListener.setEnabled(isAvailable);
-        
         // If the backside is not being shown, then add the event handler for card drag event
         // Note: In the event that the options preferences calls for outline mode, the entire
         //       operation of performing a click-down, click-up, should be done by outline and
@@ -387,6 +299,27 @@ public final class CardView extends PanelView implements ICollidable {
     public CardOutlineView getOutlineView() {
         return _cardOutline;
     }
+
+    /**
+     * Gets if there are cards above this card within its tableau pile. The cards above a card being dragged are only
+     * hidden, so they are counted as well
+     *
+     * @return TRUE if there are cards above this card, FALSE otherwise
+     */
+    public boolean hasCardsAbove() {
+        if(!(getParent() instanceof JLayeredPane) || !(getParentIView() instanceof TableauPileView)) {
+            return false;
+        }
+
+        // The cards closer to the screen come first within a layered pane
+        JLayeredPane parentLayeredPane = (JLayeredPane) getParent();
+        for(int i = parentLayeredPane.getIndexOf(this) - 1; i >= 0; --i) {
+            if(parentLayeredPane.getComponent(i) instanceof CardView) {
+                return true;
+            }
+        }
+        return false;
+    }
     
     /**
      * Attempts to uncover the backside of this view
@@ -398,18 +331,20 @@ public final class CardView extends PanelView implements ICollidable {
             _controller.getCard().setBackside(false);
             _controller.getCard().refresh();
             
+            // Only the tableau holds cards whose backside can be uncovered while the game is being played
+            if(getParentIView() instanceof TableauPileView) {
+                GameContext.current().onCardUncovered();
+            }
+            
             // Record the movement
             if(!forceBackside) {
-                AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).recordMovement((IUndoable)CardView.this.getParentIView(), null);
+                GameContext.current().getRecorder().recordMovement((IUndoable)CardView.this.getParentIView(), null, _controller.getCard());
             }
 
             // Only allow this card view to have dragging and collision working `vanilla`
             // style if the outline option is not selected
-            OptionsPreferences preferences = new OptionsPreferences();
-            preferences.load();
+            OptionsSnapshot preferences = OptionsSnapshot.current();
             if(!preferences.outlineDragging) {
-                _dragListener.setEnabled(true);
-                _collisionListener.setEnabled(true);
                 _cardSelectionEvents.setEnabled(true);
             }
             
@@ -448,16 +383,18 @@ public final class CardView extends PanelView implements ICollidable {
     public boolean performCardAutoMovement(boolean forcefully) {
         if(!_controller.getCard().getIsBackside() && !(getParentIView() instanceof FoundationPileView)) {
             
-            // Make sure that we are not double clicking on an ACE. That doesn't make much sense here in this case
-            if(AbstractFactory.getFactory(ViewFactory.class).getAll(FoundationPileView.class).stream().anyMatch(z -> z.layeredPane.getComponentCount() == 1 && z.layeredPane.getComponents()[0] == CardView.this)) {
-                return false;
-            }
+            GameContext context = GameContext.current();
             
-            // Get the list of foundation views. 
-            List<FoundationPileView> foundationViews = AbstractFactory.getFactory(ViewFactory.class).getAll(FoundationPileView.class);
+            // Get the list of foundation views, ordered from left to right so that the card populates the left-most
+            // foundation view, this just looks a lot better
+            List<FoundationPileView> foundationViews = context.getFoundationViews();
             
-            // Reverse the list, so that the card populating the left-most foundation view, this just looks a lot better
-            Collections.reverse(foundationViews);
+            // Make sure that we are not double clicking on an ACE. That doesn't make much sense here in this case
+            for(FoundationPileView foundationView : foundationViews) {
+                if(foundationView.getCardCount() == 1 && foundationView.getLastCard() == CardView.this) {
+                    return false;
+                }
+            }
             
             // Go through the list of foundation views and see if there is a match
             for(FoundationPileView foundationView : foundationViews) {
@@ -465,23 +402,15 @@ public final class CardView extends PanelView implements ICollidable {
                     
                     if(!forcefully) {
                         // Record the fact that a movement occurred 
-                        AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).recordMovement((AbstractPileView)CardView.this.getParentIView(), foundationView);
+                        context.getRecorder().recordMovement((AbstractPileView)CardView.this.getParentIView(), foundationView, _controller.getCard());
                     }
                     
-                    // Stop the current drag listener of this card from doing anything, so that things
+                    // Stop the current drag of this card from doing anything, so that things
                     // like drag will stop being processed
-                    _dragListener.stopDragEvent();
+                    _cardSelectionEvents.stopDragEvent();
                     
-                    // Add to the layered pane destination
+                    // Add to the layered pane destination, this records the regions that the card left and entered
                     foundationView.addCard(CardView.this);
-                                        
-                    // Repaint the components
-                    layeredPane.repaint();
-                    foundationView.repaint();
-                   
-                    // Repaint the game view, this will fix a rendering bug where in outline mode, the status bar and
-                    // the tableau view would not render properly. Look at bug #128.
-                    AbstractFactory.getFactory(ViewFactory.class).get(GameView.class).repaint();
                     
                     return true;
                 }
@@ -498,9 +427,6 @@ public final class CardView extends PanelView implements ICollidable {
         if(_cardOutline != null && _cardOutline.isEnabled() != enabled) {
             _cardOutline.setEnabled(enabled);
         }
-
-        _dragListener.setEnabled(enabled);
-        _collisionListener.setEnabled(enabled);
     }
     
     @Override public void preprocessGraphics(IRenderable renderableData, Graphics context) {        
@@ -510,10 +436,22 @@ public final class CardView extends PanelView implements ICollidable {
         }
     }
     
+    @Override public void render(IRenderable renderableData, Graphics context) {
+        // Draw the card from the images converted for the display, see CardImageCache
+        Image image = renderProperties.renderData == null && renderableData instanceof CardModel ? CardImageCache.getInstance().getImage((CardModel)renderableData, getGraphicsConfiguration()) : null;
+        if(image == null) {
+            super.render(renderableData, context);
+            return;
+        }
+        
+        context.setPaintMode();
+        preprocessGraphics(renderableData, context);
+        context.drawImage(image, Math.max(0, renderProperties.x), Math.max(0, renderProperties.y), CARD_WIDTH, CARD_HEIGHT, null);
+    }
+    
     @Override public void removeAll() {
         super.removeAll();
-        _dragListener.setEnabled(false);
-        _collisionListener.setEnabled(false);
+        _cardSelectionEvents.setEnabled(false);
     }
 
     @Override public void render() {
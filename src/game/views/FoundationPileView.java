@@ -5,8 +5,12 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.List;
 
 import javax.swing.SwingUtilities;
 
@@ -19,6 +23,7 @@ import framework.core.physics.ICollidable;
 
 import game.controllers.CardController;
 import game.entities.FoundationCardEntity;
+import game.models.CardModel;
 import game.views.helpers.ViewHelper;
 
 /**
@@ -28,11 +33,31 @@ import game.views.helpers.ViewHelper;
  */
 public final class FoundationPileView extends AbstractPileView implements ICollidable {
 
+    /**
+     * The number of cards held by this foundation
+     */
+    private int _cardCount;
+    
     /**
      * Creates a new instance of this class type
      */
     public FoundationPileView() {
         
+        // Keep a running count of the cards held, whichever way they are added or removed, and report it to the
+        // context of the game so that the game state never has to be scanned for
+        layeredPane.addContainerListener(new ContainerListener() {
+            @Override public void componentAdded(ContainerEvent event) {
+                if(event.getChild() instanceof CardView) {
+                    onCardCountChanged(1);
+                }
+            }
+            @Override public void componentRemoved(ContainerEvent event) {
+                if(event.getChild() instanceof CardView) {
+                    onCardCountChanged(-1);
+                }
+            }
+        });
+        
         // The background the the opaqueness of this view
         // must be set this way to achieve the proper xor effect
         this.setBackground(Color.BLACK);
@@ -43,13 +68,51 @@ public final class FoundationPileView extends AbstractPileView implements IColli
         addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
                 if(!SwingUtilities.isRightMouseButton(event)) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                    GameContext.current().getTimerView().startGameTimer();
                     removeMouseListener(this);
                 }
             }
         });
     }
 
+    /**
+     * Creates a new instance of this class type
+     * 
+     * @param cards The cards to place on this foundation, from the ace upwards
+     */
+    public FoundationPileView(List<CardModel> cards) {
+        this();
+        for(int i = 0; i < cards.size(); ++i) {
+            cards.get(i).setBackside(false);
+            CardView view = AbstractFactory.getFactory(ViewFactory.class).add(new CardView(cards.get(i)));
+            layeredPane.add(view);
+            layeredPane.setLayer(view, i);
+            view.setBounds(new Rectangle(0, 0, view.getPreferredSize().width, view.getPreferredSize().height));
+        }
+    }
+
+    /**
+     * @return The number of cards held by this foundation
+     */
+    public int getCardCount() {
+        return _cardCount;
+    }
+    
+    /**
+     * Updates the number of cards held by this foundation
+     *
+     * @param delta The number of cards added, or removed if negative
+     */
+    private void onCardCountChanged(int delta) {
+        _cardCount += delta;
+        
+        // The context does not exist yet while the foundations of a restored position are being populated
+        GameContext context = GameContext.current();
+        if(context != null) {
+            context.onCardsHomeChanged(delta);
+        }
+    }
+
     @Override public void preprocessGraphics(IRenderable renderableData, Graphics context) {
         super.preprocessGraphics(renderableData, context);
         if(getIsHighlighted() && layeredPane.getComponentCount() == 0) {
@@ -67,6 +130,12 @@ public final class FoundationPileView extends AbstractPileView implements IColli
     }
 
     @Override public boolean isValidCollision(Component source) {
+        // Only a single card can be moved onto a foundation, so a card is refused when the cards above it would follow it
+        CardView sourceCardView = source instanceof CardOutlineView ? ((CardOutlineView) source).getCardView() : source instanceof CardView ? (CardView) source : null;
+        if(sourceCardView != null && sourceCardView.hasCardsAbove()) {
+            return false;
+        }
+
         if (layeredPane.getComponentCount() == 0) {
             return ((IView) source).getViewProperties().getEntity(CardController.class).getCard().getCardEntity().isAceCard();
         } else {
@@ -75,11 +144,6 @@ public final class FoundationPileView extends AbstractPileView implements IColli
         }
     }
 
-    @Override public void addCard(CardView cardView) {
-        super.addCard(cardView);
-        GameView.scanGameForWin();
-    }
-
     @Override protected Point getCardOffset(CardView cardView) {
         return new Point(0, 0);
     }
@@ -0,0 +1,326 @@
+package game.views;
+
+import java.awt.Component;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import game.controllers.MovementRecorderController;
+import game.events.GameEventBus;
+import game.events.IGameEventListener;
+import game.models.BoardPosition;
+
+/**
+ * The context of the game currently being played, holding direct references to every view that takes part in the game.
+ *
+ * The references are resolved once when the game is dealt, so that code that runs on every move, timer tick or animation
+ * frame never has to search the factories for them. The context also keeps running counts of the cards moved to the
+ * foundations and of the cards still face down within the tableau, so that the state of the game is known after every
+ * move without scanning the board
+ */
+public final class GameContext implements IGameEventListener {
+
+    /**
+     * The context of the game currently being played
+     */
+    private static volatile GameContext _current;
+
+    /**
+     * The game view
+     */
+    private final GameView _gameView;
+
+    /**
+     * The stock view
+     */
+    private final StockView _stockView;
+
+    /**
+     * The talon view
+     */
+    private final TalonPileView _talonView;
+
+    /**
+     * The foundation views, ordered from left to right
+     */
+    private final List<FoundationPileView> _foundationViews;
+
+    /**
+     * The tableau views, ordered from left to right
+     */
+    private final List<TableauPileView> _tableauViews;
+
+    /**
+     * The status bar view
+     */
+    private final StatusBarView _statusBarView;
+
+    /**
+     * The score view
+     */
+    private final ScoreView _scoreView;
+
+    /**
+     * The timer view
+     */
+    private final TimerView _timerView;
+
+    /**
+     * The movement recorder
+     */
+    private final MovementRecorderController _recorder;
+
+    /**
+     * The index of the piles by position
+     */
+    private final BoardIndex _boardIndex;
+
+    /**
+     * The number of cards held by the foundations
+     */
+    private int _cardsHome;
+
+    /**
+     * The number of cards within the tableau that are showing their backside
+     */
+    private int _cardsHidden;
+
+    /**
+     * This flag indicates if the game was won
+     */
+    private boolean _isWon;
+
+    /**
+     * This flag indicates if every card left on the board is face up within the tableau
+     */
+    private boolean _isNearWin;
+
+    /**
+     * This flag indicates if every card of the tableau is face up
+     */
+    private boolean _isAllUncovered;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param gameView The game view
+     * @param stockView The stock view
+     * @param talonView The talon view
+     * @param foundationViews The foundation views, ordered from left to right
+     * @param tableauViews The tableau views, ordered from left to right
+     * @param statusBarView The status bar view
+     * @param recorder The movement recorder
+     */
+    GameContext(GameView gameView, StockView stockView, TalonPileView talonView, FoundationPileView[] foundationViews, TableauPileView[] tableauViews, StatusBarView statusBarView, MovementRecorderController recorder) {
+        _gameView = gameView;
+        _stockView = stockView;
+        _talonView = talonView;
+        _foundationViews = Collections.unmodifiableList(Arrays.asList(foundationViews.clone()));
+        _tableauViews = Collections.unmodifiableList(Arrays.asList(tableauViews.clone()));
+        _statusBarView = statusBarView;
+        _scoreView = statusBarView.getScoreView();
+        _timerView = statusBarView.getTimerView();
+        _recorder = recorder;
+        _boardIndex = new BoardIndex(this);
+
+        // Count the cards once, every change afterwards is applied to the counts as it happens
+        for(FoundationPileView foundationView : foundationViews) {
+            _cardsHome += foundationView.getCardCount();
+        }
+        for(TableauPileView tableauView : tableauViews) {
+            for(Component component : tableauView.layeredPane.getComponents()) {
+                if(component instanceof CardView && ((CardView)component).isBacksideShowing()) {
+                    ++_cardsHidden;
+                }
+            }
+        }
+
+        _isWon = _cardsHome == BoardPosition.DECK_SIZE;
+        _isAllUncovered = _cardsHidden == 0;
+        _isNearWin = isNearWinState();
+    }
+
+    /**
+     * @return The context of the game currently being played, or null if no game has been dealt
+     */
+    public static GameContext current() {
+        return _current;
+    }
+
+    /**
+     * Sets the context of the game currently being played
+     *
+     * @param context The context, or null if no game is being played
+     */
+    static void setCurrent(GameContext context) {
+        _current = context;
+    }
+
+    /**
+     * Clears the context of the game currently being played
+     */
+    public static void clear() {
+        _current = null;
+    }
+
+    /**
+     * @return The game view
+     */
+    public GameView getGameView() {
+        return _gameView;
+    }
+
+    /**
+     * @return The stock view
+     */
+    public StockView getStockView() {
+        return _stockView;
+    }
+
+    /**
+     * @return The talon view
+     */
+    public TalonPileView getTalonView() {
+        return _talonView;
+    }
+
+    /**
+     * @return The foundation views, ordered from left to right
+     */
+    public List<FoundationPileView> getFoundationViews() {
+        return _foundationViews;
+    }
+
+    /**
+     * @return The tableau views, ordered from left to right
+     */
+    public List<TableauPileView> getTableauViews() {
+        return _tableauViews;
+    }
+
+    /**
+     * @return The status bar view
+     */
+    public StatusBarView getStatusBarView() {
+        return _statusBarView;
+    }
+
+    /**
+     * @return The score view
+     */
+    public ScoreView getScoreView() {
+        return _scoreView;
+    }
+
+    /**
+     * @return The timer view
+     */
+    public TimerView getTimerView() {
+        return _timerView;
+    }
+
+    /**
+     * @return The movement recorder
+     */
+    public MovementRecorderController getRecorder() {
+        return _recorder;
+    }
+
+    /**
+     * @return The index of the piles by position
+     */
+    public BoardIndex getBoardIndex() {
+        return _boardIndex;
+    }
+
+    /**
+     * @return The number of cards held by the foundations
+     */
+    public int getCardsHome() {
+        return _cardsHome;
+    }
+
+    /**
+     * @return The number of cards within the tableau that are showing their backside
+     */
+    public int getCardsHidden() {
+        return _cardsHidden;
+    }
+
+    /**
+     * @return TRUE if the game was won, FALSE otherwise
+     */
+    public boolean isWon() {
+        return _isWon;
+    }
+
+    /**
+     * @return TRUE if every card left on the board is face up within the tableau, FALSE otherwise
+     */
+    public boolean isNearWin() {
+        return _isNearWin;
+    }
+
+    /**
+     * @return TRUE if every card of the tableau is face up, FALSE otherwise
+     */
+    public boolean isAllUncovered() {
+        return _isAllUncovered;
+    }
+
+    /**
+     * Updates the number of cards held by the foundations
+     *
+     * @param delta The number of cards added, or removed if negative
+     */
+    void onCardsHomeChanged(int delta) {
+        _cardsHome += delta;
+        updateState();
+    }
+
+    /**
+     * Updates the number of cards within the tableau after one of them had its backside uncovered
+     */
+    void onCardUncovered() {
+        --_cardsHidden;
+        updateState();
+    }
+
+    @Override public void onMoveApplied(int from, int to, int card) {
+        updateState();
+    }
+
+    @Override public void onMoveUndone(int from, int to) {
+        updateState();
+    }
+
+    /**
+     * @return TRUE if every card left on the board is face up within the tableau, FALSE otherwise
+     */
+    private boolean isNearWinState() {
+        return !_isWon && _cardsHidden == 0 && _talonView.getCardCount() == 0;
+    }
+
+    /**
+     * Publishes the states that the game has entered since the last update
+     */
+    private void updateState() {
+        // The cards leave the foundations during the win animation, the game remains won regardless
+        if(!_isWon && _cardsHome == BoardPosition.DECK_SIZE) {
+            _isWon = true;
+            GameEventBus.getInstance().postGameWon();
+        }
+
+        if(!_isAllUncovered && _cardsHidden == 0) {
+            _isAllUncovered = true;
+            GameEventBus.getInstance().postAllCardsUncovered();
+        }
+
+        // An undo can bring a card back to the talon, in which case the state can be entered again later on
+        boolean isNearWin = isNearWinState();
+        if(isNearWin && !_isNearWin) {
+            GameEventBus.getInstance().postNearWin();
+        }
+        _isNearWin = isNearWin;
+    }
+}
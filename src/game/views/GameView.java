@@ -2,13 +2,16 @@ package game.views;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import javax.swing.AbstractButton;
 import javax.swing.JOptionPane;
@@ -22,10 +25,23 @@ import framework.core.navigation.MenuBuilder;
 import framework.core.system.Application;
 import framework.utils.globalisation.Localization;
 
-import game.config.OptionsPreferences;
+import game.config.GameJournal;
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+import game.config.OptionsSnapshot;
+import game.config.StatisticsLedger;
+import game.config.StatisticsLedger.GameRecord;
+import game.controllers.CardController;
 import game.controllers.MovementRecorderController;
+import game.events.GameEventBus;
+import game.events.IGameEventListener;
 import game.menu.NewGameMenuItem;
+import game.models.BoardPosition;
 import game.models.CardModel;
+import game.views.helpers.AutoPlayHelper;
+import game.views.helpers.CardDragHelper;
+import game.views.helpers.CardFlightHelper;
+import game.views.helpers.DeadEndHelper;
 import game.views.helpers.ViewHelper;
 import game.views.helpers.WinAnimationHelper;
 
@@ -39,10 +55,29 @@ import resources.LocalizationStrings;
  */
 public final class GameView extends PanelView {
 
+    /**
+     * The seed used to deal the cards of this game
+     */
+    private final long _seed = new Random().nextLong();
+    
+    /**
+     * This flag indicates if the result of this game was written to the statistics ledger
+     */
+    private boolean _isResultRecorded;
+    
     /**
      * Creates a new instance of this class type
      */
     public GameView() {
+        this(null);
+    }
+    
+    /**
+     * Creates a new instance of this class type
+     * 
+     * @param position The position to restore the board to, or null to deal a new game
+     */
+    public GameView(BoardPosition position) {
         this.setLayout(new GridBagLayout());
         this.setBackground(new Color(0, 128, 0));
         
@@ -55,11 +90,27 @@ public final class GameView extends PanelView {
         
         ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
         
-        // Create the total list of cards
-        List<CardModel> cards = CardModel.newInstances();
+        // Create the total list of cards. When restoring a position the cards are created pile by pile instead
+        List<CardModel> cards = position == null ? CardModel.newInstances(_seed) : null;
         
-        // Create the globally available movement controller
-        AbstractFactory.getFactory(ControllerFactory.class).add(new MovementRecorderController(), true);
+        // A restored position is not a dealt game, so it should not count towards the statistics
+        _isResultRecorded = position != null;
+        
+        // Create the globally available movement controller. Only dealt games are journaled, since a restored
+        // position cannot be replayed from its seed
+        GameJournal journal = null;
+        if(position == null) {
+            OptionsSnapshot preferences = OptionsSnapshot.current();
+            journal = new GameJournal(_seed, StatisticsLedger.packOptions(preferences));
+        }
+        MovementRecorderController recorder = AbstractFactory.getFactory(ControllerFactory.class).add(new MovementRecorderController(journal), true);
+        GameEventBus.getInstance().addListener(recorder);
+        
+        // The views of the piles, kept so that the context of this game can reference them directly
+        StockView stockView = null;
+        TalonPileView talonView = null;
+        FoundationPileView[] foundationViews = new FoundationPileView[4];
+        TableauPileView[] tableauViews = new TableauPileView[_columnSize];
         
         for(int row = _rowSize - 1; row >= 0; --row) {
             gameConstraints.gridy = row;
@@ -81,7 +132,7 @@ public final class GameView extends PanelView {
                     switch(gameConstraints.gridx) {
                     case 0: {
                         // Create the stock view 
-                        StockView stockView = viewFactory.add(new StockView(), true);
+                        stockView = viewFactory.add(new StockView(), true);
                         GridBagConstraints constraints = (GridBagConstraints)gameConstraints.clone();
                         constraints.insets = new Insets(gameConstraints.insets.top, 4, 0, 0);
                         this.add(stockView, constraints);
@@ -89,7 +140,7 @@ public final class GameView extends PanelView {
                     }
                     case 1: {
                         // Create the talon view
-                        TalonPileView talonView = viewFactory.add(new TalonPileView(cards), true);
+                        talonView = viewFactory.add(position == null ? new TalonPileView(cards) : new TalonPileView(toCardLayers(position.stock), toCardLayers(position.waste), position.passes, position.isRecycled, position.drawCount == 3 ? DrawOption.THREE : DrawOption.ONE), true);
                         GridBagConstraints constraints = (GridBagConstraints)gameConstraints.clone();
                         constraints.insets = new Insets(gameConstraints.insets.top, 0, -5, -30);
                         constraints.ipadx = 30;
@@ -102,7 +153,8 @@ public final class GameView extends PanelView {
                     case 5:
                     case 6:
                         // Create the foundation view
-                        FoundationPileView foundationView = viewFactory.add(new FoundationPileView());
+                        FoundationPileView foundationView = viewFactory.add(position == null ? new FoundationPileView() : new FoundationPileView(toFoundationCards(position.foundations[gameConstraints.gridx - 3])));
+                        foundationViews[gameConstraints.gridx - 3] = foundationView;
                         GridBagConstraints constraints = (GridBagConstraints)gameConstraints.clone();
                         constraints.fill = GridBagConstraints.NONE;
                         this.add(foundationView, constraints);
@@ -111,23 +163,48 @@ public final class GameView extends PanelView {
                 }
                 else {
                     
-                    List<CardModel> subList = cards.subList(0, gameConstraints.gridx + 1);
-                    TableauPileView view = viewFactory.add(new TableauPileView(new ArrayList<CardModel>(subList)));
-                    subList.clear();
+                    TableauPileView view;
+                    if(position == null) {
+                        List<CardModel> subList = cards.subList(0, gameConstraints.gridx + 1);
+                        view = viewFactory.add(new TableauPileView(new ArrayList<CardModel>(subList)));
+                        subList.clear();
+                    }
+                    else {
+                        view = viewFactory.add(new TableauPileView(toCards(position.tableau[gameConstraints.gridx]), position.tableauHidden[gameConstraints.gridx]));
+                    }
                     
+                    tableauViews[gameConstraints.gridx] = view;
                     this.add(view, gameConstraints);
                 }
             }
         }
         
-        addStatusBarView();
+        StatusBarView statusBarView = addStatusBarView();
+        
+        // Resolve the views of this game once, so that they are never searched for while the game is being played
+        GameContext context = new GameContext(this, stockView, talonView, foundationViews, tableauViews, statusBarView, recorder);
+        GameContext.setCurrent(context);
+        GameEventBus.getInstance().addListener(context);
+        
+        // Send the cards that are safe to the foundations after every move, when enabled within the options
+        GameEventBus.getInstance().addListener(new AutoPlayHelper());
+        
+        // Tell the player when no productive move is left
+        GameEventBus.getInstance().addListener(new DeadEndHelper());
+        
+        // Process the win once the last card reaches the foundations, after the cards still in flight have landed
+        GameEventBus.getInstance().addListener(new IGameEventListener() {
+            @Override public void onGameWon() {
+                CardFlightHelper.getInstance().runWhenLanded(GameView::processWin);
+            }
+        });
+        
         addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
-                OptionsPreferences preferences = new OptionsPreferences();
-                preferences.load();
+                OptionsSnapshot preferences = OptionsSnapshot.current();
                 if(preferences.timedGame) {
                     if(!SwingUtilities.isRightMouseButton(event)) {
-                        AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                        GameContext.current().getTimerView().startGameTimer();
                         removeMouseListener(this);
                     }
                 }
@@ -137,10 +214,119 @@ public final class GameView extends PanelView {
         ViewHelper.registerForCardsAutocomplete(this);
     }
     
+    /**
+     * Creates the cards associated to the specified codes
+     *
+     * @param codes The card codes
+     * 
+     * @return The cards
+     */
+    private static List<CardModel> toCards(int[] codes) {
+        List<CardModel> cards = new ArrayList<CardModel>(codes.length);
+        for(int code : codes) {
+            cards.add(CardModel.newInstance(code));
+        }
+        return cards;
+    }
+    
+    /**
+     * Creates the cards associated to the specified layers of codes
+     *
+     * @param layers The layers of card codes
+     * 
+     * @return The layers of cards
+     */
+    private static List<List<CardModel>> toCardLayers(int[][] layers) {
+        List<List<CardModel>> cards = new ArrayList<List<CardModel>>(layers.length);
+        for(int[] layer : layers) {
+            cards.add(toCards(layer));
+        }
+        return cards;
+    }
+    
+    /**
+     * Creates the cards held by a foundation, from the ace upwards
+     *
+     * @param top The code of the top-most card of the foundation
+     * 
+     * @return The cards
+     */
+    private static List<CardModel> toFoundationCards(int top) {
+        List<CardModel> cards = new ArrayList<CardModel>();
+        if(top != BoardPosition.NONE) {
+            for(int code = BoardPosition.getCode(BoardPosition.getSuit(top), 0); code <= top; ++code) {
+                cards.add(CardModel.newInstance(code));
+            }
+        }
+        return cards;
+    }
+    
+    /**
+     * Captures the current state of the board
+     *
+     * @return The position of the board
+     */
+    public BoardPosition capturePosition() {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        
+        // The piles are created from right to left
+        List<TableauPileView> tableauViews = viewFactory.getAll(TableauPileView.class);
+        int[][] tableau = new int[tableauViews.size()][];
+        int[] tableauHidden = new int[tableauViews.size()];
+        for(int column = 0; column < tableau.length; ++column) {
+            Component[] components = tableauViews.get(tableauViews.size() - 1 - column).layeredPane.getComponents();
+            tableau[column] = new int[components.length];
+            for(int i = 0; i < components.length; ++i) {
+                // Components are ordered from the top-most card downwards
+                CardModel card = ((CardView)components[components.length - 1 - i]).getViewProperties().getEntity(CardController.class).getCard();
+                tableau[column][i] = card.getCode();
+                if(card.getIsBackside()) {
+                    ++tableauHidden[column];
+                }
+            }
+        }
+        
+        List<FoundationPileView> foundationViews = viewFactory.getAll(FoundationPileView.class);
+        int[] foundations = new int[foundationViews.size()];
+        for(int i = 0; i < foundations.length; ++i) {
+            CardView cardView = foundationViews.get(foundationViews.size() - 1 - i).getLastCard();
+            foundations[i] = cardView == null ? BoardPosition.NONE : cardView.getViewProperties().getEntity(CardController.class).getCard().getCode();
+        }
+        
+        TalonPileView talonView = viewFactory.get(TalonPileView.class);
+        return new BoardPosition(
+            tableau, 
+            tableauHidden, 
+            foundations, 
+            toCodeLayers(talonView.getCardLayers(false)), 
+            toCodeLayers(talonView.getCardLayers(true)), 
+            talonView.getDrawOption() == DrawOption.THREE ? 3 : 1, 
+            talonView.getDeckPlays(), 
+            talonView.isDeckInRecycledState()
+        );
+    }
+    
+    /**
+     * Gets the codes associated to the specified layers of cards
+     *
+     * @param layers The layers of cards
+     * 
+     * @return The layers of card codes
+     */
+    private static int[][] toCodeLayers(List<List<CardModel>> layers) {
+        int[][] codes = new int[layers.size()][];
+        for(int i = 0; i < codes.length; ++i) {
+            codes[i] = layers.get(i).stream().mapToInt(CardModel::getCode).toArray();
+        }
+        return codes;
+    }
+    
     /**
      * Adds the status bar view to this view
+     * 
+     * @return The status bar view
      */
-    private void addStatusBarView() {
+    private StatusBarView addStatusBarView() {
         StatusBarView statusBarView = AbstractFactory.getFactory(ViewFactory.class).add(new StatusBarView(), true);
         GridBagConstraints barConstraints = new GridBagConstraints(); 
         barConstraints.anchor = GridBagConstraints.SOUTH;
@@ -152,38 +338,69 @@ public final class GameView extends PanelView {
         barConstraints.gridwidth = 7;
         barConstraints.insets = new Insets(0, -2, 0, -2);
         add(statusBarView, barConstraints, 0);
+        return statusBarView;
     }
     
     /**
      * Gets the current card component used on this view. This is the card
-     * that would exist when performing a drag operation
+     * that was pressed to perform a drag operation, see {@link CardDragHelper}
      *
-     * @return The currently dragged card of this view
+     * @return The currently dragged card of this view, or null if no card is being dragged
      */
     public CardView getCardComponent() {
-        for(Component comp : getComponents()) {
-            if(comp instanceof CardView) {
-                return (CardView) comp;
-            }
-        }
-        
-        return null;
+        return CardDragHelper.getInstance().getCardView();
     }
     
     /**
-     * Scans the board for a win condition
+     * @return The seed used to deal the cards of this game
      */
-    public static void scanGameForWin() {
-        boolean isWinner = true;
-        for(FoundationPileView foundationView : AbstractFactory.getFactory(ViewFactory.class).getAll(FoundationPileView.class)) {
-            if(foundationView.layeredPane.getComponentCount() != 13) {
-                isWinner = false;
-                break;
-            }
+    public long getSeed() {
+        return _seed;
+    }
+    
+    /**
+     * Writes the result of this game to the statistics ledger. A game is only ever recorded once, and a game
+     * that was never played is not recorded unless the Vegas ante was already paid
+     *
+     * @param isWon TRUE if the game was won, FALSE otherwise
+     */
+    public void recordGameResult(boolean isWon) {
+        if(_isResultRecorded) {
+            return;
         }
         
-        if(isWinner) {
-            processWin();
+        // Deliver the pending game events so that the score and the journal are up to date
+        GameEventBus.getInstance().flush();
+        
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        ControllerFactory controllerFactory = AbstractFactory.getFactory(ControllerFactory.class);
+        if(!viewFactory.exists(ScoreView.class) || !viewFactory.exists(TimerView.class) || !controllerFactory.exists(MovementRecorderController.class)) {
+            return;
+        }
+        
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+        
+        MovementRecorderController recorder = controllerFactory.get(MovementRecorderController.class);
+        int moves = recorder.getMoveCount();
+        if(moves == 0 && preferences.scoringOption != ScoringOption.VEGAS) {
+            return;
+        }
+        
+        _isResultRecorded = true;
+        int score = (int)viewFactory.get(ScoreView.class).getGameScore();
+        int time = (int)viewFactory.get(TimerView.class).getTime();
+        StatisticsLedger.getInstance().append(new GameRecord(
+            _seed,
+            System.currentTimeMillis(),
+            StatisticsLedger.packOptions(preferences),
+            isWon,
+            score,
+            time,
+            moves
+        ));
+        
+        if(recorder.getJournal() != null) {
+            recorder.getJournal().write(score, time, moves, isWon);
         }
     }
     
@@ -196,36 +413,54 @@ public final class GameView extends PanelView {
         cards.stream().forEach(z -> z.uncoverBackside(true));
         cards.stream().forEach(z -> z.setVisible(true));
         
-        while(cards.size() > 0) {
-            boolean keepGoing = false;
-            for(int i = 0; i < cards.size(); ++i) {
-                if(cards.get(i).performCardAutoMovement(true)) {
-                    cards.get(i).setEnabled(false);
-                    cards.remove(i);
-                    keepGoing = true;
-                    break;
-                }
-            }
-            
-            if(!keepGoing) {
-                break;
+        // With every card uncovered, taking the cards rank by rank always finds the previous card of the suit already
+        // within the foundations, so every card is moved in a single pass
+        cards.sort(Comparator.comparingInt(z -> BoardPosition.getRank(z.getViewProperties().getEntity(CardController.class).getCard().getCode())));
+        for(CardView card : cards) {
+            if(CardFlightHelper.getInstance().performCardAutoMovement(card, true)) {
+                card.setEnabled(false);
             }
         }
     }
     
+    @Override public boolean isOptimizedDrawingEnabled() {
+        // The cards being dragged are added above the piles and the status bar overlaps the tableau, so the children of
+        // this view overlap. Repaints of a child are then done through this view, which paints every overlapping child and
+        // the cards drawn above them, see bug #128
+        return false;
+    }
+    
+    @Override public void paint(Graphics graphics) {
+        super.paint(graphics);
+        
+        // The cards being dragged, the cards in flight and the cards bouncing once the game is won are drawn above every pile
+        CardDragHelper.getInstance().paint(graphics);
+        CardFlightHelper.getInstance().paint(graphics);
+        WinAnimationHelper.paint(graphics);
+    }
+    
     /**
      * Process the events that will occur after a win has been detected 
      */
     private static void processWin() {
+        // The win is processed once the cards have landed, by which time the game may have been restarted
+        GameContext context = GameContext.current();
+        if(context == null) {
+            return;
+        }
+        
         // Stop the game timer
-        TimerView gameTimerView = AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class);
+        TimerView gameTimerView = context.getTimerView();
         gameTimerView.stop();
 
         // Update the score with the bonus
-        long bonus = AbstractFactory.getFactory(ViewFactory.class).get(ScoreView.class).updateScoreBonus(gameTimerView.getTime());
+        long bonus = context.getScoreView().updateScoreBonus(gameTimerView.getTime());
         
         // Show the updated text on the status bar
-        AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).setMenuDescription(String.format(Localization.instance().getLocalizedString(LocalizationStrings.GAME_WON_STATUS_BAR), bonus));
+        context.getStatusBarView().setMenuDescription(String.format(Localization.instance().getLocalizedString(LocalizationStrings.GAME_WON_STATUS_BAR), bonus));
+        
+        // Record the win now that the final score is known
+        context.getGameView().recordGameResult(true);
         
         // Perform the animation on all the cards
         WinAnimationHelper.processCards();
@@ -242,6 +477,7 @@ public final class GameView extends PanelView {
         else {
             // Clear the description and other status bar texts
             AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).clearMenuDescription();
+            WinAnimationHelper.clearTrail();
 
             
             GameView gameView = AbstractFactory.getFactory(ViewFactory.class).get(GameView.class);
@@ -12,6 +12,8 @@ import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
@@ -21,6 +23,7 @@ import framework.core.system.Application;
 import framework.utils.globalisation.Localization;
 
 import game.config.OptionsPreferences;
+import game.config.OptionsPreferences.AnimationSpeed;
 import game.config.OptionsPreferences.DrawOption;
 import game.config.OptionsPreferences.ScoringOption;
 
@@ -147,6 +150,18 @@ public final class OptionsDialogView extends DialogView {
         });
 
         barOptionsPanelRight.add(cumulativeScoreCheckBox);
+        
+        // Sends the cards that are safe to the foundations after every move
+        JCheckBox autoPlayCheckBox = new JCheckBox("Auto Play Safe Cards", preferences.autoPlay);
+        barOptionsPanelRight.add(autoPlayCheckBox);
+        
+        // Animation speed of the cards moved by autocomplete
+        JPanel animationSpeedPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JComboBox<AnimationSpeed> animationSpeedComboBox = new JComboBox<AnimationSpeed>(AnimationSpeed.values());
+        animationSpeedComboBox.setSelectedItem(preferences.animationSpeed);
+        animationSpeedPanel.add(new JLabel("Animation"));
+        animationSpeedPanel.add(animationSpeedComboBox);
+        barOptionsPanelRight.add(animationSpeedPanel);
 
         okButton.addActionListener(new ActionListener() {
             @Override public void actionPerformed(ActionEvent event) {
@@ -192,6 +207,12 @@ public final class OptionsDialogView extends DialogView {
                 cumulativeScoreChanged = preferences.cumulativeScore != cumulativeScore;
                 preferences.cumulativeScore = cumulativeScore;
                 
+                // Auto play
+                preferences.autoPlay = autoPlayCheckBox.isSelected();
+                
+                // Animation speed
+                preferences.animationSpeed = (AnimationSpeed)animationSpeedComboBox.getSelectedItem();
+                
                 // Save the contents of the preferences and then close this dialog
                 preferences.save();
                 setDialogResult(JOptionPane.OK_OPTION);
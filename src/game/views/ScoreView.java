@@ -5,24 +5,26 @@ import java.awt.FlowLayout;
 
 import javax.swing.JLabel;
 
-import framework.communication.internal.signal.arguments.EventArgs;
+import framework.core.factories.AbstractFactory;
+import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
 import framework.utils.globalisation.Localization;
 
-import game.config.OptionsPreferences;
-import game.config.OptionsPreferences.DrawOption;
-import game.config.OptionsPreferences.ScoringOption;
-import game.models.MovementModel;
+import game.config.OptionsSnapshot;
+import game.events.GameEventBus;
+import game.events.IGameEventListener;
 import game.models.MovementModel.MovementType;
+import game.models.ScoreLedger;
 
 import resources.LocalizationStrings;
 
 /**
- * This view shows the game score
+ * This view shows the game score. The events of the {@link GameEventBus} are appended to a {@link ScoreLedger} that the
+ * score is computed from, and the label is only updated once per frame with the latest score
  * 
  * @author Daniel Ricci {@literal <thedanny09@icloud.com>}
  */
-public class ScoreView extends PanelView {
+public class ScoreView extends PanelView implements IGameEventListener {
 
     /**
      * The label that represents the title of this class
@@ -35,20 +37,28 @@ public class ScoreView extends PanelView {
     protected final JLabel scoreValue = new JLabel();
     
     /**
-     * The current score 
+     * The ledger that the score of the game is computed from
      */
-    protected static long SCORE_CURRENT;
+    protected final ScoreLedger ledger;
     
     /**
-     * The previous score
+     * Constructs a new instance of this class type
      */
-    @SuppressWarnings("unused")
-    private static long SCORE_BEFORE = SCORE_CURRENT;
+    public ScoreView() {
+        this(0);
+    }
     
     /**
      * Constructs a new instance of this class type
+     *
+     * @param initialScore The score that the game starts with
      */
-    public ScoreView() {
+    protected ScoreView(long initialScore) {
+        // The talon is created before the status bar, and holds the draw option of an imported position
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        ledger = new ScoreLedger(viewFactory.exists(TalonPileView.class) ? viewFactory.get(TalonPileView.class).getDrawOption() : preferences.drawOption, preferences.scoringOption, initialScore);
+        
         this.setBackground(Color.WHITE);
 
         // Set the VGap so that the score renders appropriately
@@ -58,33 +68,14 @@ public class ScoreView extends PanelView {
         add(scoreTitle);
         add(scoreValue);
     }
-    
+       
     /**
-     * Adds the specified offset to the current score.
-     *
-     * @param offsetToScore The score to offset the current score with, a +- value of something defined on your end
+     * @return The score obtained within the current game
      */
-    protected void addToScore(long offsetToScore) {
-        SCORE_CURRENT = Math.max(0, SCORE_CURRENT + offsetToScore);
-        scoreValue.setText(toString());        
+    public long getGameScore() {
+        return ledger.getScore();
     }
     
-    /**
-     * Adds the specified offset to the current score. This method will perform a backup of what the
-     * score previously was. How this method differs from the `addToScore` method is that it
-     * is friendly for performing an undo.
-     * 
-     * The reason to not call this method over the other is in the case where the score being perform
-     * could not ever be undone, such as when 10 seconds has elapsed and the score loses -2, you can never
-     * get that back so dont backup the score there
-     *
-     * @param offsetToScore The score to offset the current score with, a +- value of something defined on your end
-     */
-    private void addToScoreAndBackup(long offsetToScore) {
-        SCORE_BEFORE = SCORE_CURRENT;
-        addToScore(offsetToScore);
-    }
-       
     /**
      * Updates the score based on the bonus logic
      *
@@ -93,106 +84,42 @@ public class ScoreView extends PanelView {
      * @return The bonus that will be used
      */
     public long updateScoreBonus(long seconds) {
-        long bonus = 0;
-        
-        if(seconds > 30) {
-            bonus = 700000 / seconds;
-            addToScore(bonus);
-        }
-        
+        long bonus = ledger.recordBonus(seconds);
+        GameEventBus.getInstance().postScoreChanged(ledger.getScore());
         return bonus;
     }
     
-    /**
-     * Updates the score based on the specified deck plays.
-     *
-     * @param deckPlays The number of decks played
-     */
-    public void updateScoreDeckFinished(int deckPlays) {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
+    @Override public void render() {
+        super.render();
+        GameEventBus.getInstance().postScoreChanged(ledger.getScore());
+    }
         
-        if(preferences.drawOption == DrawOption.THREE && preferences.scoringOption == ScoringOption.STANDARD) {
-            if(deckPlays > 3) {
-                addToScoreAndBackup(-20);
-            }
-        }
-        else {
-            addToScoreAndBackup(-100);    
-        }
+    @Override public String toString() {
+        return String.valueOf(ledger.getScore());
     }
     
-    /**
-     * Updates the score based on a timer interval tick of the game
-     */
-    public void updateScoreTimerTick() {
-        addToScore(-2);
+    @Override public final void onMoveApplied(int from, int to, int card) {
+        GameEventBus.getInstance().postScoreChanged(ledger.recordMove(MovementType.fromPile(from), MovementType.fromPile(to)));
     }
     
-    /**
-     * Updates the score based on a cards' backside being revealed
-     */
-    public void updateScoreCardTurnOver() {
-        addToScore(5);
+    @Override public final void onMoveUndone(int from, int to) {
+        ledger.undo();
+        GameEventBus.getInstance().postScoreChanged(ledger.getScore());
     }
     
-    /**
-     * Updates the score based on an operation
-     *
-     * @param from where the operation started from
-     * @param to where the operation ended at
-     * @param isUndo If the operation being done is an undo operation
-     * 
-     */
-     protected void updateScore(MovementType from, MovementType to, boolean isUndo) {
-         long scoreFromMovement = getMovementScore(from, to, isUndo); 
-         addToScoreAndBackup(scoreFromMovement + (isUndo ? - 2 : 0));
-     }
-     
-    private long getMovementScore(MovementType from, MovementType to, boolean isUndo) {
-        
-        long score = 0;
-        
-        if(from == MovementType.TALON && to == MovementType.TABLEAU) {
-            score = 5;
-        }
-        else if(from == MovementType.TALON && to == MovementType.FOUNDATION) {
-            score = 10;
-        }
-        else if (from == MovementType.TABLEAU && to == MovementType.FOUNDATION) {
-            score = 10;
-        }
-        else if(from == MovementType.FOUNDATION && to == MovementType.TABLEAU) {
-            score = -15;
-        }
-        
-        // If the score is being undone then flip the sign of the score
-        if(isUndo) {
-            score *= -1;
-        }
-        
-        return score;
-    }
-     
-    @Override public void render() {
-        super.render();
-        addToScore(0);
+    @Override public final void onCardFlipped(int pile, int card) {
+        GameEventBus.getInstance().postScoreChanged(ledger.recordFlip());
     }
     
-    @Override public void destructor() {
-        super.destructor();
-        SCORE_CURRENT = 0;
-        SCORE_BEFORE = 0;
+    @Override public final void onTalonCycled(int passes) {
+        GameEventBus.getInstance().postScoreChanged(ledger.recordPass(passes));
     }
-        
-    @Override public String toString() {
-        return String.valueOf(SCORE_CURRENT);
+    
+    @Override public final void onTimerTicked() {
+        GameEventBus.getInstance().postScoreChanged(ledger.recordTick());
     }
     
-    @Override public final void update(EventArgs event) {
-        if(event.getSource() instanceof MovementModel) {
-            MovementModel movement = (MovementModel) event.getSource();
-            updateScore(movement.getFrom(), movement.getTo(), movement.getIsUndo());
-        }
+    @Override public final void onScoreChanged(long score) {
+        scoreValue.setText(toString());
     }
 }
\ No newline at end of file
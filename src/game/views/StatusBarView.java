@@ -12,13 +12,12 @@ import javax.swing.JPanel;
 import javax.swing.border.EmptyBorder;
 
 import framework.core.factories.AbstractFactory;
-import framework.core.factories.ControllerFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
 
-import game.config.OptionsPreferences;
 import game.config.OptionsPreferences.ScoringOption;
-import game.controllers.MovementRecorderController;
+import game.config.OptionsSnapshot;
+import game.events.GameEventBus;
 
 public final class StatusBarView extends PanelView {
 
@@ -64,16 +63,15 @@ public final class StatusBarView extends PanelView {
 
         
         // The scoring option should only be shown in Standard and Vegas scoring modes
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
+        OptionsSnapshot preferences = OptionsSnapshot.current();
         
         // Create the score view based on the currently set scoring standard      
         _scoreView = AbstractFactory.getFactory(ViewFactory.class).add(preferences.scoringOption == ScoringOption.VEGAS ? new VegasScoreView() : new ScoreView(), true);
         _scoreView.setBorder(null);
         _scoreView.render();
         
-        // register the score view to recieve events from the movement controller
-        AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).addSignalListener(_scoreView);
+        // register the score view to recieve the game events
+        GameEventBus.getInstance().addListener(_scoreView);
         
         if(preferences.scoringOption != ScoringOption.NONE) {
             rightSidePanel.add(_scoreView,BorderLayout.WEST);    
@@ -95,6 +93,20 @@ public final class StatusBarView extends PanelView {
         _menuDescription.setText(text);
     }
     
+    /**
+     * @return The game score view
+     */
+    public ScoreView getScoreView() {
+        return _scoreView;
+    }
+    
+    /**
+     * @return The game timer view
+     */
+    public TimerView getTimerView() {
+        return _gameTimerView;
+    }
+    
     /**
      * Convenience method to clear the text
      */
@@ -106,8 +118,7 @@ public final class StatusBarView extends PanelView {
      * Synchronizes the options results w.r.t the status bar and it's related content
      */
     public void synchronizeWithOptions() {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
+        OptionsSnapshot preferences = OptionsSnapshot.current();
         this.setVisible(preferences.statusBar);
         _gameTimerView.setVisible(preferences.timedGame);
         _scoreView.setVisible(preferences.scoringOption != ScoringOption.NONE);
@@ -2,14 +2,16 @@ package game.views;
 
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.swing.SwingUtilities;
 
-import framework.communication.internal.signal.ISignalReceiver;
 import framework.communication.internal.signal.arguments.EventArgs;
 import framework.communication.internal.signal.arguments.ViewEventArgs;
 import framework.core.factories.AbstractFactory;
@@ -19,10 +21,12 @@ import framework.core.mvc.view.PanelView;
 import framework.utils.MouseListenerEvent;
 import framework.utils.MouseListenerEvent.SupportedActions;
 
-import game.entities.BacksideCardEntity;
 import game.entities.StockCardEntity;
+import game.events.GameEventBus;
+import game.events.IGameEventListener;
 import game.views.TalonPileView.TalonCardState;
 import game.views.helpers.DeckAnimationHelper;
+import game.views.helpers.PileImageCache;
 import game.views.helpers.ViewHelper;
 
 import generated.DataLookup;
@@ -51,6 +55,16 @@ public final class StockView extends PanelView implements IUndoable {
      */
     private final TalonPileView _talonView = AbstractFactory.getFactory(ViewFactory.class).get(TalonPileView.class);
     
+    /**
+     * The rendered appearance of the stock
+     */
+    private final PileImageCache _imageCache = new PileImageCache(1);
+    
+    /**
+     * The state of the stock when its image was last painted, see {@link #paintComponent(Graphics)}
+     */
+    private List<Object> _imageKey;
+    
     /**
      * Constructs a new instance of this class type
      */
@@ -61,7 +75,7 @@ public final class StockView extends PanelView implements IUndoable {
         addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
                 if(!SwingUtilities.isRightMouseButton(event)) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                    GameContext.current().getTimerView().startGameTimer();
                     removeMouseListener(this);
                 }
             }
@@ -100,7 +114,7 @@ public final class StockView extends PanelView implements IUndoable {
                     }
                     
                     if(!SwingUtilities.isRightMouseButton(event)) {
-                        AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                        GameContext.current().getTimerView().startGameTimer();
                     }
                 }
                 
@@ -109,15 +123,12 @@ public final class StockView extends PanelView implements IUndoable {
                 update(new ViewEventArgs(StockView.this, ""));
             }
         });        
-        addSignal(BacksideCardEntity.DECK_BACKSIDE_CHANGED, new ISignalReceiver<EventArgs>() {
-            @Override public void signalReceived(EventArgs event) {
-                _stockCardEntities.stream().forEach(z -> z.refresh());
-                DeckAnimationHelper.getInstance().setScene(_stockCardEntities);
-            }
-        });
-        addSignal(DeckAnimationHelper.DECK_ANIMATION_UPDATED, new ISignalReceiver<EventArgs>() {
-            @Override public void signalReceived(EventArgs event) {
-            	//repaint();
+        
+        // Repaint the stock whenever its animation moves to the next image. The event is delivered on the event dispatch
+        // thread, whereas the animation is driven by its own timer
+        GameEventBus.getInstance().addListener(new IGameEventListener() {
+            @Override public void onDeckAnimated() {
+                repaint();
             }
         });
     }
@@ -125,15 +136,7 @@ public final class StockView extends PanelView implements IUndoable {
     @Override public void preprocessGraphics(IRenderable renderableData, Graphics context) {
         super.preprocessGraphics(renderableData, context);
         
-        int index = -1;
-        for(StockCardEntity stockCardEntity : _stockCardEntities) {
-            if(stockCardEntity.equals(renderableData)) {
-                index = _stockCardEntities.indexOf(stockCardEntity);
-                break;
-            }
-        }
-        
-        switch(index)
+        switch(_stockCardEntities.indexOf(renderableData))
         {
         case 0:
             this.renderProperties.canDraw = true;
@@ -163,6 +166,40 @@ public final class StockView extends PanelView implements IUndoable {
         this.renderProperties.renderData = DeckAnimationHelper.getInstance().getRenderableContent();
     }
     
+    /**
+     * Sets the backside of the stock cards
+     *
+     * @param backside The backside
+     * @param image The image of the backside
+     */
+    public void setBackside(DataLookup.BACKSIDES backside, Image image) {
+        _stockCardEntities.stream().forEach(z -> z.setBackside(backside, image));
+        DeckAnimationHelper.getInstance().setScene(_stockCardEntities);
+    }
+    
+    /**
+     * @return The rendered appearance of the stock, along with how often it was reused
+     */
+    public PileImageCache getImageCache() {
+        return _imageCache;
+    }
+    
+    @Override protected void paintComponent(Graphics graphics) {
+        // The stack only looks different once the deck animates, the backside changes or the talon moves to another phase
+        StockCardEntity stockCardEntity = _stockCardEntities.get(0);
+        List<Object> imageKey = Arrays.asList(
+            DeckAnimationHelper.getInstance().getRenderableContent(),
+            stockCardEntity.getBacksideVisible() && _talonView.isPhaseTwo(),
+            stockCardEntity.getBacksideVisible() && _talonView.isPhaseOne()
+        );
+        if(!imageKey.equals(_imageKey)) {
+            _imageKey = imageKey;
+            _imageCache.invalidate(0);
+        }
+        
+        _imageCache.paint(graphics, 0, new Rectangle(0, 0, getWidth(), getHeight()), null, getGraphicsConfiguration(), super::paintComponent);
+    }
+    
     @Override public Dimension getPreferredSize() {
         return new Dimension(CardView.CARD_WIDTH + 4, CardView.CARD_HEIGHT + 2);
     }
@@ -170,6 +207,16 @@ public final class StockView extends PanelView implements IUndoable {
     @Override public void render() { 	
         super.render();
         
+        // Reflect a talon that was already played through, which is the case when the talon is restored to a specific state
+        if(_talonView.isDeckPlayed()) {
+            if(_talonView.isTalonEnded()) {
+                _stockCardEntities.get(0).enableTalonEnd();
+            }
+            else {
+                _stockCardEntities.get(0).enableTalonRecycled();
+            }
+        }
+        
         DeckAnimationHelper.getInstance().setScene(_stockCardEntities);
         update(new ViewEventArgs(StockView.this, ""));
     }
@@ -19,7 +19,7 @@ import framework.core.mvc.view.PanelView;
 import framework.core.physics.ICollidable;
 import framework.utils.logging.Tracelog;
 
-import game.config.OptionsPreferences;
+import game.config.OptionsSnapshot;
 import game.controllers.CardController;
 import game.models.CardModel;
 
@@ -45,11 +45,6 @@ public class TableauPileView extends AbstractPileView implements ICollidable {
      */
     private final PanelView _noCardPanelView = new PanelView();
 
-    /**
-     * A reference to the options preferences resource
-     */
-    private final OptionsPreferences _preferences = new OptionsPreferences();
-    
     /**
      * Constructs a new instance of this class type
      */
@@ -72,10 +67,20 @@ public class TableauPileView extends AbstractPileView implements ICollidable {
      * @param cards A list of card models to associate to this pile view
      */
     public TableauPileView(List<CardModel> cards) {
+        this(cards, cards.size() - 1);
+    }
+    
+    /**
+     * Constructs a new instance of this class type
+     * 
+     * @param cards A list of card models to associate to this pile view
+     * @param hiddenCount The number of cards, from the bottom upwards, that have their backside showing
+     */
+    public TableauPileView(List<CardModel> cards, int hiddenCount) {
         this();
         for(int i = 0; i < cards.size(); ++i) {
             //Create the card view
-            cards.get(i).setBackside(i + 1 < cards.size());
+            cards.get(i).setBackside(i < hiddenCount);
             CardView view = AbstractFactory.getFactory(ViewFactory.class).add(new CardView(cards.get(i)));
             
             // Add the view to the layered pane
@@ -88,11 +93,28 @@ public class TableauPileView extends AbstractPileView implements ICollidable {
         }
     }
     
+    /**
+     * @return The number of cards held by this view
+     */
+    public int getCardCount() {
+        return layeredPane.getComponentCount();
+    }
+    
+    /**
+     * Gets the card at the specified position within this view
+     * 
+     * @param index The position of the card, starting at zero for the top-most card
+     * 
+     * @return The card
+     */
+    public CardView getCard(int index) {
+        return (CardView)layeredPane.getComponent(index);
+    }
+    
     @Override public void preprocessGraphics(IRenderable renderableData, Graphics context) {
         super.preprocessGraphics(renderableData, context);
         if(getIsHighlighted() && layeredPane.getComponentCount() == 0) {
-            _preferences.load();
-            if(_preferences.outlineDragging) {
+            if(OptionsSnapshot.current().outlineDragging) {
                 _noCardPanelView.setSize(new Dimension(CardView.CARD_WIDTH, CardView.CARD_HEIGHT));
                 _noCardPanelView.setPreferredSize(_noCardPanelView.getSize());
                 add(_noCardPanelView);
@@ -146,6 +168,13 @@ public class TableauPileView extends AbstractPileView implements ICollidable {
     }
 
     @Override public boolean isValidCollision(Component source) {
+        return isValidCollision(source, source.getBounds());
+    }
+
+    @Override public boolean isValidCollision(Component source, Rectangle bounds) {
+        if(!bounds.intersects(getX(), getY(), getWidth(), getHeight())) {
+            return false;
+        }
 
         // If there are no components then only allow a king to be placed
         if(layeredPane.getComponentCount() == 0) {
@@ -161,20 +190,9 @@ public class TableauPileView extends AbstractPileView implements ICollidable {
         // Get the bottom most card within the pile view.
         CardView cardView = (CardView) layeredPane.getComponent(0);
 
-        // Get the bounds associated to this pile view
-        Rectangle thisBounds = this.getBounds();
-        
-        Rectangle thatBounds = cardView.getBounds();
-        Rectangle rect = new Rectangle(
-            thisBounds.x + thatBounds.x, 
-            thisBounds.y + thatBounds.y, 
-            source.getWidth(),
-            source.getHeight()
-        );
-        
-        // If the intersection is valid then verify if the card allows
-        // for the collision
-        if(source.getBounds().intersects(rect)) {
+        // If the source intersects the bottom most card, as positioned within the parent of this view, then verify if
+        // the card allows for the collision
+        if(bounds.intersects(getX() + cardView.getX(), getY() + cardView.getY(), bounds.width, bounds.height)) {
             return cardView.isValidCollision(source); 
         }
         
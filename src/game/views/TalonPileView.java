@@ -20,7 +20,6 @@ import javax.swing.JLayeredPane;
 import javax.swing.SwingUtilities;
 
 import framework.core.factories.AbstractFactory;
-import framework.core.factories.ControllerFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
 import framework.core.physics.ICollidable;
@@ -28,10 +27,11 @@ import framework.utils.MouseListenerEvent;
 import framework.utils.MouseListenerEvent.SupportedActions;
 import framework.utils.logging.Tracelog;
 
-import game.config.OptionsPreferences;
 import game.config.OptionsPreferences.DrawOption;
 import game.config.OptionsPreferences.ScoringOption;
-import game.controllers.MovementRecorderController;
+import game.config.OptionsSnapshot;
+import game.controllers.CardController;
+import game.events.GameEventBus;
 import game.models.CardModel;
 import game.views.helpers.ViewHelper;
 
@@ -140,19 +140,26 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
      */
     private TalonCardReference _undoableCard = null;
     
+    /**
+     * The draw option that this talon is played with, which is taken from the position when the talon is restored
+     */
+    private final DrawOption _drawOption;
+    
     /**
      * Constructs a new instance of this class type
+     * 
+     * @param drawOption The draw option that this talon is played with
      */
-    private TalonPileView() {
+    private TalonPileView(DrawOption drawOption) {
+        _drawOption = drawOption;
+        
         _blankCard.setBackground(new Color(0, 128, 0));
         // Arbitrary number, big enough to do some damage
         _blankCard.setPreferredSize(new Dimension(1000, 1000));
         _blankCard.setBounds(new Rectangle(0, 0, _blankCard.getPreferredSize().width, _blankCard.getPreferredSize().height));
         _blankCard.setVisible(true);
         
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        if(preferences.drawOption == DrawOption.THREE) {
+        if(_drawOption == DrawOption.THREE) {
             CARD_OFFSET_X = 12;
         }
         else {
@@ -168,7 +175,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         _blankCard.addMouseListener(new MouseAdapter() {
             @Override public void mousePressed(MouseEvent event) {
                 if(!SwingUtilities.isRightMouseButton(event)) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(TimerView.class).startGameTimer();
+                    GameContext.current().getTimerView().startGameTimer();
                     _blankCard.removeMouseListener(this);
                 }
             }
@@ -181,90 +188,17 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
      * @param cards The card models to load within this view
      */
     public TalonPileView(List<CardModel> cards) {
-        this();
+        this(OptionsSnapshot.current().drawOption);
         
         if(cards.size() > TOTAL_CARD_SIZE) {
             Tracelog.log(Level.SEVERE, true, "Talon has been allocated more than the currently set max card size that can be allocated!");
         }
         
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        
         for(int i = 0, layer = 0; i < cards.size(); ++i) {
-            CardView cardView = AbstractFactory.getFactory(ViewFactory.class).add(new CardView(cards.get(i)));
-            MouseListenerEvent adapter = new MouseListenerEvent(SupportedActions.LEFT) {
-                @Override public void mousePressed(MouseEvent event) {
-                    
-                    super.mousePressed(event);
-                    if(event.isConsumed() && getIsConsumed()) {
-                        return;
-                    }
-                    
-                    // Do not allow non-enabled cards to run
-                    if(!cardView.isEnabled()) {
-                        return;
-                    }
-                    
-                    // Take the card that was pressed on and record it's layer location 
-                    _lastCardInteracted = new TalonCardReference(cardView);
-                }
-                @Override public void mouseReleased(MouseEvent event) {
-            
-                    super.mouseReleased(event);
-                    if(event.isConsumed() && getIsConsumed()) {
-                        return;
-                    }
-                    
-                    // Prevent other released events from being called by other cards that are not yet enabled
-                    if(!cardView.isEnabled()) {
-                        return;
-                    }
-                   
-                    // If the card is no longer associated to the talon then attempt to get the next one
-                    if(!(cardView.getParentIView() instanceof TalonPileView)) {
-                        
-                        // The top-most card cannot be the layered pane
-                        boolean cond1 = layeredPane.highestLayer() != JLayeredPane.getLayer(_blankCard);
-                        
-                        // There must not be any more visible cards (excluding the blank card)
-                        boolean cond2 = Arrays.asList(layeredPane.getComponents()).stream().anyMatch(z -> !z.equals(_blankCard) && z.isVisible());
-                        
-                        if(cond1 && !cond2) {
-                            for(int iterations = 0, layerId = JLayeredPane.getLayer(_blankCard) + 1; layerId <= layeredPane.highestLayer() || iterations < 3; ++layerId, ++iterations) {
-                                Component component = layeredPane.getComponentsInLayer(layerId)[0];
-                                component.setVisible(true);
-                            }
-                        }
-                    }
-                    // The card was put back, so position it accordingly so that it can be shown again
-                    // Make sure that the card is enabled. Since when a card is not enabled, the event
-                    // handlers are not applied to the card
-                    else if(cardView.isEnabled()){
-                        // If the blank card is on the same layer as this card, put this card to the next layer above. 
-                        // This could only occur if this was already top-most
-                        if(JLayeredPane.getLayer(_blankCard) == JLayeredPane.getLayer(cardView)) {
-                            layeredPane.setLayer(cardView, JLayeredPane.getLayer(cardView) + 1);
-                        }
-                        setBounds(cardView);
-                    }
-                    
-                    // When the mouse is released, ensure that the component located at the highest layer is enabled
-                    layeredPane.getComponentsInLayer(layeredPane.highestLayer())[0].setEnabled(true);
-                }
-            };
-            cardView.addMouseListener(adapter);
-            cardView.getOutlineView().addMouseListener(adapter);
-            
-            // Set the default bounds of the card
-            cardView.setBounds(new Rectangle(0, 0, cardView.getPreferredSize().width, cardView.getPreferredSize().height));
+            CardView cardView = createCardView(cards.get(i));
             
-            // All cards are disabled by default, and should be disabled by default after a subsequent deck has been played through
-            cardView.setEnabled(false);
-            
-            // Add the card to the layered pane and set it's layer accordingly
-            layeredPane.add(cardView);
-            
-            if(preferences.drawOption == DrawOption.THREE) {
+            // Set the layer of the card accordingly
+            if(_drawOption == DrawOption.THREE) {
                 layeredPane.setLayer(cardView, layer / 3);
                 ++layer;
             }
@@ -278,6 +212,153 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         layeredPane.setLayer(_blankCard, layeredPane.highestLayer() + 1);
     }
     
+    /**
+     * Constructs a new instance of this class type, restoring the talon to a specific state
+     * 
+     * @param stockLayers The layers of cards that have not yet been drawn, from the lowest layer upwards
+     * @param wasteLayers The layers of cards that were drawn, from the lowest layer upwards
+     * @param deckPlays The number of times that the deck was played
+     * @param isDeckInRecycledState TRUE if the deck is waiting to be recycled, FALSE otherwise
+     * @param drawOption The draw option of the position being restored
+     */
+    public TalonPileView(List<List<CardModel>> stockLayers, List<List<CardModel>> wasteLayers, int deckPlays, boolean isDeckInRecycledState, DrawOption drawOption) {
+        this(drawOption);
+        
+        _deckPlays = deckPlays;
+        _isDeckInRecycledState = isDeckInRecycledState;
+        
+        int layer = 0;
+        for(List<CardModel> stockLayer : stockLayers) {
+            for(CardModel card : stockLayer) {
+                layeredPane.setLayer(createCardView(card), layer);
+            }
+            ++layer;
+        }
+        
+        // The blank card sits between the stock and the waste, unless the deck is waiting to be recycled in which
+        // case it masks the waste entirely
+        if(!isDeckInRecycledState) {
+            layeredPane.add(_blankCard);
+            layeredPane.setLayer(_blankCard, layer++);
+        }
+        
+        for(List<CardModel> wasteLayer : wasteLayers) {
+            for(CardModel card : wasteLayer) {
+                layeredPane.setLayer(createCardView(card), layer);
+            }
+            ++layer;
+        }
+        
+        if(isDeckInRecycledState) {
+            layeredPane.add(_blankCard);
+            layeredPane.setLayer(_blankCard, layer);
+        }
+        
+        // Position the waste the same way it would have been positioned had the cards been drawn one hand at a time,
+        // only the top-most layer is spread out when playing draw three
+        List<Component> waste = Arrays.asList(layeredPane.getComponents()).stream().filter(z -> z instanceof CardView && (isDeckInRecycledState || layeredPane.getLayer(z) > JLayeredPane.getLayer(_blankCard))).collect(Collectors.toList());
+        if(!waste.isEmpty()) {
+            waste.forEach(z -> z.setVisible(true));
+            
+            // The components are ordered from the top-most layer downwards
+            int topWasteLayer = layeredPane.getLayer(waste.get(0));
+            for(Component component : waste) {
+                if(_drawOption == DrawOption.ONE || layeredPane.getLayer(component) == topWasteLayer) {
+                    setBounds(component);
+                }
+                else {
+                    setBoundsDrawOneImpl(component, getPosition(component));
+                }
+            }
+            
+            waste.get(0).setEnabled(true);
+        }
+    }
+    
+    /**
+     * Creates a card view for the specified card and adds it to this view. The card is disabled by default
+     *
+     * @param card The card model
+     * 
+     * @return The card view
+     */
+    private CardView createCardView(CardModel card) {
+        CardView cardView = AbstractFactory.getFactory(ViewFactory.class).add(new CardView(card));
+        MouseListenerEvent adapter = new MouseListenerEvent(SupportedActions.LEFT) {
+            @Override public void mousePressed(MouseEvent event) {
+                
+                super.mousePressed(event);
+                if(event.isConsumed() && getIsConsumed()) {
+                    return;
+                }
+                
+                // Do not allow non-enabled cards to run
+                if(!cardView.isEnabled()) {
+                    return;
+                }
+                
+                // Take the card that was pressed on and record it's layer location 
+                _lastCardInteracted = new TalonCardReference(cardView);
+            }
+            @Override public void mouseReleased(MouseEvent event) {
+        
+                super.mouseReleased(event);
+                if(event.isConsumed() && getIsConsumed()) {
+                    return;
+                }
+                
+                // Prevent other released events from being called by other cards that are not yet enabled
+                if(!cardView.isEnabled()) {
+                    return;
+                }
+               
+                // If the card is no longer associated to the talon then attempt to get the next one
+                if(!(cardView.getParentIView() instanceof TalonPileView)) {
+                    
+                    // The top-most card cannot be the layered pane
+                    boolean cond1 = layeredPane.highestLayer() != JLayeredPane.getLayer(_blankCard);
+                    
+                    // There must not be any more visible cards (excluding the blank card)
+                    boolean cond2 = Arrays.asList(layeredPane.getComponents()).stream().anyMatch(z -> !z.equals(_blankCard) && z.isVisible());
+                    
+                    if(cond1 && !cond2) {
+                        for(int iterations = 0, layerId = JLayeredPane.getLayer(_blankCard) + 1; layerId <= layeredPane.highestLayer() || iterations < 3; ++layerId, ++iterations) {
+                            Component component = layeredPane.getComponentsInLayer(layerId)[0];
+                            component.setVisible(true);
+                        }
+                    }
+                }
+                // The card was put back, so position it accordingly so that it can be shown again
+                // Make sure that the card is enabled. Since when a card is not enabled, the event
+                // handlers are not applied to the card
+                else if(cardView.isEnabled()){
+                    // If the blank card is on the same layer as this card, put this card to the next layer above. 
+                    // This could only occur if this was already top-most
+                    if(JLayeredPane.getLayer(_blankCard) == JLayeredPane.getLayer(cardView)) {
+                        layeredPane.setLayer(cardView, JLayeredPane.getLayer(cardView) + 1);
+                    }
+                    setBounds(cardView);
+                }
+                
+                // When the mouse is released, ensure that the component located at the highest layer is enabled
+                layeredPane.getComponentsInLayer(layeredPane.highestLayer())[0].setEnabled(true);
+            }
+        };
+        cardView.addMouseListener(adapter);
+        cardView.getOutlineView().addMouseListener(adapter);
+        
+        // Set the default bounds of the card
+        cardView.setBounds(new Rectangle(0, 0, cardView.getPreferredSize().width, cardView.getPreferredSize().height));
+        
+        // All cards are disabled by default, and should be disabled by default after a subsequent deck has been played through
+        cardView.setEnabled(false);
+        
+        // Add the card to the layered pane
+        layeredPane.add(cardView);
+        
+        return cardView;
+    }
+    
     /**
      * @return TRUE if the pile style has not yet gone through 4 cards, FALSE otherwise
      */
@@ -304,20 +385,33 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
      *         of deck shuffles (based on the options preferences currently set), FALSE otherwise
      */
     public boolean isTalonEnded() {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
+        OptionsSnapshot preferences = OptionsSnapshot.current();
         
-        if(preferences.drawOption == DrawOption.ONE && preferences.scoringOption == ScoringOption.VEGAS && _deckPlays == 1) {
+        if(_drawOption == DrawOption.ONE && preferences.scoringOption == ScoringOption.VEGAS && _deckPlays == 1) {
             return true;
         }
         
-        if(preferences.drawOption == DrawOption.THREE && preferences.scoringOption == ScoringOption.VEGAS && _deckPlays == 3) {
+        if(_drawOption == DrawOption.THREE && preferences.scoringOption == ScoringOption.VEGAS && _deckPlays == 3) {
             return true;
         }
         
         return false;
     }
     
+    /**
+     * @return TRUE if the talon can be played through again once the stock is empty, FALSE otherwise
+     */
+    public boolean canRecycle() {
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+        if(preferences.scoringOption != ScoringOption.VEGAS) {
+            return true;
+        }
+        
+        // The pass being played counts towards the limit once the stock is empty
+        int passes = _drawOption == DrawOption.THREE ? 3 : 1;
+        return _deckPlays + (isDeckPlayed() || _isDeckInRecycledState ? 0 : 1) < passes;
+    }
+    
     /**
      * @return The current state of the Talon based on the last operation played
      */
@@ -325,6 +419,59 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         return _lastCardHandState;
     }
     
+    /**
+     * @return The number of times that the deck was played
+     */
+    public int getDeckPlays() {
+        return _deckPlays;
+    }
+    
+    /**
+     * @return TRUE if the deck is waiting to be recycled, FALSE otherwise
+     */
+    public boolean isDeckInRecycledState() {
+        return _isDeckInRecycledState;
+    }
+    
+    /**
+     * @return The draw option that this talon is played with, which can differ from the options when a position was imported
+     */
+    public DrawOption getDrawOption() {
+        return _drawOption;
+    }
+    
+    /**
+     * Gets the cards of this talon grouped by layer, from the lowest layer upwards. Each layer lists its
+     * cards from the top-most card downwards
+     *
+     * @param isWaste TRUE to get the cards that were drawn, FALSE to get the cards that were not yet drawn
+     * 
+     * @return The cards grouped by layer
+     */
+    public List<List<CardModel>> getCardLayers(boolean isWaste) {
+        List<List<CardModel>> layers = new ArrayList<List<CardModel>>();
+        int blankCardLayer = JLayeredPane.getLayer(_blankCard);
+        for(int layer = layeredPane.lowestLayer(); layer <= layeredPane.highestLayer(); ++layer) {
+            // When the deck is waiting to be recycled, the blank card masks the cards that were drawn
+            boolean isWasteLayer = _isDeckInRecycledState || layer > blankCardLayer;
+            if(isWasteLayer != isWaste) {
+                continue;
+            }
+            
+            List<CardModel> cards = new ArrayList<CardModel>();
+            for(Component component : layeredPane.getComponentsInLayer(layer)) {
+                if(component instanceof CardView) {
+                    cards.add(((CardView)component).getViewProperties().getEntity(CardController.class).getCard());
+                }
+            }
+            if(!cards.isEmpty()) {
+                layers.add(cards);
+            }
+        }
+        
+        return layers;
+    }
+    
     /**
      * Reverts the last hand played
      */
@@ -343,10 +490,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
             // Disable all the cards
 	        Arrays.asList(layeredPane.getComponents()).forEach(z -> z.setEnabled(false));
 
-	        OptionsPreferences preferences = new OptionsPreferences();
-	        preferences.load();
-	        
-	        if(preferences.drawOption == DrawOption.ONE) {
+	        if(_drawOption == DrawOption.ONE) {
 	            // Get the top-most component and set it underneath the blank card.
 	            Component comp = layeredPane.getComponentsInLayer(layeredPane.highestLayer())[0];
 	            comp.setVisible(false);
@@ -420,7 +564,8 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         }
         
         // Notify the movement controller that there was a movement that occured of the talon, from the stock view
-        AbstractFactory.getFactory(ControllerFactory.class).get(MovementRecorderController.class).recordMovement(AbstractFactory.getFactory(ViewFactory.class).get(StockView.class), this);
+        GameContext context = GameContext.current();
+        context.getRecorder().recordMovement(context.getStockView(), this);
         
         // If we are in a recycle deck state then recycle the deck
         if(_isDeckInRecycledState) {
@@ -431,7 +576,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         // If we are at the end then restart the deck
         if(JLayeredPane.getLayer(_blankCard) == layeredPane.lowestLayer()) {
             // New deck has the score updated
-            AbstractFactory.getFactory(ViewFactory.class).get(ScoreView.class).updateScoreDeckFinished(_deckPlays);
+            GameEventBus.getInstance().postTalonCycled(_deckPlays);
             
             // The next pass will recycle the deck
             _isDeckInRecycledState = true;
@@ -442,13 +587,10 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         }
         else {
             
-            OptionsPreferences preferences = new OptionsPreferences();
-            preferences.load();
-
             // Disable all the cards
             Arrays.asList(layeredPane.getComponents()).forEach(z -> z.setEnabled(false));
             
-            if(preferences.drawOption == DrawOption.ONE) {
+            if(_drawOption == DrawOption.ONE) {
                 // Get the card that is directly below the blank card
                 Component cardDirectlyBelowBlankCard = layeredPane.getComponent(layeredPane.getIndexOf(_blankCard) + 1);
                 cardDirectlyBelowBlankCard.setVisible(true);
@@ -520,9 +662,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
             position = layeredPane.getComponentCount() - components.indexOf(component) - 1;
         }
         else {
-            OptionsPreferences preferences = new OptionsPreferences();
-            preferences.load();
-            if(preferences.drawOption == DrawOption.ONE) {
+            if(_drawOption == DrawOption.ONE) {
                 position = components.stream().filter(z -> z.isVisible() && z instanceof CardView).collect(Collectors.toList()).indexOf(component) + 1;
             }
             else {
@@ -543,6 +683,13 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         return position;
     }
     
+    /**
+     * @return The number of cards held by this view, whether they are within the stock or the talon
+     */
+    public int getCardCount() {
+        return layeredPane.getComponentCount() - (_blankCard.getParent() == layeredPane ? 1 : 0);
+    }
+    
     /**
      * @return The number of cards remaining based on the original count of this view
      */
@@ -554,16 +701,13 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
      * Recycles the deck
      */
     private void recycleDeck() {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-
         // Remove the blank card from the layered pane, put it back at the end, much easier
         layeredPane.remove(_blankCard);
     	
         // The list of components
         Component[] components = layeredPane.getComponents();
         
-        if(preferences.drawOption == DrawOption.ONE) {
+        if(_drawOption == DrawOption.ONE) {
             for(int i = components.length - 1; i >= 0; --i) {
                 Component component = components[i];
                 layeredPane.setLayer(component, i);
@@ -592,17 +736,14 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
      * Re-syncs the deck, ensuring that the layers are sequentially ordered
      */
     private void resyncDeckLayers() {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        
-        if(preferences.drawOption == DrawOption.ONE) {
+        if(_drawOption == DrawOption.ONE) {
             // Starting from the lowest layer upwards, re-synchronize all the layer positions of the cards.
             for(int i = layeredPane.getComponentCount() - 1, layerId = 0;  i >= 0; --i, ++layerId) {
                 // Re-synchronize the layer position of the card
                 layeredPane.setLayer(layeredPane.getComponent(i), layerId);
             }
         }
-        else if(preferences.drawOption == DrawOption.THREE) {
+        else if(_drawOption == DrawOption.THREE) {
             
             // Get the list of components grouped by their layer
             List<Component[]> componentsGroupedByLayer = getComponentsGroupedByLayer();
@@ -650,10 +791,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         int position = getPosition(component);
         
         // The position of the card when playing with `three` is all that concerns us since position matters, vs `single` card which are all stacked.
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        
-        if(preferences.drawOption == DrawOption.THREE) {
+        if(_drawOption == DrawOption.THREE) {
             setBoundsDrawThreeImpl(component, position);
         }
         else {
@@ -747,9 +885,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
     }
     
     @Override public void addCard(CardView cardView) {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        if(preferences.drawOption == DrawOption.THREE) {
+        if(_drawOption == DrawOption.THREE) {
             addCard(cardView, _lastCardInteracted.layer);
             layeredPane.setPosition(cardView, 0);           
         }
@@ -791,8 +927,11 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
     
     @Override public void render() {
         super.render();
+        
+        // Hide the cards that were not yet drawn. The cards that were drawn are left as-is, which is only
+        // ever the case when the talon was restored to a specific state
         for(Component comp : layeredPane.getComponents()) {
-            if(!comp.equals(_blankCard)) {
+            if(!comp.equals(_blankCard) && !_isDeckInRecycledState && layeredPane.getLayer(comp) < JLayeredPane.getLayer(_blankCard)) {
                 comp.setVisible(false);
             }
         }
@@ -828,7 +967,7 @@ public final class TalonPileView extends AbstractPileView implements ICollidable
         
         // Get the card that is owned by the game view. When a drag occurs, the card is owned by the game view so that
         // it can be freely dragged around the entire game.
-        CardView cardView = AbstractFactory.getFactory(ViewFactory.class).get(GameView.class).getCardComponent();
+        CardView cardView = GameContext.current().getGameView().getCardComponent();
         
         // If the card cannot be found and if the talon doesnt have the blank card as the top most card
         if(cardView == null && layeredPane.highestLayer() != JLayeredPane.getLayer(_blankCard)) {
@@ -2,18 +2,21 @@ package game.views;
 
 import java.awt.Color;
 import java.awt.FlowLayout;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import javax.swing.JLabel;
 
-import framework.core.factories.AbstractFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.mvc.view.PanelView;
 
+import game.events.GameEventBus;
+import game.views.helpers.AnimationScheduler;
+import game.views.helpers.IAnimation;
+
 public final class TimerView extends PanelView {
 
-    private Timer _timer = new Timer(true);
+    /**
+     * The number of milliseconds between two ticks of the game timer
+     */
+    private static final int TICK_DELAY = 1000;
 
     private JLabel _label = new JLabel();
     
@@ -23,6 +26,18 @@ public final class TimerView extends PanelView {
     
     private boolean _cancelled;
     
+    /**
+     * The task of the animation scheduler that ticks the game timer
+     */
+    private final IAnimation _clock = (now, dirty) -> {
+        ++_time;
+        _label.setText(TimerView.this.toString());
+        if(_time % 10 == 0) {
+            GameEventBus.getInstance().postTimerTicked();
+        }
+        return true;
+    };
+    
     /**
      * Constructs a new instance of this class type
      */
@@ -43,15 +58,7 @@ public final class TimerView extends PanelView {
         
         _running = true;
         _time = 0;        
-        _timer.schedule(new TimerTask() {
-            @Override public void run() {
-                ++_time;
-                _label.setText(TimerView.this.toString());
-                if(_time % 10 == 0) {
-                    AbstractFactory.getFactory(ViewFactory.class).get(ScoreView.class).updateScoreTimerTick();
-                }
-            }
-        }, 1000, 1000);
+        AnimationScheduler.getInstance().add(_clock, TICK_DELAY, TICK_DELAY);
     }
     
     public long getTime() {
@@ -60,13 +67,13 @@ public final class TimerView extends PanelView {
     
     public void stop() {
         _cancelled = true;
-        _timer.cancel();
+        AnimationScheduler.getInstance().remove(_clock);
         _running = false;
     }
     
     @Override public void destructor() {
         _cancelled = true;
-        _timer.cancel();
+        AnimationScheduler.getInstance().remove(_clock);
         super.destructor();
     }
     
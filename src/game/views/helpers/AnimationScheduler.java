@@ -0,0 +1,269 @@
+package game.views.helpers;
+
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.swing.Timer;
+
+import framework.utils.logging.Tracelog;
+
+import game.views.GameContext;
+
+/**
+ * The clock that drives every animation of the game, including the game timer and the animated deck backsides.
+ *
+ * A single timer fires on the event dispatch thread, so animations are free to modify the user interface. Animations are
+ * registered as tasks that are either advanced once per frame, or at a fixed time step of their own where a late frame
+ * performs the steps that were missed, up to a limit. The regions that the tasks changed are merged so that the game view
+ * is repainted once per frame no matter how many tasks are running. Frames are never closer than {@link #FRAME_DELAY},
+ * between frames the timer sleeps until the earliest task is due, and it stops entirely when there is nothing to animate
+ */
+public final class AnimationScheduler {
+
+    /**
+     * A task of the scheduler
+     */
+    private static final class Task {
+
+        /**
+         * The animation advanced by this task
+         */
+        private final IAnimation _animation;
+
+        /**
+         * The fixed time step of the animation in nanoseconds, or zero if it is advanced once per frame
+         */
+        private long _period;
+
+        /**
+         * The time that the animation is next due, in nanoseconds
+         */
+        private long _due;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param animation The animation advanced by this task
+         */
+        private Task(IAnimation animation) {
+            _animation = animation;
+        }
+    }
+
+    /**
+     * The number of milliseconds within a frame
+     */
+    public static final int FRAME_DELAY = 1000 / 60;
+
+    /**
+     * The maximum number of fixed time steps performed within a single frame, so that an animation does not rush to catch
+     * up after the game was busy
+     */
+    private static final int MAX_STEPS_PER_FRAME = 8;
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final AnimationScheduler _instance = new AnimationScheduler();
+
+    /**
+     * The tasks currently running, in the order that they were added
+     */
+    private final List<Task> _tasks = new CopyOnWriteArrayList<Task>();
+
+    /**
+     * The timer that wakes the scheduler once the next task is due
+     */
+    private final Timer _frameTimer = new Timer(FRAME_DELAY, event -> tick());
+
+    /**
+     * The time of the last frame, in nanoseconds
+     */
+    private long _lastFrame;
+
+    /**
+     * The region of the game view that must be repainted for the current frame
+     */
+    private final Rectangle _dirty = new Rectangle();
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private AnimationScheduler() {
+        // The timer is restarted by every tick, coalescing would drop a wake that is due before the tick has returned
+        _frameTimer.setRepeats(false);
+        _frameTimer.setCoalesce(false);
+    }
+
+    /**
+     * @return The animation scheduler
+     */
+    public static AnimationScheduler getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Adds the specified animation, it is advanced once per frame starting with the next frame. Adding an animation that is
+     * already running has no effect, so that adding it on every change cannot keep postponing its next step. This method
+     * must be called from the event dispatch thread
+     *
+     * @param animation The animation
+     */
+    public void add(IAnimation animation) {
+        if(find(animation) == null) {
+            schedule(animation, 0, FRAME_DELAY);
+        }
+    }
+
+    /**
+     * Adds the specified animation, it is advanced once every period starting after the specified delay. Adding an
+     * animation that is already running replaces its schedule. This method must be called from the event dispatch thread
+     *
+     * @param animation The animation
+     * @param period The fixed time step of the animation, in milliseconds
+     * @param delay The delay before the first step, in milliseconds
+     */
+    public void add(IAnimation animation, long period, long delay) {
+        schedule(animation, Math.max(1, period), delay);
+    }
+
+    /**
+     * Removes the specified animation, it is no longer advanced
+     *
+     * @param animation The animation
+     */
+    public void remove(IAnimation animation) {
+        Task task = find(animation);
+        if(task != null) {
+            _tasks.remove(task);
+        }
+        if(_tasks.isEmpty()) {
+            _frameTimer.stop();
+        }
+    }
+
+    /**
+     * Removes every animation and stops the clock
+     */
+    public void clear() {
+        _tasks.clear();
+        _frameTimer.stop();
+    }
+
+    /**
+     * @return TRUE if at least one animation is running, FALSE otherwise
+     */
+    public boolean isRunning() {
+        return !_tasks.isEmpty();
+    }
+
+    /**
+     * Schedules the specified animation
+     *
+     * @param animation The animation
+     * @param period The fixed time step of the animation in milliseconds, or zero if it is advanced once per frame
+     * @param delay The delay before the first step, in milliseconds
+     */
+    private void schedule(IAnimation animation, long period, long delay) {
+        Task task = find(animation);
+        if(task == null) {
+            task = new Task(animation);
+            _tasks.add(task);
+        }
+        task._period = TimeUnit.MILLISECONDS.toNanos(period);
+        task._due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+
+        wake(System.nanoTime());
+    }
+
+    /**
+     * @param animation The animation
+     *
+     * @return The task of the specified animation, or null if it is not running
+     */
+    private Task find(IAnimation animation) {
+        for(Task task : _tasks) {
+            if(task._animation == animation) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Advances every task that is due, then repaints the merged region that they changed
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        _lastFrame = now;
+
+        // A negative size marks the region as empty, so that the first region added replaces it
+        _dirty.setBounds(0, 0, -1, -1);
+        for(Task task : _tasks) {
+            boolean isRunning = true;
+            try {
+                if(task._period == 0) {
+                    if(now >= task._due) {
+                        task._due = now + TimeUnit.MILLISECONDS.toNanos(FRAME_DELAY);
+                        isRunning = task._animation.step(now, _dirty);
+                    }
+                }
+                else {
+                    for(int steps = 0; isRunning && now >= task._due; ++steps) {
+                        if(steps == MAX_STEPS_PER_FRAME) {
+                            task._due = now + task._period;
+                            break;
+                        }
+
+                        // The time is advanced before the step, so that the animation can reschedule itself
+                        long time = task._due;
+                        task._due += task._period;
+                        isRunning = task._animation.step(time, _dirty);
+                    }
+                }
+            }
+            catch(RuntimeException exception) {
+                Tracelog.log(Level.SEVERE, true, exception);
+                isRunning = false;
+            }
+            if(!isRunning) {
+                _tasks.remove(task);
+            }
+        }
+
+        GameContext context = GameContext.current();
+        if(context != null && !_dirty.isEmpty()) {
+            context.getGameView().repaint(_dirty);
+        }
+
+        wake(now);
+    }
+
+    /**
+     * Sets the timer to wake once the earliest task is due, or stops it when there are no tasks
+     *
+     * @param now The current time, in nanoseconds
+     */
+    private void wake(long now) {
+        if(_tasks.isEmpty()) {
+            _frameTimer.stop();
+            return;
+        }
+
+        long due = Long.MAX_VALUE;
+        for(Task task : _tasks) {
+            due = Math.min(due, task._due);
+        }
+
+        // Frames are paced, the tasks due sooner than the next frame are stepped together within that frame
+        due = Math.max(due, _lastFrame + TimeUnit.MILLISECONDS.toNanos(FRAME_DELAY));
+
+        // Round up, waking before the task is due would only wake the timer again
+        long delay = TimeUnit.NANOSECONDS.toMillis(Math.max(0, due - now) + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+        _frameTimer.setInitialDelay((int)Math.min(Integer.MAX_VALUE, delay));
+        _frameTimer.restart();
+    }
+}
@@ -0,0 +1,107 @@
+package game.views.helpers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import game.config.OptionsSnapshot;
+import game.controllers.CardController;
+import game.events.IGameEventListener;
+import game.models.AutocompletePlanner;
+import game.models.BoardPosition;
+import game.views.AbstractPileView;
+import game.views.CardView;
+import game.views.FoundationPileView;
+import game.views.GameContext;
+import game.views.TableauPileView;
+import game.views.TalonPileView;
+
+/**
+ * This helper class sends the cards that are safe to the foundations after every move, when the auto play option is
+ * enabled, see {@link AutocompletePlanner#isSafe(int, int[])}
+ *
+ * Safety is evaluated from the top-most card of the foundations, and only the top-most card of the talon and of each
+ * tableau column can be played, so a move costs a handful of checks no matter how many cards are on the board. The checks
+ * run once the move is delivered through the game event bus, so they never delay the drop of a card
+ */
+public final class AutoPlayHelper implements IGameEventListener {
+
+    /**
+     * The rank of the top-most card of each suit within the foundations
+     */
+    private final int[] _homeRanks = new int[BoardPosition.FOUNDATION_COUNT];
+
+    @Override public void onMoveApplied(int from, int to, int card) {
+        playSafeCards();
+    }
+
+    @Override public void onCardFlipped(int pile, int card) {
+        playSafeCards();
+    }
+
+    /**
+     * Moves the top-most card of the talon or of a tableau column to the foundations if it is safe. Every card moved is
+     * published as a move, so the next safe card is played when that move is delivered
+     */
+    private void playSafeCards() {
+        GameContext context = GameContext.current();
+        if(context == null || context.isWon() || !OptionsSnapshot.current().autoPlay) {
+            return;
+        }
+
+        // Never take a card away from underneath a card that is being dragged
+        if(context.getGameView().getCardComponent() != null) {
+            return;
+        }
+
+        Arrays.fill(_homeRanks, -1);
+        for(FoundationPileView foundationView : context.getFoundationViews()) {
+            CardView cardView = foundationView.getLastCard();
+            if(cardView != null) {
+                int code = getCode(cardView);
+                _homeRanks[BoardPosition.getSuit(code)] = BoardPosition.getRank(code);
+            }
+        }
+
+        TalonPileView talonView = context.getTalonView();
+        if(playSafeCard(talonView)) {
+            // Enable the next card of the talon so that it can be played
+            CardView lastTalonCard = talonView.getLastCard();
+            if(lastTalonCard != null) {
+                lastTalonCard.setEnabled(true);
+            }
+            return;
+        }
+
+        List<TableauPileView> tableauViews = context.getTableauViews();
+        for(TableauPileView tableauView : tableauViews) {
+            if(playSafeCard(tableauView)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the top-most card of the specified pile to the foundations if it is safe
+     *
+     * @param pileView The pile
+     *
+     * @return TRUE if the card was moved, FALSE otherwise
+     */
+    private boolean playSafeCard(AbstractPileView pileView) {
+        CardView cardView = pileView.getLastCard();
+        if(cardView == null || cardView.isBacksideShowing() || !AutocompletePlanner.isSafe(getCode(cardView), _homeRanks)) {
+            return false;
+        }
+
+        return CardFlightHelper.getInstance().performCardAutoMovement(cardView, false);
+    }
+
+    /**
+     * @param cardView The card
+     *
+     * @return The code of the specified card
+     */
+    private static int getCode(CardView cardView) {
+        return cardView.getViewProperties().getEntity(CardController.class).getCard().getCode();
+    }
+}
@@ -0,0 +1,332 @@
+package game.views.helpers;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JLayeredPane;
+import javax.swing.SwingUtilities;
+
+import framework.core.physics.ICollidable;
+
+import game.config.OptionsSnapshot;
+import game.controllers.CardController;
+import game.views.AbstractPileView;
+import game.views.CardView;
+import game.views.GameContext;
+import game.views.GameView;
+
+/**
+ * This helper class drags the cards of a pile across the game when outline dragging is not enabled.
+ *
+ * When a drag starts, the card pressed and every card above it are drawn once into a single image of the stack, and the
+ * cards are hidden within their pile. Only that image is drawn over the game view while it follows the mouse, so moving
+ * it repaints the region that it left and the region that it entered regardless of how many cards are being dragged. The
+ * cards never leave their pile during the drag, the component tree is only changed once they are dropped onto another
+ * pile
+ */
+public final class CardDragHelper {
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final CardDragHelper _instance = new CardDragHelper();
+
+    /**
+     * The cards being dragged, starting with the card that was pressed
+     */
+    private final List<CardView> _cardViews = new ArrayList<CardView>();
+
+    /**
+     * The bounds that the cards are drawn at, within the game view
+     */
+    private final Rectangle _bounds = new Rectangle();
+
+    /**
+     * The pile that the cards are dragged from
+     */
+    private AbstractPileView _pileView;
+
+    /**
+     * The image of the cards being dragged
+     */
+    private BufferedImage _image;
+
+    /**
+     * The position of the mouse within the cards being dragged
+     */
+    private Point _offset;
+
+    /**
+     * The pile that the cards would be dropped onto, or null if there is none
+     */
+    private AbstractPileView _collision;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private CardDragHelper() {
+    }
+
+    /**
+     * @return The card drag helper
+     */
+    public static CardDragHelper getInstance() {
+        return _instance;
+    }
+
+    /**
+     * @return The card that was pressed to start the drag, or null if no card is being dragged
+     */
+    public CardView getCardView() {
+        return _cardViews.isEmpty() ? null : _cardViews.get(0);
+    }
+
+    /**
+     * Starts dragging the specified card along with every card above it within its pile
+     *
+     * @param cardView The card that was pressed
+     * @param point The position that the card was pressed at, within the game view
+     *
+     * @return TRUE if the drag has started, FALSE otherwise
+     */
+    public boolean start(CardView cardView, Point point) {
+        GameContext context = GameContext.current();
+        if(context == null || !(cardView.getParent() instanceof JLayeredPane) || !(cardView.getParentIView() instanceof AbstractPileView)) {
+            return false;
+        }
+
+        cancel();
+
+        // The cards closer to the screen come first within a layered pane, so the cards above the pressed card are
+        // taken from the pressed card towards the start
+        JLayeredPane parentLayeredPane = (JLayeredPane) cardView.getParent();
+        Component[] components = parentLayeredPane.getComponents();
+        Rectangle bounds = cardView.getBounds();
+        _cardViews.add(cardView);
+        for(int i = parentLayeredPane.getIndexOf(cardView) - 1; i >= 0; --i) {
+            if(components[i] instanceof CardView && components[i].isVisible()) {
+                _cardViews.add((CardView) components[i]);
+                bounds.add(components[i].getBounds());
+            }
+        }
+
+        GameView gameView = context.getGameView();
+        _pileView = (AbstractPileView) cardView.getParentIView();
+        _image = createImage(gameView.getGraphicsConfiguration(), _cardViews, bounds);
+        _bounds.setBounds(SwingUtilities.convertRectangle(parentLayeredPane, bounds, gameView));
+        _offset = new Point(point.x - _bounds.x, point.y - _bounds.y);
+
+        // The image of the cards is drawn where the cards were, so hiding them changes nothing on screen
+        for(CardView view : _cardViews) {
+            view.setVisible(false);
+        }
+        DamageTracker.getInstance().addDamage(gameView, _bounds);
+        return true;
+    }
+
+    /**
+     * Moves the cards being dragged so that they follow the mouse. The position is processed by the next frame, see
+     * {@link DragEventCoalescer}
+     *
+     * @param point The position of the mouse, within the game view
+     */
+    public void drag(Point point) {
+        if(!_cardViews.isEmpty()) {
+            DragEventCoalescer.getInstance().post(point, this::move);
+        }
+    }
+
+    /**
+     * Drops the cards being dragged. The cards are moved onto the pile that they collide with if the move is valid,
+     * otherwise they are shown again within the pile they were dragged from
+     */
+    public void drop() {
+        if(_cardViews.isEmpty()) {
+            return;
+        }
+
+        // The cards are dropped where the mouse was released
+        DragEventCoalescer.getInstance().flush();
+
+        AbstractPileView destination = _collision;
+        setCollision(null);
+
+        GameContext context = GameContext.current();
+        if(destination != null && destination != _pileView) {
+            // The backup of the move is taken while the cards are still within the pile that they are dragged from
+            CardView cardView = _cardViews.get(0);
+            context.getRecorder().recordMovement(_pileView, destination, cardView.getViewProperties().getEntity(CardController.class).getCard());
+            for(CardView view : _cardViews) {
+                destination.addCard(view);
+            }
+        }
+
+        reset(context.getGameView());
+    }
+
+    /**
+     * Cancels the drag, the cards are shown again within the pile they were dragged from
+     */
+    public void cancel() {
+        if(_cardViews.isEmpty()) {
+            return;
+        }
+
+        DragEventCoalescer.getInstance().discard();
+        setCollision(null);
+        GameContext context = GameContext.current();
+        reset(context != null ? context.getGameView() : null);
+    }
+
+    /**
+     * Discards the drag without touching the cards, used when the game is discarded
+     */
+    public void clear() {
+        DragEventCoalescer.getInstance().discard();
+        _cardViews.clear();
+        _pileView = null;
+        _collision = null;
+        _image = null;
+    }
+
+    /**
+     * Draws the cards being dragged. This is called by the game view after its children were painted, so that the cards
+     * are drawn above every pile, but underneath the status bar
+     *
+     * @param graphics The graphics context of the game view
+     */
+    public void paint(Graphics graphics) {
+        if(_image == null) {
+            return;
+        }
+
+        GameContext context = GameContext.current();
+        Graphics cardGraphics = graphics.create();
+        try {
+            if(context != null && OptionsSnapshot.current().statusBar) {
+                cardGraphics.clipRect(0, 0, context.getGameView().getWidth(), context.getStatusBarView().getY());
+            }
+            cardGraphics.drawImage(_image, _bounds.x, _bounds.y, _bounds.width, _bounds.height, null);
+        }
+        finally {
+            cardGraphics.dispose();
+        }
+    }
+
+    /**
+     * Shows the cards being dragged again and forgets about them
+     *
+     * @param gameView The game view, or null if there is none
+     */
+    private void reset(GameView gameView) {
+        for(CardView view : _cardViews) {
+            view.setVisible(true);
+        }
+        if(gameView != null) {
+            DamageTracker.getInstance().addDamage(gameView, _bounds);
+        }
+        clear();
+    }
+
+    /**
+     * Moves the cards being dragged and resolves the pile that they would be dropped onto
+     *
+     * @param point The position of the mouse, within the game view
+     */
+    private void move(Point point) {
+        GameContext context = GameContext.current();
+        if(_cardViews.isEmpty() || context == null) {
+            return;
+        }
+
+        GameView gameView = context.getGameView();
+        DamageTracker.getInstance().addDamage(gameView, _bounds);
+        _bounds.setLocation(point.x - _offset.x, point.y - _offset.y);
+        DamageTracker.getInstance().addDamage(gameView, _bounds);
+
+        setCollision(findCollision(_cardViews.get(0), _bounds, _pileView));
+    }
+
+    /**
+     * Finds the pile that the specified source collides with. The pile under the source is looked up from the index of
+     * the board, and it collides if it is not the excluded pile and if it accepts the source where it is
+     *
+     * @param source The card view, or the card outline, being dragged
+     * @param bounds The bounds of the source, within the game view
+     * @param excluded The pile that the source is dragged from
+     *
+     * @return The pile, or null if there is none
+     */
+    public static AbstractPileView findCollision(Component source, Rectangle bounds, AbstractPileView excluded) {
+        AbstractPileView pileView = GameContext.current().getBoardIndex().getPile(bounds);
+        if(pileView == null || pileView == excluded || !pileView.isValidCollision(source, bounds)) {
+            return null;
+        }
+        return pileView;
+    }
+
+    /**
+     * Sets the pile that the cards being dragged collide with, notifying the previous pile and the new pile
+     *
+     * @param collision The pile, or null if there is none
+     */
+    private void setCollision(AbstractPileView collision) {
+        if(collision == _collision) {
+            return;
+        }
+
+        CardView cardView = _cardViews.get(0);
+        if(_collision != null) {
+            ((ICollidable) _collision).onCollisionStop(cardView);
+        }
+        _collision = collision;
+        if(_collision != null) {
+            ((ICollidable) _collision).onCollisionStart(cardView);
+        }
+    }
+
+    /**
+     * Draws the specified cards into a single image
+     *
+     * @param configuration The graphics configuration of the game view, or null if it is not displayable
+     * @param cardViews The cards, from the bottom-most card to the top-most card
+     * @param bounds The bounds of the cards, within their pile
+     *
+     * @return The image of the cards
+     */
+    private static BufferedImage createImage(GraphicsConfiguration configuration, List<CardView> cardViews, Rectangle bounds) {
+        // The image is drawn in device pixels, so that the cards stay as sharp as they are within their pile
+        double scale = CardImageCache.getScale(configuration);
+        int width = (int) Math.ceil(Math.max(1, bounds.width) * scale);
+        int height = (int) Math.ceil(Math.max(1, bounds.height) * scale);
+        BufferedImage image = configuration != null
+            ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.scale(scale, scale);
+            for(CardView cardView : cardViews) {
+                Graphics cardGraphics = graphics.create(cardView.getX() - bounds.x, cardView.getY() - bounds.y, cardView.getWidth(), cardView.getHeight());
+                try {
+                    cardView.paint(cardGraphics);
+                }
+                finally {
+                    cardGraphics.dispose();
+                }
+            }
+        }
+        finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+}
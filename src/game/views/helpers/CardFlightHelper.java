@@ -0,0 +1,388 @@
+package game.views.helpers;
+
+import java.awt.AWTEvent;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import game.config.OptionsPreferences.AnimationSpeed;
+import game.config.OptionsSnapshot;
+import game.views.CardView;
+import game.views.GameContext;
+import game.views.GameView;
+
+/**
+ * This helper class animates the cards moved to the foundations by autocomplete, so that each card flies from the pile
+ * it was taken from to its foundation instead of appearing there at once.
+ *
+ * The move itself is applied immediately, so the game always reflects every card that was moved. The card is hidden
+ * within its foundation while an image of it is drawn over the game view along its path, and shown again once it lands.
+ * The flights are advanced by the {@link AnimationScheduler}, and pressing a mouse button or a key lands every card at
+ * once
+ */
+public final class CardFlightHelper implements IAnimation {
+
+    /**
+     * A single card on its way to the foundations
+     */
+    private static final class Flight {
+
+        /**
+         * The card being moved, hidden within its foundation until it lands
+         */
+        private final CardView _cardView;
+
+        /**
+         * The image of the card, drawn while the card is in flight
+         */
+        private final BufferedImage _image;
+
+        /**
+         * The position that the card is taken from, within the game view
+         */
+        private final Point _from;
+
+        /**
+         * The position that the card lands at, within the game view
+         */
+        private final Point _to;
+
+        /**
+         * The time that the card takes off, in nanoseconds
+         */
+        private final long _start;
+
+        /**
+         * The time that the card takes to land, in nanoseconds
+         */
+        private final long _duration;
+
+        /**
+         * The bounds that the card was last drawn at
+         */
+        private Rectangle _bounds;
+
+        /**
+         * This flag indicates if the card has taken off
+         */
+        private boolean _isLaunched;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param cardView The card being moved
+         * @param image The image of the card
+         * @param from The position that the card is taken from
+         * @param to The position that the card lands at
+         * @param start The time that the card takes off
+         * @param duration The time that the card takes to land
+         */
+        private Flight(CardView cardView, BufferedImage image, Point from, Point to, long start, long duration) {
+            _cardView = cardView;
+            _image = image;
+            _from = from;
+            _to = to;
+            _start = start;
+            _duration = duration;
+            _bounds = new Rectangle(from.x, from.y, image.getWidth(), image.getHeight());
+        }
+    }
+
+    /**
+     * The number of nanoseconds within a millisecond
+     */
+    private static final long NANOSECONDS_PER_MILLISECOND = 1000000L;
+
+    /**
+     * The shortest time that a card takes to land, in milliseconds
+     */
+    private static final long MINIMUM_DURATION = 80;
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final CardFlightHelper _instance = new CardFlightHelper();
+
+    /**
+     * The cards in flight, in the order that they take off
+     */
+    private final List<Flight> _flights = new ArrayList<Flight>();
+
+    /**
+     * The actions to run once every card has landed
+     */
+    private final List<Runnable> _landedActions = new ArrayList<Runnable>();
+
+    /**
+     * The listener that lands every card as soon as the player presses a mouse button or a key
+     */
+    private final AWTEventListener _inputListener = event -> {
+        if(event.getID() == MouseEvent.MOUSE_PRESSED || event.getID() == KeyEvent.KEY_PRESSED) {
+            finish();
+        }
+    };
+
+    /**
+     * The time that the last card takes off, in nanoseconds
+     */
+    private long _lastStart;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private CardFlightHelper() {
+    }
+
+    /**
+     * @return The card flight helper
+     */
+    public static CardFlightHelper getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Attempts to move the specified card to the foundations, animating its flight according to the animation speed of
+     * the options
+     *
+     * @param cardView The card
+     * @param forcefully If the movement is forcefully being done, see {@link CardView#performCardAutoMovement(boolean)}
+     *
+     * @return TRUE if the card was moved, FALSE otherwise
+     */
+    public boolean performCardAutoMovement(CardView cardView, boolean forcefully) {
+        AnimationSpeed speed = OptionsSnapshot.current().animationSpeed;
+        GameContext context = GameContext.current();
+        if(speed == AnimationSpeed.NONE || context == null || !context.getGameView().isShowing() || cardView.getParent() == null) {
+            return cardView.performCardAutoMovement(forcefully);
+        }
+
+        GameView gameView = context.getGameView();
+        Point from = SwingUtilities.convertPoint(cardView.getParent(), cardView.getLocation(), gameView);
+        BufferedImage image = createImage(cardView);
+        if(!cardView.performCardAutoMovement(forcefully)) {
+            return false;
+        }
+        Point to = SwingUtilities.convertPoint(cardView.getParent(), cardView.getLocation(), gameView);
+
+        // The cards take off one after another, and each flies at the same speed regardless of its distance
+        long now = System.nanoTime();
+        long start = _flights.isEmpty() ? now : Math.max(now, _lastStart + getLaunchDelay(speed) * NANOSECONDS_PER_MILLISECOND);
+        long duration = Math.max(MINIMUM_DURATION, (long)(from.distance(to) * 1000 / getPixelsPerSecond(speed))) * NANOSECONDS_PER_MILLISECOND;
+        _lastStart = start;
+
+        if(_flights.isEmpty()) {
+            Toolkit.getDefaultToolkit().addAWTEventListener(_inputListener, AWTEvent.MOUSE_EVENT_MASK | AWTEvent.KEY_EVENT_MASK);
+        }
+        Flight flight = new Flight(cardView, image, from, to, start, duration);
+        _flights.add(flight);
+        cardView.setVisible(false);
+
+        // The card waits where it was taken from until it takes off
+        gameView.repaint(flight._bounds);
+        AnimationScheduler.getInstance().add(this);
+
+        return true;
+    }
+
+    /**
+     * Runs the specified action once every card in flight has landed, or immediately if no card is in flight
+     *
+     * @param action The action
+     */
+    public void runWhenLanded(Runnable action) {
+        if(_flights.isEmpty()) {
+            action.run();
+        }
+        else {
+            _landedActions.add(action);
+        }
+    }
+
+    /**
+     * Lands every card in flight at once
+     */
+    public void finish() {
+        if(_flights.isEmpty()) {
+            return;
+        }
+
+        Rectangle dirty = new Rectangle(0, 0, -1, -1);
+        for(Flight flight : _flights) {
+            land(flight, dirty);
+        }
+        _flights.clear();
+        AnimationScheduler.getInstance().remove(this);
+
+        GameContext context = GameContext.current();
+        if(context != null) {
+            context.getGameView().repaint(dirty);
+        }
+
+        // The cards are landed by an input that is still being dispatched, so the pending actions only run once it is
+        // done. A win would otherwise start its animation, and the same press would reach it and skip it
+        onLanded(true);
+    }
+
+    /**
+     * Discards every card in flight without running the pending actions, used when the game is discarded
+     */
+    public void clear() {
+        _flights.clear();
+        _landedActions.clear();
+        AnimationScheduler.getInstance().remove(this);
+        Toolkit.getDefaultToolkit().removeAWTEventListener(_inputListener);
+    }
+
+    /**
+     * Draws every card in flight. This is called by the game view after its children were painted, so that the cards
+     * are drawn above every pile
+     *
+     * @param graphics The graphics context of the game view
+     */
+    public void paint(Graphics graphics) {
+        // The cards waiting to take off are drawn first, the cards of a same pile take off from the top-most card
+        // downwards so they are drawn in reverse
+        for(int i = _flights.size() - 1; i >= 0; --i) {
+            Flight flight = _flights.get(i);
+            if(!flight._isLaunched) {
+                graphics.drawImage(flight._image, flight._bounds.x, flight._bounds.y, null);
+            }
+        }
+        for(Flight flight : _flights) {
+            if(flight._isLaunched) {
+                graphics.drawImage(flight._image, flight._bounds.x, flight._bounds.y, null);
+            }
+        }
+    }
+
+    @Override public boolean step(long now, Rectangle dirty) {
+        for(int i = 0; i < _flights.size(); ++i) {
+            Flight flight = _flights.get(i);
+
+            // The cards take off in order, so none of the cards after this one has taken off either
+            if(now < flight._start) {
+                break;
+            }
+
+            dirty.add(flight._bounds);
+            flight._isLaunched = true;
+
+            double progress = Math.min(1.0, (double)(now - flight._start) / flight._duration);
+            if(progress >= 1.0) {
+                land(flight, dirty);
+                _flights.remove(i--);
+                continue;
+            }
+
+            // Ease out, so that the card slows down as it reaches its foundation
+            double eased = 1.0 - (1.0 - progress) * (1.0 - progress);
+            int x = (int)Math.round(flight._from.x + (flight._to.x - flight._from.x) * eased);
+            int y = (int)Math.round(flight._from.y + (flight._to.y - flight._from.y) * eased);
+            flight._bounds = new Rectangle(x, y, flight._image.getWidth(), flight._image.getHeight());
+            dirty.add(flight._bounds);
+        }
+
+        if(_flights.isEmpty()) {
+            onLanded(false);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Lands the specified card, showing it within its foundation
+     *
+     * @param flight The flight of the card
+     * @param dirty The region to repaint, grown to include the card
+     */
+    private static void land(Flight flight, Rectangle dirty) {
+        dirty.add(flight._bounds);
+        flight._cardView.setVisible(true);
+    }
+
+    /**
+     * Stops listening for input and runs the pending actions, now that every card has landed
+     *
+     * @param isDeferred TRUE to run the pending actions after the current event is dispatched, FALSE to run them now
+     */
+    private void onLanded(boolean isDeferred) {
+        Toolkit.getDefaultToolkit().removeAWTEventListener(_inputListener);
+
+        List<Runnable> actions = new ArrayList<Runnable>(_landedActions);
+        _landedActions.clear();
+        if(isDeferred) {
+            // The input may also restart the game, in which case the actions belong to the discarded game
+            GameContext context = GameContext.current();
+            SwingUtilities.invokeLater(() -> {
+                if(GameContext.current() == context) {
+                    actions.forEach(Runnable::run);
+                }
+            });
+        }
+        else {
+            actions.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Creates the image drawn for the specified card while it is in flight
+     *
+     * @param cardView The card
+     *
+     * @return The image of the card
+     */
+    private static BufferedImage createImage(CardView cardView) {
+        BufferedImage image = new BufferedImage(Math.max(1, cardView.getWidth()), Math.max(1, cardView.getHeight()), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            cardView.paint(graphics);
+        }
+        finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * @param speed The animation speed
+     *
+     * @return The number of pixels that a card travels per second
+     */
+    private static int getPixelsPerSecond(AnimationSpeed speed) {
+        switch(speed) {
+        case SLOW:
+            return 900;
+        case FAST:
+            return 3600;
+        default:
+            return 1800;
+        }
+    }
+
+    /**
+     * @param speed The animation speed
+     *
+     * @return The number of milliseconds between two cards taking off
+     */
+    private static long getLaunchDelay(AnimationSpeed speed) {
+        switch(speed) {
+        case SLOW:
+            return 90;
+        case FAST:
+            return 20;
+        default:
+            return 45;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package game.views.helpers;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+
+import javax.swing.SwingUtilities;
+
+import framework.utils.logging.Tracelog;
+
+import game.models.BoardPosition;
+import game.models.CardModel;
+
+import generated.DataLookup.BACKSIDES;
+
+/**
+ * The cache of the card images, converted to the format of the display that the game is shown on.
+ *
+ * The images of the tilemap are in whichever format they were loaded with, so drawing them can require a conversion on
+ * every paint. Each face and each backside is instead converted once into an image compatible with the graphics
+ * configuration of the display, which the graphics pipeline can keep accelerated and draw as a straight copy. The images
+ * are converted the first time that they are drawn, the backsides are dropped when the deck is changed, and every image is
+ * dropped when the game moves to another display.
+ *
+ * When the display is scaled, such as a 2x display, the cards would otherwise be resized on every paint. Each image is
+ * then also resampled once to the size of the cards in device pixels, which the graphics pipeline draws at the size of a
+ * card as a straight copy. The resampling is done in parallel away from the event dispatch thread, the cards are drawn
+ * resized by the graphics pipeline until it is done
+ */
+public final class CardImageCache {
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final CardImageCache _instance = new CardImageCache();
+
+    /**
+     * The converted image of each face, indexed by card code
+     */
+    private final BufferedImage[] _faces = new BufferedImage[BoardPosition.DECK_SIZE];
+
+    /**
+     * The converted image of each backside, indexed by backside ordinal
+     */
+    private final BufferedImage[] _backsides = new BufferedImage[BACKSIDES.values().length];
+
+    /**
+     * The image of each face resampled to the scale of the display, indexed by card code
+     */
+    private final BufferedImage[] _scaledFaces = new BufferedImage[BoardPosition.DECK_SIZE];
+
+    /**
+     * The image of each backside resampled to the scale of the display, indexed by backside ordinal
+     */
+    private final BufferedImage[] _scaledBacksides = new BufferedImage[BACKSIDES.values().length];
+
+    /**
+     * This flag indicates for each face if it is being resampled
+     */
+    private final boolean[] _isFaceResampling = new boolean[BoardPosition.DECK_SIZE];
+
+    /**
+     * This flag indicates for each backside if it is being resampled
+     */
+    private final boolean[] _isBacksideResampling = new boolean[BACKSIDES.values().length];
+
+    /**
+     * The graphics configuration that the images were converted for
+     */
+    private GraphicsConfiguration _configuration;
+
+    /**
+     * The scale of the display that the images were converted for
+     */
+    private double _scale = 1;
+
+    /**
+     * The number of times that every image was dropped, used to discard the images resampled for a previous display
+     */
+    private int _generation;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private CardImageCache() {
+    }
+
+    /**
+     * @return The card image cache
+     */
+    public static CardImageCache getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Gets the scale of the display of the specified graphics configuration, which is the number of device pixels of a
+     * single pixel of the game
+     *
+     * @param configuration The graphics configuration, or null if the component is not displayable
+     *
+     * @return The scale of the display
+     */
+    public static double getScale(GraphicsConfiguration configuration) {
+        if(configuration == null) {
+            return 1;
+        }
+        return Math.max(1, configuration.getDefaultTransform().getScaleX());
+    }
+
+    /**
+     * Gets the image of the specified card as it is currently showing, converted for the specified graphics configuration.
+     * The image is in device pixels once it was resampled, so it must be drawn at the size of a card, see
+     * {@link game.views.CardView#CARD_WIDTH}. This method must be called from the event dispatch thread
+     *
+     * @param card The card
+     * @param configuration The graphics configuration of the component that the card is drawn on
+     *
+     * @return The converted image, or null if the image of the card cannot be converted yet
+     */
+    public Image getImage(CardModel card, GraphicsConfiguration configuration) {
+        if(configuration == null || card.isEmpty()) {
+            return null;
+        }
+
+        if(configuration != _configuration) {
+            clear();
+            _configuration = configuration;
+            _scale = getScale(configuration);
+
+            // Every face is resampled at once, whereas only the backside of the current deck is needed
+            Image[] sources = new Image[_faces.length];
+            for(int code = 0; code < sources.length; ++code) {
+                sources[code] = CardModel.newCardEntity(code).getRenderableContent();
+            }
+            resample(_scaledFaces, _isFaceResampling, sources);
+        }
+
+        if(card.getIsBackside()) {
+            BACKSIDES backside = card.getCardEntity().backsideCardEntity.getBacksideData();
+            if(backside == null) {
+                return null;
+            }
+            if(_backsides[backside.ordinal()] == null) {
+                _backsides[backside.ordinal()] = convert(card.getRenderableContent(), configuration);
+            }
+            if(_scale != 1 && _scaledBacksides[backside.ordinal()] == null && !_isBacksideResampling[backside.ordinal()]) {
+                resample(_scaledBacksides, _isBacksideResampling, backside.ordinal(), card.getRenderableContent());
+            }
+            return _scaledBacksides[backside.ordinal()] != null ? _scaledBacksides[backside.ordinal()] : _backsides[backside.ordinal()];
+        }
+
+        if(card.getCardEntity().getLayer() == null) {
+            return null;
+        }
+
+        int code = card.getCode();
+        if(_faces[code] == null) {
+            _faces[code] = convert(card.getRenderableContent(), configuration);
+        }
+        if(_scale != 1 && _scaledFaces[code] == null && !_isFaceResampling[code]) {
+            resample(_scaledFaces, _isFaceResampling, code, card.getRenderableContent());
+        }
+        return _scaledFaces[code] != null ? _scaledFaces[code] : _faces[code];
+    }
+
+    /**
+     * Drops the converted backsides, so that the backside of the new deck is converted the next time it is drawn
+     */
+    public void clearBacksides() {
+        for(int i = 0; i < _backsides.length; ++i) {
+            _backsides[i] = null;
+            _scaledBacksides[i] = null;
+            _isBacksideResampling[i] = false;
+        }
+    }
+
+    /**
+     * Drops every converted image
+     */
+    public void clear() {
+        ++_generation;
+        _configuration = null;
+        _scale = 1;
+        for(int i = 0; i < _faces.length; ++i) {
+            _faces[i] = null;
+            _scaledFaces[i] = null;
+            _isFaceResampling[i] = false;
+        }
+        clearBacksides();
+    }
+
+    /**
+     * Resamples the specified image to the scale of the display, see {@link #resample(BufferedImage[], boolean[], Image[])}
+     *
+     * @param images The resampled images
+     * @param isResampling The flag of each image that indicates if it is being resampled
+     * @param index The index of the image
+     * @param source The image to resample
+     */
+    private void resample(BufferedImage[] images, boolean[] isResampling, int index, Image source) {
+        Image[] sources = new Image[images.length];
+        sources[index] = source;
+        resample(images, isResampling, sources);
+    }
+
+    /**
+     * Resamples the specified images to the scale of the display, in parallel on the common pool. Once every image is
+     * resampled, the resampled images are stored on the event dispatch thread and the cards are repainted. An image that
+     * is not loaded yet is only skipped for this pass, it is resampled again the next time that it is drawn
+     *
+     * @param images The resampled images, indexed like the sources
+     * @param isResampling The flag of each image that indicates if it is being resampled, indexed like the sources
+     * @param sources The images to resample, the images that are null are skipped
+     */
+    private void resample(BufferedImage[] images, boolean[] isResampling, Image[] sources) {
+        if(_scale == 1) {
+            return;
+        }
+        for(int i = 0; i < sources.length; ++i) {
+            isResampling[i] |= sources[i] != null;
+        }
+
+        int generation = _generation;
+        GraphicsConfiguration configuration = _configuration;
+        double scale = _scale;
+        BufferedImage[] variants = new BufferedImage[sources.length];
+        CompletableFuture.runAsync(() -> IntStream.range(0, sources.length).parallel().forEach(i -> variants[i] = resample(sources[i], configuration, scale))).whenComplete((result, exception) -> SwingUtilities.invokeLater(() -> {
+            if(exception != null) {
+                Tracelog.log(Level.WARNING, true, exception.toString());
+                return;
+            }
+
+            // The display changed while the images were being resampled
+            if(generation != _generation) {
+                return;
+            }
+
+            // The cards are only repainted when an image was resampled, so that an image that is not loaded yet is tried
+            // again by the next paint rather than by a repaint of its own
+            boolean isResampled = false;
+            for(int i = 0; i < variants.length; ++i) {
+                if(sources[i] != null) {
+                    isResampling[i] = false;
+                }
+                if(variants[i] != null) {
+                    images[i] = variants[i];
+                    isResampled = true;
+                }
+            }
+            if(isResampled) {
+                ViewHelper.repaintCards();
+            }
+        }));
+    }
+
+    /**
+     * Resamples the specified image to the specified scale, into an image compatible with the specified graphics
+     * configuration. Whole scales repeat every pixel so that the edges of the cards stay sharp, other scales are
+     * interpolated
+     *
+     * @param source The image to resample
+     * @param configuration The graphics configuration
+     * @param scale The scale
+     *
+     * @return The resampled image, or null if the size of the source image is not known yet
+     */
+    private static BufferedImage resample(Image source, GraphicsConfiguration configuration, double scale) {
+        if(source == null || source.getWidth(null) <= 0 || source.getHeight(null) <= 0) {
+            return null;
+        }
+
+        int width = (int) Math.ceil(source.getWidth(null) * scale);
+        int height = (int) Math.ceil(source.getHeight(null) * scale);
+        BufferedImage image = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, scale == Math.rint(scale) ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR : RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        }
+        finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Converts the specified image into an image compatible with the specified graphics configuration
+     *
+     * @param source The image to convert
+     * @param configuration The graphics configuration
+     *
+     * @return The converted image, or null if the size of the source image is not known yet
+     */
+    private static BufferedImage convert(Image source, GraphicsConfiguration configuration) {
+        if(source == null || source.getWidth(null) <= 0 || source.getHeight(null) <= 0) {
+            return null;
+        }
+
+        // The corners of the cards are transparent
+        BufferedImage image = configuration.createCompatibleImage(source.getWidth(null), source.getHeight(null), Transparency.TRANSLUCENT);
+        Graphics2D graphics = image.createGraphics();
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        return image;
+    }
+}
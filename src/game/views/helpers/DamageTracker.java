@@ -0,0 +1,85 @@
+package game.views.helpers;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+
+import javax.swing.SwingUtilities;
+
+import game.views.GameContext;
+import game.views.GameView;
+
+/**
+ * The tracker of the regions of the game view that were damaged by a change, such as the region that a card left within
+ * its previous pile and the region that it was added to within its new pile.
+ *
+ * The regions are converted to the coordinates of the game view at the time that they are recorded, merged, and repainted
+ * by the next frame of the {@link AnimationScheduler} along with the regions changed by the animations, so that a move
+ * repaints the few cards that it changed once instead of repainting the entire game
+ */
+public final class DamageTracker implements IAnimation {
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final DamageTracker _instance = new DamageTracker();
+
+    /**
+     * The region of the game view damaged since the last frame. A negative size marks the region as empty
+     */
+    private final Rectangle _damage = new Rectangle(0, 0, -1, -1);
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private DamageTracker() {
+    }
+
+    /**
+     * @return The damage tracker
+     */
+    public static DamageTracker getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Records the entire region of the specified component as damaged
+     *
+     * @param component The component
+     */
+    public void addDamage(Component component) {
+        addDamage(component, new Rectangle(0, 0, component.getWidth(), component.getHeight()));
+    }
+
+    /**
+     * Records the specified region of the specified component as damaged. The region is converted immediately, so that
+     * the region that a component is about to leave can be recorded before it is moved. This method must be called from
+     * the event dispatch thread
+     *
+     * @param component The component
+     * @param region The region, in the coordinates of the component
+     */
+    public void addDamage(Component component, Rectangle region) {
+        if(component == null || region.isEmpty()) {
+            return;
+        }
+
+        // Components that are not shown within the game view are repainted on their own
+        GameContext context = GameContext.current();
+        GameView gameView = context != null ? context.getGameView() : null;
+        if(gameView == null || !SwingUtilities.isDescendingFrom(component, gameView)) {
+            component.repaint(region.x, region.y, region.width, region.height);
+            return;
+        }
+
+        _damage.add(SwingUtilities.convertRectangle(component, region, gameView));
+        AnimationScheduler.getInstance().add(this);
+    }
+
+    @Override public boolean step(long now, Rectangle dirty) {
+        dirty.add(_damage);
+        _damage.setBounds(0, 0, -1, -1);
+
+        // The tracker is added again by the next damage
+        return false;
+    }
+}
@@ -0,0 +1,186 @@
+package game.views.helpers;
+
+import java.util.List;
+
+import framework.utils.globalisation.Localization;
+
+import game.config.OptionsPreferences.DrawOption;
+import game.controllers.CardController;
+import game.events.IGameEventListener;
+import game.models.BoardPosition;
+import game.models.CardModel;
+import game.models.DeadEndDetector;
+import game.models.GameEngine;
+import game.views.CardView;
+import game.views.FoundationPileView;
+import game.views.GameContext;
+import game.views.TableauPileView;
+import game.views.TalonPileView;
+
+import resources.LocalizationStrings;
+
+/**
+ * This helper class tells the player through the status bar when the game has no productive move left, see
+ * {@link DeadEndDetector}
+ *
+ * Only the piles that a move touched are read back into the detector: the tableau columns that a card left or reached, and
+ * the talon when a card was drawn, played from it or when it was cycled. An undo can restore any pile, so every pile is
+ * read back after one
+ */
+public final class DeadEndHelper implements IGameEventListener {
+
+    /**
+     * The detector holding the summary of the board
+     */
+    private final DeadEndDetector _detector = new DeadEndDetector();
+
+    /**
+     * The buffer that the face up cards of a tableau column are read into
+     */
+    private final int[] _cards = new int[BoardPosition.DECK_SIZE];
+
+    /**
+     * This flag indicates if the piles were read into the detector at least once
+     */
+    private boolean _isInitialized;
+
+    /**
+     * This flag indicates if the player was told that no productive move is left
+     */
+    private boolean _isDeadEnd;
+
+    @Override public void onMoveApplied(int from, int to, int card) {
+        update(from, to);
+    }
+
+    @Override public void onMoveUndone(int from, int to) {
+        _isInitialized = false;
+        update(from, to);
+    }
+
+    @Override public void onCardFlipped(int pile, int card) {
+        update(pile, pile);
+    }
+
+    @Override public void onTalonCycled(int passes) {
+        update(GameEngine.PILE_TALON, GameEngine.PILE_TALON);
+    }
+
+    /**
+     * Reads the piles touched by a move into the detector and tells the player if no productive move is left
+     *
+     * @param from The pile that the move started from
+     * @param to The pile that the move ended at
+     */
+    private void update(int from, int to) {
+        GameContext context = GameContext.current();
+        if(context == null || context.isWon()) {
+            return;
+        }
+        
+        // The cards being dragged are only hidden within their column, which would still count them while the drag is in
+        // progress, so every pile is read back once they are dropped
+        if(context.getGameView().getCardComponent() != null) {
+            _isInitialized = false;
+            return;
+        }
+
+        List<TableauPileView> tableauViews = context.getTableauViews();
+        if(!_isInitialized) {
+            for(int column = 0; column < tableauViews.size(); ++column) {
+                readColumn(column, tableauViews.get(column));
+            }
+            readTalon(context.getTalonView());
+            _isInitialized = true;
+        }
+        else {
+            for(int pile : new int[] { from, to }) {
+                if(pile >= GameEngine.PILE_TABLEAU && pile < GameEngine.PILE_COUNT) {
+                    readColumn(pile - GameEngine.PILE_TABLEAU, tableauViews.get(pile - GameEngine.PILE_TABLEAU));
+                }
+                else if(pile == GameEngine.PILE_STOCK || pile == GameEngine.PILE_TALON) {
+                    readTalon(context.getTalonView());
+                }
+            }
+        }
+
+        // The foundations are only four cards, they are read every time
+        for(int suit = 0; suit < BoardPosition.FOUNDATION_COUNT; ++suit) {
+            _detector.setHomeRank(suit, -1);
+        }
+        for(FoundationPileView foundationView : context.getFoundationViews()) {
+            CardView cardView = foundationView.getLastCard();
+            if(cardView != null) {
+                int code = cardView.getViewProperties().getEntity(CardController.class).getCard().getCode();
+                _detector.setHomeRank(BoardPosition.getSuit(code), BoardPosition.getRank(code));
+            }
+        }
+
+        boolean isDeadEnd = !_detector.hasProductiveMove();
+        if(isDeadEnd != _isDeadEnd) {
+            _isDeadEnd = isDeadEnd;
+            if(isDeadEnd) {
+                context.getStatusBarView().setMenuDescription(Localization.instance().getLocalizedString(LocalizationStrings.NO_MOVES_STATUS_BAR));
+            }
+            else {
+                context.getStatusBarView().clearMenuDescription();
+            }
+        }
+    }
+
+    /**
+     * Reads the cards of the specified tableau column into the detector
+     *
+     * @param column The tableau column, starting at zero for the left-most column
+     * @param tableauView The view of the column
+     */
+    private void readColumn(int column, TableauPileView tableauView) {
+        // Components are ordered from the top-most card downwards, and the face up cards are always above the others
+        int count = 0;
+        int hidden = 0;
+        for(int i = 0, size = tableauView.getCardCount(); i < size; ++i) {
+            CardModel card = tableauView.getCard(i).getViewProperties().getEntity(CardController.class).getCard();
+            if(card.getIsBackside()) {
+                ++hidden;
+            }
+            else if(hidden == 0) {
+                _cards[count++] = card.getCode();
+            }
+        }
+        _detector.setColumn(column, _cards, count, hidden);
+    }
+
+    /**
+     * Reads the talon cards that can be reached into the detector
+     *
+     * @param talonView The talon view
+     */
+    private void readTalon(TalonPileView talonView) {
+        _detector.setTalonCards(DeadEndDetector.getReachableTalonCards(
+            toCodeLayers(talonView.getCardLayers(false)),
+            toCodeLayers(talonView.getCardLayers(true)),
+            talonView.getDrawOption() == DrawOption.THREE ? 3 : 1,
+            talonView.isDeckInRecycledState(),
+            talonView.canRecycle()
+        ));
+    }
+
+    /**
+     * Gets the codes associated to the specified layers of cards
+     *
+     * @param layers The layers of cards
+     *
+     * @return The layers of card codes
+     */
+    private static int[][] toCodeLayers(List<List<CardModel>> layers) {
+        int[][] codes = new int[layers.size()][];
+        for(int i = 0; i < codes.length; ++i) {
+            List<CardModel> layer = layers.get(i);
+            codes[i] = new int[layer.size()];
+            for(int j = 0; j < codes[i].length; ++j) {
+                codes[i][j] = layer.get(j).getCode();
+            }
+        }
+        return codes;
+    }
+}
@@ -1,27 +1,22 @@
 package game.views.helpers;
 
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.logging.Level;
 import java.util.stream.Collectors;
 
-import framework.communication.internal.signal.arguments.EventArgs;
 import framework.core.factories.AbstractFactory;
 import framework.core.factories.DataFactory;
-import framework.core.factories.ViewFactory;
 import framework.core.graphics.IRenderable;
 import framework.core.graphics.IRenderableContainer;
-import framework.utils.logging.Tracelog;
 
 import game.entities.StockCardEntity;
-import game.views.StockView;
+import game.events.GameEventBus;
 
 import generated.DataLookup;
 
-public class DeckAnimationHelper implements IRenderableContainer {
+public class DeckAnimationHelper implements IRenderableContainer, IAnimation {
 	private List<StockCardEntity> stockCardEntities;
 	private List<Image> deckImageAnimations;
 	
@@ -31,9 +26,10 @@ public class DeckAnimationHelper implements IRenderableContainer {
 	private int delay = 0;
 	private int period = 1000;
 
-	private Timer timer;
-
-	public static final String DECK_ANIMATION_UPDATED = "DECK_ANIMATION_UPDATED";
+	/**
+	 * The index of the next image of the animation
+	 */
+	private int index;
 
 	private static volatile DeckAnimationHelper instance = null;
 	
@@ -51,10 +47,7 @@ public class DeckAnimationHelper implements IRenderableContainer {
 	}
 	
 	public void clear() {
-		if(timer != null) {
-			timer.cancel();
-			timer = null;
-        }
+		AnimationScheduler.getInstance().remove(this);
 		
 		this.currentDeckImageAnimation = null;
 		this.deckImageOriginal = null;
@@ -127,30 +120,25 @@ public class DeckAnimationHelper implements IRenderableContainer {
 		
 		this.deckImageOriginal = deckImageOriginal;
 		this.currentDeckImageAnimation = null;
-		this.timer = new Timer(true);
-		this.timer.schedule(new TimerTask() {
-			private int index = 0;
-			@Override public void run() {
-				//System.out.println(index + " of " + (deckImageAnimations.size() - 1));
-				if(deckImageAnimations.isEmpty()) {
-					return;
-				}
-				
-				currentDeckImageAnimation = deckImageAnimations.get(index);	
-				AbstractFactory.getFactory(ViewFactory.class).multicastSignalListeners(StockView.class, new EventArgs(this, DECK_ANIMATION_UPDATED));
-				
-				if(index == 0) {
-					//System.out.println("Sleeping for " + delay + " milliseconds");
-					try {
-						Thread.sleep(delay);
-					} catch (Exception exception){
-						Tracelog.log(Level.WARNING, true, exception);
-					}
-				}
-				
-				index = (index + 1) % deckImageAnimations.size();
-			}
-		}, 0, period);
+		this.index = 0;
+		
+		// Only the animated backsides need to be woken by the animation scheduler
+		if(!this.deckImageAnimations.isEmpty()) {
+			AnimationScheduler.getInstance().add(this, period, 0);
+		}
+	}
+	
+	@Override public boolean step(long now, Rectangle dirty) {
+		currentDeckImageAnimation = deckImageAnimations.get(index);	
+		GameEventBus.getInstance().postDeckAnimated();
+		
+		// The first image of the animation is held for longer before the animation continues
+		if(index == 0 && delay > 0) {
+			AnimationScheduler.getInstance().add(this, period, delay + period);
+		}
+		
+		index = (index + 1) % deckImageAnimations.size();
+		return true;
 	}
 	
 	@Override public List<IRenderable> getRenderableContents() {
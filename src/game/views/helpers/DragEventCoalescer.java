@@ -0,0 +1,118 @@
+package game.views.helpers;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.function.Consumer;
+
+/**
+ * This helper class coalesces the mouse drag events of the cards so that a drag is processed once per frame.
+ *
+ * A mouse can deliver its drag events far more often than the game is painted, and each of them would otherwise resolve
+ * the pile under the cards and update the highlights. Only the latest position of the mouse is kept, and it is processed
+ * by the next frame of the {@link AnimationScheduler}. Releasing the mouse flushes the pending position first, so that the
+ * cards are dropped where the mouse was released
+ */
+public final class DragEventCoalescer implements IAnimation {
+
+    /**
+     * The singleton instance of this class
+     */
+    private static final DragEventCoalescer _instance = new DragEventCoalescer();
+
+    /**
+     * The latest position of the mouse that was not processed yet
+     */
+    private Point _point;
+
+    /**
+     * The handler that processes the latest position of the mouse, or null if nothing is pending
+     */
+    private Consumer<Point> _handler;
+
+    /**
+     * The number of drag events received
+     */
+    private long _receivedCount;
+
+    /**
+     * The number of drag events processed
+     */
+    private long _processedCount;
+
+    /**
+     * Constructs a new instance of this class type
+     */
+    private DragEventCoalescer() {
+    }
+
+    /**
+     * @return The drag event coalescer
+     */
+    public static DragEventCoalescer getInstance() {
+        return _instance;
+    }
+
+    /**
+     * Posts the position of a drag event, replacing the position that is pending if any. This method must be called from
+     * the event dispatch thread
+     *
+     * @param point The position of the mouse
+     * @param handler The handler that processes the position
+     */
+    public void post(Point point, Consumer<Point> handler) {
+        ++_receivedCount;
+        _point = point;
+        _handler = handler;
+        AnimationScheduler.getInstance().add(this);
+    }
+
+    /**
+     * Processes the pending position immediately, if any
+     */
+    public void flush() {
+        if(_handler == null) {
+            return;
+        }
+
+        Consumer<Point> handler = _handler;
+        Point point = _point;
+        discard();
+
+        ++_processedCount;
+        handler.accept(point);
+    }
+
+    /**
+     * Discards the pending position, if any
+     */
+    public void discard() {
+        _handler = null;
+        _point = null;
+    }
+
+    /**
+     * @return The number of drag events received
+     */
+    public long getReceivedCount() {
+        return _receivedCount;
+    }
+
+    /**
+     * @return The number of drag events processed, at most one per frame
+     */
+    public long getProcessedCount() {
+        return _processedCount;
+    }
+
+    @Override public String toString() {
+        return String.format("%s: received=%d processed=%d", getClass().getSimpleName(), _receivedCount, _processedCount);
+    }
+
+    @Override public boolean step(long now, Rectangle dirty) {
+        flush();
+
+        // The regions damaged by the drag are repainted within this frame rather than the next one
+        DamageTracker.getInstance().step(now, dirty);
+        return false;
+    }
+}
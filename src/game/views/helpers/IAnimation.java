@@ -0,0 +1,21 @@
+package game.views.helpers;
+
+import java.awt.Rectangle;
+
+/**
+ * An animation driven by the frame clock of the {@link AnimationScheduler}
+ */
+public interface IAnimation {
+
+    /**
+     * Advances this animation to the specified time
+     *
+     * @param now The time of the frame, or the time of the step when the animation is advanced at a fixed time step, in
+     * nanoseconds, see {@link System#nanoTime()}
+     * @param dirty The region of the game view that must be repainted for this frame, grown by this method to include every
+     * region that this animation changed
+     *
+     * @return TRUE if this animation is still running, FALSE if it has ended and should no longer be advanced
+     */
+    public boolean step(long now, Rectangle dirty);
+}
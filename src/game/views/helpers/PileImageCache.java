@@ -0,0 +1,159 @@
+package game.views.helpers;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * The cache of the rendered appearance of piles, each held within an offscreen image.
+ *
+ * Most piles do not change on a given move, so a pile is only painted again once it was invalidated, which its owner does
+ * when the contents, the highlight or the deck backside of that pile change. Every other paint draws the image of the pile
+ * as it was last painted. The images are also dropped when the region of a pile changes size, and when the game moves to
+ * another display. The images are painted in device pixels, so that a scaled display draws them as a straight copy
+ */
+public final class PileImageCache {
+
+    /**
+     * The image of each pile, kept once the pile is invalidated so that it can be painted into again
+     */
+    private final BufferedImage[] _images;
+
+    /**
+     * This flag indicates for each pile if its image shows the pile as it currently is
+     */
+    private final boolean[] _isValid;
+
+    /**
+     * The graphics configuration that the images were created for
+     */
+    private GraphicsConfiguration _configuration;
+
+    /**
+     * The number of paints that drew the image of a pile
+     */
+    private long _hitCount;
+
+    /**
+     * The number of paints that had to paint a pile again
+     */
+    private long _missCount;
+
+    /**
+     * Constructs a new instance of this class type
+     *
+     * @param size The number of piles
+     */
+    public PileImageCache(int size) {
+        _images = new BufferedImage[size];
+        _isValid = new boolean[size];
+    }
+
+    /**
+     * Paints the specified pile, from its image if it is still valid. This method must be called from the event dispatch
+     * thread
+     *
+     * @param graphics The graphics context
+     * @param pile The pile
+     * @param bounds The region that the pile is painted within
+     * @param background The color that the pile is painted over, or null if the pile is painted over what is already drawn
+     * @param configuration The graphics configuration of the component that the pile is painted on
+     * @param painter Paints the pile, at its location within the component
+     */
+    public void paint(Graphics graphics, int pile, Rectangle bounds, Color background, GraphicsConfiguration configuration, Consumer<Graphics> painter) {
+        if(configuration == null || bounds.isEmpty()) {
+            painter.accept(graphics);
+            return;
+        }
+
+        if(configuration != _configuration) {
+            for(int i = 0; i < _images.length; ++i) {
+                _images[i] = null;
+            }
+            invalidateAll();
+            _configuration = configuration;
+        }
+
+        double scale = CardImageCache.getScale(configuration);
+        int width = (int) Math.ceil(bounds.width * scale);
+        int height = (int) Math.ceil(bounds.height * scale);
+        BufferedImage image = _images[pile];
+        boolean isSameSize = image != null && image.getWidth() == width && image.getHeight() == height;
+        if(_isValid[pile] && isSameSize) {
+            ++_hitCount;
+        }
+        else {
+            ++_missCount;
+            if(!isSameSize) {
+                image = configuration.createCompatibleImage(width, height, background == null ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+                _images[pile] = image;
+            }
+            _isValid[pile] = true;
+
+            // The pile is drawn over its background, so that drawing modes such as the XOR of the highlights give the
+            // same result as drawing the pile directly
+            Graphics2D imageGraphics = image.createGraphics();
+            try {
+                if(background != null) {
+                    imageGraphics.setColor(background);
+                    imageGraphics.fillRect(0, 0, width, height);
+                }
+                else {
+                    imageGraphics.setComposite(AlphaComposite.Clear);
+                    imageGraphics.fillRect(0, 0, width, height);
+                    imageGraphics.setComposite(AlphaComposite.SrcOver);
+                }
+                imageGraphics.scale(scale, scale);
+                imageGraphics.translate(-bounds.x, -bounds.y);
+                painter.accept(imageGraphics);
+            }
+            finally {
+                imageGraphics.dispose();
+            }
+        }
+
+        graphics.drawImage(image, bounds.x, bounds.y, bounds.width, bounds.height, null);
+    }
+
+    /**
+     * Invalidates the specified pile, it is painted again the next time that it is drawn
+     *
+     * @param pile The pile
+     */
+    public void invalidate(int pile) {
+        _isValid[pile] = false;
+    }
+
+    /**
+     * Invalidates every pile
+     */
+    public void invalidateAll() {
+        for(int i = 0; i < _isValid.length; ++i) {
+            _isValid[i] = false;
+        }
+    }
+
+    /**
+     * @return The number of paints that drew the image of a pile
+     */
+    public long getHitCount() {
+        return _hitCount;
+    }
+
+    /**
+     * @return The number of paints that had to paint a pile again
+     */
+    public long getMissCount() {
+        return _missCount;
+    }
+
+    @Override public String toString() {
+        return String.format("%s: hits=%d misses=%d", getClass().getSimpleName(), _hitCount, _missCount);
+    }
+}
@@ -0,0 +1,475 @@
+package game.views.helpers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import framework.utils.logging.Tracelog;
+
+import game.config.GameJournal;
+import game.config.OptionsPreferences.DrawOption;
+import game.config.OptionsPreferences.ScoringOption;
+import game.entities.BacksideCardEntity;
+import game.entities.FoundationCardEntity;
+import game.entities.StockCardEntity;
+import game.models.BoardPosition;
+import game.models.CardModel;
+import game.models.GameEngine;
+import game.views.CardView;
+
+/**
+ * Exports a journaled game to an animated GIF or to a sequence of PNG images.
+ *
+ * The board is replayed with the {@link GameEngine} and drawn offscreen from the card images, so the visible window is
+ * never captured nor modified. Replaying and drawing happen on one thread while encoding happens on another, and only the
+ * region that changed since the previous frame is handed over to the encoder
+ */
+public final class ReplayExporter {
+
+    /**
+     * The supported export formats
+     */
+    public enum Format { GIF, PNG };
+
+    /**
+     * The space in pixels around and between the piles
+     */
+    private static final int MARGIN = 10;
+
+    /**
+     * The vertical offset of a tableau card that has its backside showing
+     */
+    private static final int CARD_OFFSET_BACKSIDE = 3;
+
+    /**
+     * The vertical offset of a tableau card that is showing its face
+     */
+    private static final int CARD_OFFSET = 15;
+
+    /**
+     * The horizontal offset of the cards of the top-most talon hand when drawing three
+     */
+    private static final int CARD_OFFSET_X = 12;
+
+    /**
+     * The width of an exported frame
+     */
+    private static final int WIDTH = MARGIN + BoardPosition.TABLEAU_COUNT * (CardView.CARD_WIDTH + MARGIN);
+
+    /**
+     * The height of an exported frame, enough to hold six hidden cards followed by a full run from king to ace
+     */
+    private static final int HEIGHT = 3 * MARGIN + 2 * CardView.CARD_HEIGHT + 6 * CARD_OFFSET_BACKSIDE + 12 * CARD_OFFSET;
+
+    /**
+     * The delay between two frames, in hundredths of a second
+     */
+    private static final int FRAME_DELAY = 50;
+
+    /**
+     * The number of frames that can wait to be encoded
+     */
+    private static final int QUEUE_CAPACITY = 16;
+
+    /**
+     * The frame that signals the encoder that no more frames will follow
+     */
+    private static final Frame END_OF_STREAM = new Frame(null, 0, 0);
+
+    /**
+     * The region of the board that changed since the previous frame
+     */
+    private static final class Frame {
+
+        /**
+         * The pixels of the region
+         */
+        private final BufferedImage image;
+
+        /**
+         * The horizontal position of the region
+         */
+        private final int x;
+
+        /**
+         * The vertical position of the region
+         */
+        private final int y;
+
+        /**
+         * Constructs a new instance of this class type
+         *
+         * @param image The pixels of the region
+         * @param x The horizontal position of the region
+         * @param y The vertical position of the region
+         */
+        private Frame(BufferedImage image, int x, int y) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * The seed used to deal the game
+     */
+    private final long _seed;
+
+    /**
+     * The draw option that the game was played with
+     */
+    private final DrawOption _drawOption;
+
+    /**
+     * The scoring option that the game was played with
+     */
+    private final ScoringOption _scoringOption;
+
+    /**
+     * The entries of the journal being exported
+     */
+    private final byte[] _entries;
+
+    /**
+     * The face image of each card, indexed by card code
+     */
+    private final Image[] _faces = new Image[BoardPosition.DECK_SIZE];
+
+    /**
+     * The backside image of the cards
+     */
+    private final Image _backside;
+
+    /**
+     * The image of an empty foundation
+     */
+    private final Image _foundation;
+
+    /**
+     * The image of an empty stock that can be recycled
+     */
+    private final Image _stockRecycled;
+
+    /**
+     * The image of an empty stock that can no longer be recycled
+     */
+    private final Image _stockEnded;
+
+    /**
+     * The frames waiting to be encoded
+     */
+    private final BlockingQueue<Frame> _frames = new ArrayBlockingQueue<Frame>(QUEUE_CAPACITY);
+
+    /**
+     * Constructs a new instance of this class type. The images are resolved here, so this should be called from the
+     * event dispatch thread
+     *
+     * @param journal The journal of the game to export
+     */
+    public ReplayExporter(GameJournal journal) {
+        _seed = journal.getSeed();
+        _drawOption = DrawOption.values()[journal.getOptions() & 0x3];
+        _scoringOption = ScoringOption.values()[(journal.getOptions() >> 2) & 0x3];
+        _entries = journal.getEntries();
+
+        for(int code = 0; code < BoardPosition.DECK_SIZE; ++code) {
+            _faces[code] = CardModel.newCardEntity(code).getRenderableContent();
+        }
+        _backside = new BacksideCardEntity().getRenderableContent();
+        _foundation = new FoundationCardEntity().getRenderableContent();
+
+        StockCardEntity stockCardEntity = new StockCardEntity();
+        stockCardEntity.enableTalonRecycled();
+        _stockRecycled = stockCardEntity.getRenderableContent();
+        stockCardEntity.enableTalonEnd();
+        _stockEnded = stockCardEntity.getRenderableContent();
+    }
+
+    /**
+     * Exports the game in the background
+     *
+     * @param output The file of the animated GIF, or the directory of the PNG sequence
+     * @param format The export format
+     */
+    public void export(File output, Format format) {
+        Thread encoder = new Thread(() -> encode(output, format), "ReplayExporter-Encoder");
+        encoder.setDaemon(true);
+        encoder.start();
+
+        Thread renderer = new Thread(() -> render(), "ReplayExporter-Renderer");
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    /**
+     * Replays the game and hands over the region of every frame that changed to the encoder
+     */
+    private void render() {
+        try {
+            GameEngine engine = new GameEngine(_drawOption, _scoringOption);
+            engine.deal(_seed);
+
+            BufferedImage current = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            BufferedImage previous = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+            draw(current, engine);
+            _frames.put(new Frame(copy(current, 0, 0, WIDTH, HEIGHT), 0, 0));
+
+            for(int i = 0; i < _entries.length; i += GameJournal.ENTRY_SIZE) {
+                int type = _entries[i] & 0xFF;
+                if(type == GameJournal.ENTRY_TICK) {
+                    continue;
+                }
+                if(!GameJournal.apply(engine, type, _entries[i + 1] & 0xFF, _entries[i + 2] & 0xFF, _entries[i + 3] & 0xFF)) {
+                    Tracelog.log(Level.WARNING, true, String.format("The replay stopped at entry %d, which is not allowed by the rules", i / GameJournal.ENTRY_SIZE));
+                    break;
+                }
+
+                BufferedImage swap = previous;
+                previous = current;
+                current = swap;
+                draw(current, engine);
+
+                Frame frame = getChangedRegion(previous, current);
+                if(frame != null) {
+                    _frames.put(frame);
+                }
+            }
+        }
+        catch(InterruptedException exception) {
+            Tracelog.log(Level.WARNING, true, exception);
+        }
+        finally {
+            try {
+                _frames.put(END_OF_STREAM);
+            }
+            catch(InterruptedException exception) {
+                Tracelog.log(Level.SEVERE, true, exception);
+            }
+        }
+    }
+
+    /**
+     * Encodes the frames handed over by the renderer
+     *
+     * @param output The file of the animated GIF, or the directory of the PNG sequence
+     * @param format The export format
+     */
+    private void encode(File output, Format format) {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        try {
+            if(format == Format.GIF) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+                output.getParentFile().mkdirs();
+                output.delete();
+                try(ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+                    writer.setOutput(stream);
+                    writer.prepareWriteSequence(null);
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    for(Frame frame = _frames.take(); frame != END_OF_STREAM; frame = _frames.take(), ++count) {
+                        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(frame.image), param);
+                        setFrameMetadata(metadata, frame);
+                        writer.writeToSequence(new IIOImage(frame.image, null, metadata), param);
+                    }
+                    writer.endWriteSequence();
+                }
+                finally {
+                    writer.dispose();
+                }
+            }
+            else {
+                // Each image of the sequence is a full frame, so the regions are composed back onto the board
+                output.mkdirs();
+                BufferedImage board = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+                for(Frame frame = _frames.take(); frame != END_OF_STREAM; frame = _frames.take(), ++count) {
+                    board.getRaster().setRect(frame.x, frame.y, frame.image.getRaster());
+                    ImageIO.write(board, "png", new File(output, String.format("frame-%04d.png", count)));
+                }
+            }
+
+            Tracelog.log(Level.INFO, false, String.format("Exported %d frames to %s in %dms", count, output, System.currentTimeMillis() - start));
+        }
+        catch(IOException | InterruptedException exception) {
+            Tracelog.log(Level.SEVERE, true, exception);
+
+            // Drain the remaining frames so that the renderer is never left blocked
+            try {
+                while(_frames.take() != END_OF_STREAM);
+            }
+            catch(InterruptedException interruptedException) {
+                Tracelog.log(Level.SEVERE, true, interruptedException);
+            }
+        }
+    }
+
+    /**
+     * Draws the board of the specified engine
+     *
+     * @param image The image to draw onto
+     * @param engine The engine
+     */
+    private void draw(BufferedImage image, GameEngine engine) {
+        BoardPosition position = engine.getPosition();
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(0, 128, 0));
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+
+        // Stock
+        if(position.stock.length > 0) {
+            graphics.drawImage(_backside, getColumnX(0), MARGIN, null);
+        }
+        else {
+            graphics.drawImage(engine.isTalonEnded() ? _stockEnded : _stockRecycled, getColumnX(0), MARGIN, null);
+        }
+
+        // Talon, where only the top-most hand is visible
+        if(!position.isRecycled && position.waste.length > 0) {
+            int[] hand = position.waste[position.waste.length - 1];
+            for(int i = hand.length - 1; i >= 0; --i) {
+                graphics.drawImage(_faces[hand[i]], getColumnX(1) + (hand.length - 1 - i) * CARD_OFFSET_X, MARGIN, null);
+            }
+        }
+
+        // Foundations
+        for(int i = 0; i < BoardPosition.FOUNDATION_COUNT; ++i) {
+            int top = position.foundations[i];
+            graphics.drawImage(top == BoardPosition.NONE ? _foundation : _faces[top], getColumnX(BoardPosition.TABLEAU_COUNT - BoardPosition.FOUNDATION_COUNT + i), MARGIN, null);
+        }
+
+        // Tableau
+        for(int column = 0; column < BoardPosition.TABLEAU_COUNT; ++column) {
+            int y = 2 * MARGIN + CardView.CARD_HEIGHT;
+            for(int i = 0; i < position.tableau[column].length; ++i) {
+                boolean isBackside = i < position.tableauHidden[column];
+                graphics.drawImage(isBackside ? _backside : _faces[position.tableau[column][i]], getColumnX(column), y, null);
+                y += isBackside ? CARD_OFFSET_BACKSIDE : CARD_OFFSET;
+            }
+        }
+
+        graphics.dispose();
+    }
+
+    /**
+     * Gets the region that differs between two frames
+     *
+     * @param previous The previous frame
+     * @param current The current frame
+     *
+     * @return The region of the current frame that changed, or null if both frames are identical
+     */
+    private static Frame getChangedRegion(BufferedImage previous, BufferedImage current) {
+        int[] before = ((DataBufferInt)previous.getRaster().getDataBuffer()).getData();
+        int[] after = ((DataBufferInt)current.getRaster().getDataBuffer()).getData();
+
+        int left = WIDTH;
+        int right = -1;
+        int top = HEIGHT;
+        int bottom = -1;
+        for(int y = 0, index = 0; y < HEIGHT; ++y) {
+            for(int x = 0; x < WIDTH; ++x, ++index) {
+                if(before[index] != after[index]) {
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                    top = Math.min(top, y);
+                    bottom = y;
+                }
+            }
+        }
+
+        if(right == -1) {
+            return null;
+        }
+
+        return new Frame(copy(current, left, top, right - left + 1, bottom - top + 1), left, top);
+    }
+
+    /**
+     * Copies a region of the specified image, so that the image can be drawn over while the copy is being encoded
+     *
+     * @param image The image
+     * @param x The horizontal position of the region
+     * @param y The vertical position of the region
+     * @param width The width of the region
+     * @param height The height of the region
+     *
+     * @return The copy of the region
+     */
+    private static BufferedImage copy(BufferedImage image, int x, int y, int width, int height) {
+        BufferedImage region = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        region.getRaster().setRect(-x, -y, image.getRaster().createChild(x, y, width, height, x, y, null));
+        return region;
+    }
+
+    /**
+     * Sets the position, delay and disposal of a GIF frame
+     *
+     * @param metadata The metadata of the frame
+     * @param frame The frame
+     *
+     * @throws IOException If the metadata could not be set
+     */
+    private static void setFrameMetadata(IIOMetadata metadata, Frame frame) throws IOException {
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode)metadata.getAsTree(format);
+
+        IIOMetadataNode descriptor = getChild(root, "ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", String.valueOf(frame.x));
+        descriptor.setAttribute("imageTopPosition", String.valueOf(frame.y));
+
+        // Previous frames are left in place so that each frame only needs to hold what changed
+        IIOMetadataNode control = getChild(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "doNotDispose");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(FRAME_DELAY));
+        control.setAttribute("transparentColorIndex", "0");
+
+        metadata.setFromTree(format, root);
+    }
+
+    /**
+     * Gets the child node of the specified name, creating it if it does not exist
+     *
+     * @param root The root node
+     * @param name The name of the child node
+     *
+     * @return The child node
+     */
+    private static IIOMetadataNode getChild(IIOMetadataNode root, String name) {
+        for(int i = 0; i < root.getLength(); ++i) {
+            if(root.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode)root.item(i);
+            }
+        }
+
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+
+    /**
+     * @param column The column of the board
+     *
+     * @return The horizontal position of the specified column
+     */
+    private static int getColumnX(int column) {
+        return MARGIN + column * (CardView.CARD_WIDTH + MARGIN);
+    }
+}
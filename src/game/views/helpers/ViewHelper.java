@@ -1,22 +1,32 @@
 package game.views.helpers;
 
+import java.awt.Image;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import javax.swing.SwingUtilities;
 
 import framework.api.IView;
 import framework.core.factories.AbstractFactory;
+import framework.core.factories.DataFactory;
+import framework.core.factories.ModelFactory;
 import framework.core.factories.ViewFactory;
 import framework.utils.MouseListenerEvent;
 import framework.utils.MouseListenerEvent.SupportedActions;
 
+import game.controllers.CardController;
+import game.models.AutocompletePlanner;
+import game.models.AutocompletePlanner.Move;
+import game.models.CardModel;
+import game.models.GameEngine;
+import game.views.AbstractPileView;
+import game.views.BoardCanvasView;
 import game.views.CardView;
-import game.views.TableauPileView;
+import game.views.GameContext;
+import game.views.GameView;
+import game.views.StockView;
 import game.views.TalonPileView;
 
+import generated.DataLookup.BACKSIDES;
+
 /**
  * Helper class for common view related functionality
  * 
@@ -46,49 +56,71 @@ public class ViewHelper {
     }
     
     /**
-     * Performs an auto complete based on all available cards
+     * Changes the backside of every card of the game, including the stock. The backside image is resolved once and
+     * shared by every card, after which the game is repainted once
+     *
+     * @param backside The backside
      */
-    private static void performCardsAutocomplete() {
+    public static void changeDeckBackside(BACKSIDES backside) {
         ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
-        List<CardView> cards = new ArrayList<CardView>();
+        boolean isCanvas = viewFactory.exists(BoardCanvasView.class);
+        if(!viewFactory.exists(GameView.class) && !isCanvas) {
+            return;
+        }
         
-        // Get the top-most talon card
-        CardView talonCard = viewFactory.get(TalonPileView.class).getLastCard();
-        if(talonCard != null) {
-            cards.add(talonCard);    
+        Image image = AbstractFactory.getFactory(DataFactory.class).getDataEntity(backside.identifier);
+        for(CardModel card : AbstractFactory.getFactory(ModelFactory.class).getAll(CardModel.class)) {
+            card.getCardEntity().setBackside(backside, image);
         }
+        CardImageCache.getInstance().clearBacksides();
         
-        // Get all available top-most front-facing cards
-        List<TableauPileView> tableauPileViews = viewFactory.getAll(TableauPileView.class);
-        Collections.reverse(tableauPileViews);
-        for(TableauPileView view : tableauPileViews) {
-            CardView card = view.getLastCard();
-            if(card != null && !card.isBacksideShowing()) {
-                cards.add(card);
-            }
+        // The canvas paints its stock from the backside of its cards
+        if(!isCanvas) {
+            viewFactory.get(StockView.class).setBackside(backside, image);
+        }
+        repaintCards();
+    }
+    
+    /**
+     * Repaints every card of the game, used once the images of the cards have changed
+     */
+    public static void repaintCards() {
+        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
+        if(viewFactory.exists(BoardCanvasView.class)) {
+            viewFactory.get(BoardCanvasView.class).onCardImagesChanged();
+        }
+        else if(viewFactory.exists(GameView.class)) {
+            viewFactory.get(GameView.class).repaint();
         }
+    }
+    
+    /**
+     * Performs an auto complete based on all available cards. The moves are planned against a snapshot of the board and
+     * then applied as a batch, the cards then fly to the foundations, see {@link CardFlightHelper}
+     */
+    private static void performCardsAutocomplete() {
+        GameContext context = GameContext.current();
         
-        // Go through the list and apply the automove on each card until there are no cards
-        // left or all cards have been iterated over
-        while(cards.size() > 0) {
-            boolean keepGoing = false;
-            for(int i = 0; i < cards.size(); ++i) {
-                if(cards.get(i).performCardAutoMovement()) {
-                    cards.remove(i);
-                    keepGoing = true;
-                    break;
-                }
-            }
+        // The cards being dragged are put back before any card is moved
+        CardDragHelper.getInstance().cancel();
+        TalonPileView talonView = context.getTalonView();
+        
+        boolean isTalonMoved = false;
+        for(Move move : AutocompletePlanner.plan(context.getGameView().capturePosition())) {
+            AbstractPileView pileView = move.from == GameEngine.PILE_TALON ? talonView : context.getTableauViews().get(move.from - GameEngine.PILE_TABLEAU);
             
-            if(!keepGoing) {
+            // Stop if the board no longer matches the plan
+            CardView cardView = pileView.getLastCard();
+            if(cardView == null || cardView.getViewProperties().getEntity(CardController.class).getCard().getCode() != move.card || !CardFlightHelper.getInstance().performCardAutoMovement(cardView, false)) {
                 break;
             }
+            
+            isTalonMoved |= pileView == talonView;
         }
         
-        // If the talon card was moved then enabled the top-most card so that the next card can be played
-        // TODO Can this be self-contained??
-        if(talonCard != null && !cards.contains(talonCard)) {
-            CardView lastTalonCard = viewFactory.get(TalonPileView.class).getLastCard();
+        // If a talon card was moved then enabled the top-most card so that the next card can be played
+        if(isTalonMoved) {
+            CardView lastTalonCard = talonView.getLastCard();
             if(lastTalonCard != null) {
                 lastTalonCard.setEnabled(true);
             }
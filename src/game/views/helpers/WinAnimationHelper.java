@@ -1,47 +1,68 @@
 package game.views.helpers;
 
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Transparency;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Collections;
+import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.Timer;
-import java.util.TimerTask;
+
+import javax.swing.SwingUtilities;
 
 import framework.core.factories.AbstractFactory;
 import framework.core.factories.ViewFactory;
 import framework.core.system.Application;
 
-import game.config.OptionsPreferences;
+import game.config.OptionsSnapshot;
+import game.controllers.CardController;
+import game.models.CardModel;
 import game.views.CardView;
 import game.views.FoundationPileView;
+import game.views.GameContext;
 import game.views.GameView;
-import game.views.StatusBarView;
 
 /**
- * This helper class performs a win animation on the specified card
- * 
+ * This helper class performs the win animation, bouncing the cards of the foundations one at a time across the game.
+ *
+ * Every position that a card passes through is stamped into a single trail image the size of the game, and only the card
+ * currently bouncing is drawn above it, so the memory and the cost of painting remain the same for the entire animation.
+ * The cards move at a fixed time step of the {@link AnimationScheduler}
+ *
  * @author Daniel Ricci {@literal <thedanny09@icloud.com>}
  */
-public class WinAnimationHelper {
+public class WinAnimationHelper implements IAnimation {
+
+    /**
+     * The number of milliseconds between two steps of the cards
+     */
+    private static final int STEP_DELAY = 1000 / 80;
+
+    /**
+     * The animation currently running, or null if there is none
+     */
+    private static WinAnimationHelper _animation;
 
-    /** 
-     * The timer used to update the position of the cards associated to the foundations
+    /**
+     * The image holding the trail of every card that bounced so far, or null if there is no trail
      */
-    private static Timer _timer;
+    private static BufferedImage _trail;
 
     /**
      * The queue of foundation views, ordered in priority of rendering importance
      */
     private static final Queue<FoundationPileView> _foundations = new LinkedList<FoundationPileView>();
-    
+
     /**
      * The key adapter that handles when a key is pressed during the animation phase
      */
@@ -51,7 +72,7 @@ public class WinAnimationHelper {
             GameView.showGameOverDialog();
         }
     };
-    
+
     /**
      * The mouse adapter that handles when a mouse button is pressed during the animation phase
      */
@@ -61,7 +82,7 @@ public class WinAnimationHelper {
             GameView.showGameOverDialog();
         }
     };
-    
+
     /**
      * The component adapter that handles when the window changes size during the animation phase
      * which causes the layout manager to destroy the layout of the game
@@ -70,90 +91,89 @@ public class WinAnimationHelper {
         @Override public void componentResized(ComponentEvent event) {
             clear();
             GameView.showGameOverDialog();
-        }        
+        }
     };
-    
+
     /**
      * The canvas width
      */
     private static int _canvasWidth;
-    
+
     /**
      * The canvas height
      */
     private static int _canvasHeight;
-    
+
+    /**
+     * The card view that is being bounced, or null if the next card was not taken from the foundations yet
+     */
+    private CardView _cardView;
+
+    /**
+     * The image of the card that is being bounced
+     */
+    private Image _cardImage;
+
     /**
-     * The card view that is being manipulated
+     * The bounds that the card being bounced is drawn at
      */
-    private final CardView _cardView;
+    private final Rectangle _cardBounds = new Rectangle();
 
     /**
      * The x-position being used for the card coordinate
      */
     private double _x;
-    
+
     /**
      * The y-position being used for the card coordinate
      */
     private double _y;
-    
+
     /**
      * The change in `x` over time
      */
-    private double _deltaX = Math.floor(Math.random() * 6 - 3) * 2;
-    
+    private double _deltaX;
+
     /*
      * The change in `y` over time
      */
-    private double _deltaY = -Math.random() * 16;
-    
+    private double _deltaY;
+
     /**
      * Constructs a new instance of this class type
-     * 
-     * @param cardView The card view to animate
      */
-    private WinAnimationHelper(CardView cardView) {
-        _cardView = cardView;
-        Point position = cardView.getParentIView().getContainerClass().getLocation();
-        _x = position.getX();
-        _y = position.getY();
-
-        if(_deltaX == 0) {
-            _deltaX = 1;
-        }
+    private WinAnimationHelper() {
     }
-    
+
     /**
      * Process all the cards held by the foundation views
      */
     public static void processCards() {
-        // Get the list of foundation piles
-        List<FoundationPileView> foundationsList = AbstractFactory.getFactory(ViewFactory.class).getAll(FoundationPileView.class);
-        
-        // Reverse the list so that we start with the left-most pile.
-        Collections.reverse(foundationsList);
+        // Get the list of foundation piles, starting with the left-most pile
+        List<FoundationPileView> foundationsList = GameContext.current().getFoundationViews();
 
         // Initialize this helper class
         initialize();
-        
+
         // Populate the queue of items to be processed
         _foundations.addAll(foundationsList);
     }
-    
+
     /**
      * Initializes this helper in preparation for rendering the cards associated to the foundations
      */
     private static void initialize() {
-        OptionsPreferences preferences = new OptionsPreferences();
-        preferences.load();
-        
-        GameView gameView = AbstractFactory.getFactory(ViewFactory.class).get(GameView.class);
+        OptionsSnapshot preferences = OptionsSnapshot.current();
+
+        GameContext context = GameContext.current();
+        GameView gameView = context.getGameView();
         _canvasWidth = gameView.getWidth();
-        _canvasHeight = gameView.getHeight() - (preferences.statusBar ? AbstractFactory.getFactory(ViewFactory.class).get(StatusBarView.class).getHeight() : 0);
-        
+        _canvasHeight = gameView.getHeight() - (preferences.statusBar ? context.getStatusBarView().getHeight() : 0);
+
         // Clear this class before proceeding
         clear();
+        clearTrail();
+        _trail = createTrail(gameView.getGraphicsConfiguration(), Math.max(1, _canvasWidth), Math.max(1, _canvasHeight));
 
         Application.instance.getJMenuBar().addMouseListener(_mouseAdapter);
         for(int i = 0; i < Application.instance.getJMenuBar().getMenuCount(); ++i) {
@@ -165,82 +185,135 @@ public class WinAnimationHelper {
         gameView.addMouseListener(_mouseAdapter);
         Application.instance.addKeyListener(_keyAdapter);
         Application.instance.addComponentListener(_componentAdapter);
-        
-        _timer = new Timer(true);
-        _timer.schedule(new TimerTask() {
-            WinAnimationHelper helper = null;
-            boolean hadValues = false;
-            @Override public void run() {
-                if(_foundations.size() > 0) {
-                    hadValues = true;
-                    if(helper != null) {
-                        if(!helper.update()) {
-                            helper._cardView.getParent().remove(helper._cardView);
-                            helper = null;
-                        }
-                    }
-                    else {
-                        // Get a reference to the current head of the foundations list
-                        FoundationPileView foundation = _foundations.poll();
-
-                        // If the foundation exists then remove it from the list and get the
-                        // last card. Provided that it exists then create a helper object to
-                        // animate the card and put the foundation at the back of the queue
-                        if(foundation != null) {
-                            _foundations.remove(foundation);
-                            CardView card = foundation.getLastCard();
-                            if(card != null) {
-                                helper = new WinAnimationHelper(card);
-                                _foundations.add(foundation);
-                            }
-                        }
-                    }
-                }
-                else {
-                    if(hadValues) {
-                        clear();
-                        GameView.showGameOverDialog();
-                    }
-                }
-            }
-        }, 0, 1000/80);
+
+        _animation = new WinAnimationHelper();
+        AnimationScheduler.getInstance().add(_animation, STEP_DELAY, 0);
+    }
+
+    /**
+     * Draws the trail of the cards and the card currently bouncing. This is called by the game view after its children
+     * were painted, so that the cards are drawn above every pile
+     *
+     * @param graphics The graphics context of the game view
+     */
+    public static void paint(Graphics graphics) {
+        if(_trail != null) {
+            graphics.drawImage(_trail, 0, 0, null);
+        }
+        if(_animation != null && _animation._cardView != null) {
+            graphics.drawImage(_animation._cardImage, _animation._cardBounds.x, _animation._cardBounds.y, _animation._cardBounds.width, _animation._cardBounds.height, null);
+        }
+    }
+
+    @Override public boolean step(long now, Rectangle dirty) {
+        // The context is gone for the frame that follows a restart, before the animation is cleared
+        if(_animation != this || GameContext.current() == null) {
+            return false;
+        }
+
+        if(!update(dirty)) {
+            _animation = null;
+            clear();
+
+            // The dialog is modal, so it is shown once the current frame has completed
+            SwingUtilities.invokeLater(GameView::showGameOverDialog);
+            return false;
+        }
+
+        return true;
     }
 
     /**
-     * Performs an update by performing both a next step point calculation and a draw routine
+     * Steps the card being bounced, taking the next card from the foundations when there is none
      *
-     * @return TRUE if the operation was successful, false otherwise
+     * @param dirty The region to repaint, grown to include every region that changed
+     *
+     * @return TRUE if the animation should continue, FALSE if every card was bounced
      */
-    private boolean update() {
+    private boolean update(Rectangle dirty) {
+        if(_cardView == null) {
+            if(_foundations.isEmpty()) {
+                return false;
+            }
+
+            // Get a reference to the current head of the foundations list. Provided that its last card exists then
+            // animate that card and put the foundation at the back of the queue
+            FoundationPileView foundation = _foundations.poll();
+            CardView cardView = foundation.getLastCard();
+            if(cardView != null) {
+                start(cardView);
+                _foundations.add(foundation);
+            }
+            return true;
+        }
+
+        // The card leaves a copy of itself at every position that it passes through
+        stamp(dirty);
 
         Point point = calculateNextStep();
         if(point == null) {
-            return false;
+            // The card is done, reveal the card beneath it within its foundation
+            Rectangle foundationBounds = SwingUtilities.convertRectangle(_cardView.getParent(), _cardView.getBounds(), GameContext.current().getGameView());
+            _cardView.getParent().remove(_cardView);
+            dirty.add(foundationBounds);
+            _cardView = null;
+            return true;
         }
-        
-        draw(point);
-        return true;    
+
+        _cardBounds.setLocation(point);
+        dirty.add(_cardBounds);
+        return true;
     }
-    
+
     /**
-     * Draws the currently set card view to the specified position
+     * Starts bouncing the specified card from its foundation
      *
-     * @param point The position to draw to
+     * @param cardView The card view to animate
      */
-    private void draw(Point point) {
-        CardView cardView = CardView.createLightWeightCard(_cardView);
-        cardView.render();
-        
-        ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
-        GameView gameView = viewFactory.get(GameView.class);
-        gameView.add(cardView, 0);
-        cardView.setBounds(new Rectangle(point.x, point.y, _cardView.getWidth(), _cardView.getHeight()));        
+    private void start(CardView cardView) {
+        _cardView = cardView;
+
+        // The face of the card, as converted for the display when possible
+        CardModel card = cardView.getViewProperties().getEntity(CardController.class).getCard();
+        Image image = CardImageCache.getInstance().getImage(card, GameContext.current().getGameView().getGraphicsConfiguration());
+        _cardImage = image != null ? image : card.getRenderableContent();
+
+        Point position = cardView.getParentIView().getContainerClass().getLocation();
+        _x = position.getX();
+        _y = position.getY();
+        _cardBounds.setBounds(position.x, position.y, cardView.getWidth(), cardView.getHeight());
+
+        _deltaX = Math.floor(Math.random() * 6 - 3) * 2;
+        _deltaY = -Math.random() * 16;
+        if(_deltaX == 0) {
+            _deltaX = 1;
+        }
+    }
+
+    /**
+     * Stamps the card being bounced into the trail at its current position
+     *
+     * @param dirty The region to repaint, grown to include the stamped card
+     */
+    private void stamp(Rectangle dirty) {
+        if(_trail == null || _cardImage == null) {
+            return;
+        }
+
+        Graphics2D graphics = _trail.createGraphics();
+        try {
+            graphics.drawImage(_cardImage, _cardBounds.x, _cardBounds.y, _cardBounds.width, _cardBounds.height, null);
+        }
+        finally {
+            graphics.dispose();
+        }
+        dirty.add(_cardBounds);
     }
-    
+
     /**
      * Calculates the next position that the currently set card will be at
      *
-     * @return The position associated to the next step where the card would be at 
+     * @return The position associated to the next step where the card would be at
      */
     private Point calculateNextStep() {
 
@@ -248,37 +321,53 @@ public class WinAnimationHelper {
         _x += _deltaX;
         _y += _deltaY;
 
-        // If you are outside the left or right canvas limits then the card should not 
+        // If you are outside the left or right canvas limits then the card should not
         // longer be positioned anywhere relevant so do not return any position
         if(_x < -CardView.CARD_WIDTH || _x > _canvasWidth) {
             return null;
         }
-        
+
         // If the position is outside canvas height (with respect to the bottom of the card)
         if(_y > _canvasHeight - CardView.CARD_HEIGHT) {
-            
+
             // Normalize the position of the card by placing it on the theoretical bottom of the canvas
             _y = _canvasHeight - CardView.CARD_HEIGHT;
-            
+
             // Take the change in `y` inverse it, this along will cause the card to bounce upwards
             // Take only a small percentage of the delta so that it bounces less
             _deltaY = -_deltaY * 0.85;
-        } 
+        }
 
         _deltaY += 0.98;
 
         return new Point((int)_x, (int)_y);
     }
-    
+
     /**
-     * Clears the contents of this helper
+     * Creates the image that the trail of the cards is stamped into
+     *
+     * @param configuration The graphics configuration of the game view, or null if it is not displayable
+     * @param width The width of the image
+     * @param height The height of the image
+     *
+     * @return The image
+     */
+    private static BufferedImage createTrail(GraphicsConfiguration configuration, int width, int height) {
+        if(configuration != null) {
+            return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Clears the contents of this helper. The trail of the cards remains visible, see {@link #clearTrail()}
      */
     public static void clear() {
-        if(_timer != null) {
-            _timer.cancel();
-            _timer = null;
+        if(_animation != null) {
+            AnimationScheduler.getInstance().remove(_animation);
+            _animation = null;
         }
-        
+
         ViewFactory viewFactory = AbstractFactory.getFactory(ViewFactory.class);
         if(viewFactory != null) {
             GameView gameView = viewFactory.get(GameView.class);
@@ -295,7 +384,17 @@ public class WinAnimationHelper {
         for(int i = 0; i < Application.instance.getJMenuBar().getMenuCount(); ++i) {
             Application.instance.getJMenuBar().getMenu(i).setEnabled(true);
         }
-        
+
         _foundations.clear();
     }
-}
\ No newline at end of file
+
+    /**
+     * Discards the trail of the cards
+     */
+    public static void clearTrail() {
+        if(_trail != null) {
+            _trail.flush();
+            _trail = null;
+        }
+    }
+}